@@ -0,0 +1,100 @@
+package io.github.luidmidev.storage.benchmarks;
+
+import com.mongodb.client.MongoClients;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import io.github.luidmidev.storage.Storage;
+import io.github.luidmidev.storage.disk.DiskStorage;
+import io.github.luidmidev.storage.memory.MemoryStorage;
+import io.github.luidmidev.storage.springframework.data.jpa.JpaStorage;
+import io.github.luidmidev.storage.springframework.gridfs.GridFSStorage;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.gridfs.GridFsTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+
+/**
+ * Almacenes medidos por los benchmarks. Cada almacen se crea sobre un recurso local para que las mediciones no
+ * dependan de la red ni de credenciales.
+ */
+public enum Backend {
+
+    /**
+     * Línea base en memoria
+     */
+    MEMORY {
+        @Override
+        Fixture open() {
+            return new Fixture(new MemoryStorage(), () -> {
+            });
+        }
+    },
+
+    /**
+     * Almacen en un directorio temporal
+     */
+    DISK {
+        @Override
+        Fixture open() throws IOException {
+            var directory = Files.createTempDirectory("storage-benchmark");
+            return new Fixture(new DiskStorage(directory.toString()), () -> deleteRecursively(directory));
+        }
+    },
+
+    /**
+     * Almacen JPA sobre una base de datos H2 en memoria
+     */
+    JPA {
+        @Override
+        Fixture open() {
+            var context = new AnnotationConfigApplicationContext(JpaBenchmarkConfiguration.class);
+            return new Fixture(context.getBean(JpaStorage.class), context::close);
+        }
+    },
+
+    /**
+     * Almacen GridFS sobre un servidor compatible con MongoDB en memoria
+     */
+    GRIDFS {
+        @Override
+        Fixture open() {
+            var server = new MongoServer(new MemoryBackend());
+            var address = server.bind();
+            var client = MongoClients.create("mongodb://" + address.getHostString() + ":" + address.getPort());
+            var mongoTemplate = new MongoTemplate(client, "storage");
+            var template = new GridFsTemplate(mongoTemplate.getMongoDatabaseFactory(), mongoTemplate.getConverter());
+            return new Fixture(new GridFSStorage(template, template), () -> {
+                client.close();
+                server.shutdownNow();
+            });
+        }
+    };
+
+    abstract Fixture open() throws IOException;
+
+    /**
+     * Almacen abierto junto con la liberación de sus recursos
+     */
+    record Fixture(Storage storage, Cleanup cleanup) implements AutoCloseable {
+
+        @Override
+        public void close() throws IOException {
+            cleanup.run();
+        }
+    }
+
+    @FunctionalInterface
+    interface Cleanup {
+        void run() throws IOException;
+    }
+
+    private static void deleteRecursively(Path directory) throws IOException {
+        try (var paths = Files.walk(directory)) {
+            for (var path : paths.sorted(Comparator.reverseOrder()).toList()) Files.delete(path);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package io.github.luidmidev.storage.benchmarks;
+
+import io.github.luidmidev.storage.springframework.data.jpa.FileStoredRepository;
+import io.github.luidmidev.storage.springframework.data.jpa.JpaStorage;
+import jakarta.persistence.EntityManagerFactory;
+import org.h2.jdbcx.JdbcDataSource;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Contexto de Spring con una base de datos H2 en memoria para los benchmarks de {@link JpaStorage}
+ */
+@Configuration
+@EnableJpaRepositories(basePackageClasses = FileStoredRepository.class)
+class JpaBenchmarkConfiguration {
+
+    @Bean
+    DataSource dataSource() {
+        var dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:storage;MODE=MySQL;DB_CLOSE_DELAY=-1");
+        return dataSource;
+    }
+
+    @Bean
+    LocalContainerEntityManagerFactoryBean entityManagerFactory(DataSource dataSource) {
+        var factory = new LocalContainerEntityManagerFactoryBean();
+        factory.setDataSource(dataSource);
+        factory.setPackagesToScan(FileStoredRepository.class.getPackageName());
+        factory.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        factory.setJpaPropertyMap(Map.of("hibernate.hbm2ddl.auto", "create-drop"));
+        return factory;
+    }
+
+    @Bean
+    PlatformTransactionManager transactionManager(EntityManagerFactory entityManagerFactory) {
+        return new JpaTransactionManager(entityManagerFactory);
+    }
+
+    @Bean
+    JpaStorage jpaStorage(FileStoredRepository repository, PlatformTransactionManager transactionManager) {
+        return new JpaStorage(repository, transactionManager);
+    }
+}
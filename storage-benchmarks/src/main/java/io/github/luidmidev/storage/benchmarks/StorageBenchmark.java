@@ -0,0 +1,146 @@
+package io.github.luidmidev.storage.benchmarks;
+
+import io.github.luidmidev.storage.Stored;
+import io.github.luidmidev.storage.ToStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Mide las operaciones principales de {@link io.github.luidmidev.storage.Storage} sobre cada almacen y tamaño de
+ * archivo. Los archivos de lectura se almacenan una vez por prueba; las escrituras usan nombres únicos para no chocar
+ * con archivos existentes.
+ * <p>
+ * Ejecución: {@code java -jar storage-benchmarks/target/benchmarks.jar -p backend=DISK,JPA}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StorageBenchmark {
+
+    private static final String READ_PATH = "read";
+    private static final int READ_FILES = 16;
+    private static final int BATCH_SIZE = 10;
+
+    @Param({"MEMORY", "DISK", "JPA", "GRIDFS"})
+    public Backend backend;
+
+    @Param({"1024", "65536", "1048576"})
+    public int fileSize;
+
+    private Backend.Fixture fixture;
+    private byte[] content;
+    private String[] readPaths;
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLong reads = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        fixture = backend.open();
+        content = new byte[fileSize];
+        new Random(fileSize).nextBytes(content);
+        readPaths = new String[READ_FILES];
+        for (var i = 0; i < READ_FILES; i++) {
+            readPaths[i] = fixture.storage().store(content, "file-" + i + ".bin", READ_PATH);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        fixture.close();
+    }
+
+    @Benchmark
+    public String store() throws IOException {
+        return fixture.storage().store(content, nextName(), "store");
+    }
+
+    @Benchmark
+    public void storeBatch() throws IOException {
+        var toStores = new ToStore[BATCH_SIZE];
+        for (var i = 0; i < BATCH_SIZE; i++) toStores[i] = new ToStore("batch", nextName(), content);
+        fixture.storage().store(toStores);
+    }
+
+    /**
+     * Cada eliminación requiere un archivo propio, por lo que se mide el almacenamiento junto con la eliminación y el
+     * costo de la eliminación se obtiene restando {@link #store()}
+     */
+    @Benchmark
+    public void storeAndRemove() throws IOException {
+        var fullPath = fixture.storage().store(content, nextName(), "remove");
+        fixture.storage().remove(fullPath);
+    }
+
+    @Benchmark
+    public Optional<Stored> download() throws IOException {
+        return fixture.storage().download(nextReadPath());
+    }
+
+    @Benchmark
+    public Optional<Stored.Info> info() throws IOException {
+        return fixture.storage().info(nextReadPath());
+    }
+
+    @Benchmark
+    public boolean exists() throws IOException {
+        return fixture.storage().exists(nextReadPath());
+    }
+
+    @Benchmark
+    public long transferTo() throws IOException {
+        return fixture.storage().transferTo(nextReadPath(), DiscardingChannel.INSTANCE);
+    }
+
+    private String nextName() {
+        return "file-" + sequence.incrementAndGet() + ".bin";
+    }
+
+    private String nextReadPath() {
+        return readPaths[(int) (reads.incrementAndGet() % READ_FILES)];
+    }
+
+    /**
+     * Canal que descarta lo escrito, mide la lectura del almacen sin el costo de un destino real
+     */
+    private enum DiscardingChannel implements WritableByteChannel {
+        INSTANCE;
+
+        @Override
+        public int write(ByteBuffer src) {
+            var remaining = src.remaining();
+            src.position(src.limit());
+            return remaining;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,237 @@
+package io.github.luidmidev.storage;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.channels.WritableByteChannel;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Fachada asíncrona sobre cualquier {@link Storage}. Cada operación se ejecuta en un ejecutor, por defecto con un hilo
+ * virtual por operación, y retorna un {@link CompletableFuture}.
+ * <p>
+ * Cancelar un resultado con {@code cancel(true)} interrumpe el hilo que ejecuta la operación, lo que detiene las
+ * copias en curso de {@link #transferTo(String, WritableByteChannel)} y cierra los canales interrumpibles del almacen.
+ * El seguimiento de {@link StoreTracking} depende del hilo, por lo que los archivos almacenados a través de esta
+ * fachada no se registran en el contexto del hilo que la invoca.
+ */
+@Slf4j
+public final class AsyncStorage implements AutoCloseable {
+
+    /**
+     * Operaciones que pueden limitarse en cantidad de ejecuciones simultáneas
+     */
+    public enum Operation {
+        STORE, DOWNLOAD, INFO, EXISTS, REMOVE, PURGE, TRANSFER
+    }
+
+    @FunctionalInterface
+    private interface IOCallable<T> {
+        T call() throws IOException;
+    }
+
+    @Getter
+    private final Storage storage;
+    private final Executor executor;
+    private final boolean ownsExecutor;
+    private final Map<Operation, Semaphore> limits;
+
+    private AsyncStorage(Builder builder) {
+        this.storage = builder.storage;
+        this.ownsExecutor = builder.executor == null;
+        this.executor = ownsExecutor ? Executors.newVirtualThreadPerTaskExecutor() : builder.executor;
+        this.limits = new EnumMap<>(Operation.class);
+        builder.limits.forEach((operation, limit) -> limits.put(operation, new Semaphore(limit)));
+    }
+
+    /**
+     * Crea una fachada asíncrona con hilos virtuales y sin límites de concurrencia
+     *
+     * @param storage Almacen sobre el que se ejecutan las operaciones
+     * @return Fachada asíncrona
+     */
+    public static AsyncStorage of(Storage storage) {
+        return builder(storage).build();
+    }
+
+    public static Builder builder(Storage storage) {
+        return new Builder(storage);
+    }
+
+    public CompletableFuture<String> store(ToStore toStore) {
+        return submit(Operation.STORE, () -> storage.store(toStore));
+    }
+
+    public CompletableFuture<Void> store(Collection<ToStore> toStores) {
+        return submit(Operation.STORE, () -> {
+            storage.store(toStores);
+            return null;
+        });
+    }
+
+    public CompletableFuture<Optional<Stored>> download(String fullPath) {
+        return submit(Operation.DOWNLOAD, () -> storage.download(fullPath));
+    }
+
+    public CompletableFuture<Optional<Stored>> download(String fullPath, long offset, long length) {
+        return submit(Operation.DOWNLOAD, () -> storage.download(fullPath, offset, length));
+    }
+
+    /**
+     * El archivo retornado debe cerrarse al terminar de leer su contenido
+     */
+    public CompletableFuture<Optional<StoredStream>> openStream(String fullPath) {
+        return submit(Operation.DOWNLOAD, () -> storage.openStream(fullPath));
+    }
+
+    public CompletableFuture<Optional<Stored.Info>> info(String fullPath) {
+        return submit(Operation.INFO, () -> storage.info(fullPath));
+    }
+
+    public CompletableFuture<Boolean> exists(String fullPath) {
+        return submit(Operation.EXISTS, () -> storage.exists(fullPath));
+    }
+
+    public CompletableFuture<Void> remove(String fullPath) {
+        return submit(Operation.REMOVE, () -> {
+            storage.remove(fullPath);
+            return null;
+        });
+    }
+
+    public CompletableFuture<Void> purge(PurgableStored purgable) {
+        return submit(Operation.PURGE, () -> {
+            storage.purge(purgable);
+            return null;
+        });
+    }
+
+    public CompletableFuture<Void> purge(Iterable<? extends PurgableStored> purgables) {
+        return submit(Operation.PURGE, () -> {
+            storage.purge(purgables);
+            return null;
+        });
+    }
+
+    public CompletableFuture<Long> transferTo(String fullPath, WritableByteChannel target) {
+        return submit(Operation.TRANSFER, () -> storage.transferTo(fullPath, target));
+    }
+
+    public CompletableFuture<Void> transferTo(Storage target, String fullPath) {
+        return submit(Operation.TRANSFER, () -> {
+            storage.transferTo(target, fullPath);
+            return null;
+        });
+    }
+
+    private <T> CompletableFuture<T> submit(Operation operation, IOCallable<T> task) {
+        var future = new InterruptibleFuture<T>();
+        var limit = limits.get(operation);
+        executor.execute(() -> future.run(limit, task));
+        return future;
+    }
+
+    /**
+     * Cierra el ejecutor si fue creado por la fachada, esperando a que terminen las operaciones en curso
+     */
+    @Override
+    public void close() {
+        if (ownsExecutor) ((ExecutorService) executor).close();
+    }
+
+    public static final class Builder {
+
+        private final Storage storage;
+        private final Map<Operation, Integer> limits = new EnumMap<>(Operation.class);
+        private Executor executor;
+
+        private Builder(Storage storage) {
+            this.storage = Objects.requireNonNull(storage, "Storage is required");
+        }
+
+        /**
+         * @param executor Ejecutor de las operaciones, no se cierra al cerrar la fachada
+         */
+        public Builder executor(Executor executor) {
+            this.executor = Objects.requireNonNull(executor);
+            return this;
+        }
+
+        /**
+         * Limita la cantidad de ejecuciones simultáneas de una operación, las operaciones que excedan el límite
+         * esperan en su hilo hasta que se libere un cupo
+         *
+         * @param operation      Operación a limitar
+         * @param maxConcurrency Cantidad máxima de ejecuciones simultáneas
+         */
+        public Builder limit(Operation operation, int maxConcurrency) {
+            if (maxConcurrency <= 0) throw new IllegalArgumentException("Max concurrency must be positive: " + maxConcurrency);
+            limits.put(operation, maxConcurrency);
+            return this;
+        }
+
+        public AsyncStorage build() {
+            return new AsyncStorage(this);
+        }
+    }
+
+    /**
+     * Resultado que interrumpe el hilo de la operación al cancelarse
+     */
+    private static final class InterruptibleFuture<T> extends CompletableFuture<T> {
+
+        private Thread runner;
+
+        private void run(Semaphore limit, IOCallable<T> task) {
+            if (!started()) return;
+            try {
+                if (limit != null) limit.acquire();
+                try {
+                    complete(task.call());
+                } finally {
+                    if (limit != null) limit.release();
+                }
+            } catch (InterruptedException e) {
+                completeExceptionally(e);
+            } catch (Throwable e) {
+                log.debug("Async storage operation failed", e);
+                completeExceptionally(e);
+            } finally {
+                finished();
+            }
+        }
+
+        private synchronized boolean started() {
+            if (isDone()) return false;
+            runner = Thread.currentThread();
+            return true;
+        }
+
+        private synchronized void finished() {
+            runner = null;
+            // Limpia una interrupción de cancelación para no afectar la siguiente tarea del hilo
+            Thread.interrupted();
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            var cancelled = super.cancel(mayInterruptIfRunning);
+            if (cancelled && mayInterruptIfRunning) {
+                synchronized (this) {
+                    if (runner != null) runner.interrupt();
+                }
+            }
+            return cancelled;
+        }
+    }
+}
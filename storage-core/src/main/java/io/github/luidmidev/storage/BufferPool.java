@@ -0,0 +1,91 @@
+package io.github.luidmidev.storage;
+
+import lombok.Getter;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pool de buffers directos de tamaño fijo. Los buffers se reutilizan entre operaciones en lugar de asignar un arreglo
+ * por archivo, lo que reduce la tasa de asignación y evita que el contenido de los archivos llegue a la generación
+ * antigua del heap.
+ * <p>
+ * El pool retiene como máximo {@code maxPooled} buffers libres; los buffers liberados por encima de ese límite se
+ * descartan y son reclamados por el recolector de basura.
+ */
+public final class BufferPool {
+
+    private static final BufferPool SHARED = new BufferPool(ContentSource.BUFFER_SIZE, 256);
+
+    @Getter
+    private final int bufferSize;
+    private final int maxPooled;
+    private final ConcurrentLinkedDeque<ByteBuffer> free = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger pooled = new AtomicInteger();
+    private final AtomicLong allocated = new AtomicLong();
+
+    /**
+     * @param bufferSize Tamaño de cada buffer
+     * @param maxPooled  Cantidad máxima de buffers libres retenidos
+     */
+    public BufferPool(int bufferSize, int maxPooled) {
+        if (bufferSize <= 0) throw new IllegalArgumentException("Buffer size must be positive: " + bufferSize);
+        if (maxPooled < 0) throw new IllegalArgumentException("Max pooled must not be negative: " + maxPooled);
+        this.bufferSize = bufferSize;
+        this.maxPooled = maxPooled;
+    }
+
+    /**
+     * Pool compartido por las copias de contenido, con buffers de {@value ContentSource#BUFFER_SIZE} bytes
+     */
+    public static BufferPool shared() {
+        return SHARED;
+    }
+
+    /**
+     * Obtiene un buffer libre o asigna uno nuevo si el pool está vacío
+     *
+     * @return Buffer directo vacío con su posición en cero y su límite en su capacidad
+     */
+    public ByteBuffer acquire() {
+        var buffer = free.pollFirst();
+        if (buffer == null) {
+            allocated.incrementAndGet();
+            return ByteBuffer.allocateDirect(bufferSize);
+        }
+        pooled.decrementAndGet();
+        return buffer.clear();
+    }
+
+    /**
+     * Devuelve un buffer al pool, el buffer no debe usarse después de liberarlo
+     *
+     * @param buffer Buffer obtenido de este pool
+     */
+    public void release(ByteBuffer buffer) {
+        if (!buffer.isDirect() || buffer.capacity() != bufferSize) {
+            throw new IllegalArgumentException("Buffer does not belong to this pool");
+        }
+        if (pooled.incrementAndGet() > maxPooled) {
+            pooled.decrementAndGet();
+            return;
+        }
+        free.offerFirst(buffer);
+    }
+
+    /**
+     * @return Cantidad de buffers libres retenidos por el pool
+     */
+    public int pooledCount() {
+        return pooled.get();
+    }
+
+    /**
+     * @return Cantidad total de buffers asignados por el pool
+     */
+    public long allocatedCount() {
+        return allocated.get();
+    }
+}
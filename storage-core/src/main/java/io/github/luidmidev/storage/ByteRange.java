@@ -0,0 +1,47 @@
+package io.github.luidmidev.storage;
+
+import io.github.luidmidev.storage.exceptions.InvalidRangeStorageException;
+
+/**
+ * Representa un rango de bytes del contenido de un archivo
+ *
+ * @param offset Posición del primer byte del rango, comenzando en cero
+ * @param length Cantidad de bytes del rango
+ */
+public record ByteRange(long offset, long length) {
+
+    public ByteRange {
+        if (offset < 0) throw new IllegalArgumentException("Offset must be positive: " + offset);
+        if (length < 0) throw new IllegalArgumentException("Length must be positive: " + length);
+    }
+
+    /**
+     * Crea un rango desde una posición hasta el final del archivo
+     *
+     * @param offset Posición del primer byte del rango
+     * @return Rango hasta el final del archivo
+     */
+    public static ByteRange from(long offset) {
+        return new ByteRange(offset, Long.MAX_VALUE);
+    }
+
+    /**
+     * Ajusta el rango al tamaño del archivo, recortando la cantidad de bytes que excedan su final
+     *
+     * @param fileSize Tamaño del archivo
+     * @return Rango ajustado al tamaño del archivo
+     * @throws InvalidRangeStorageException Si la posición del rango está más allá del final del archivo
+     */
+    public ByteRange clamp(long fileSize) {
+        if (offset > fileSize) throw new InvalidRangeStorageException(offset, fileSize);
+        var available = fileSize - offset;
+        return length <= available ? this : new ByteRange(offset, available);
+    }
+
+    /**
+     * @return Posición siguiente al último byte del rango
+     */
+    public long end() {
+        return offset + length;
+    }
+}
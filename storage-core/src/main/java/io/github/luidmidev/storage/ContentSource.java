@@ -0,0 +1,319 @@
+package io.github.luidmidev.storage;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+
+/**
+ * Origen del contenido de un archivo a almacenar. Permite que los almacenes consuman el contenido en bloques
+ * de tamaño fijo sin necesidad de cargar el archivo completo en memoria.
+ */
+public sealed interface ContentSource permits ContentSource.Bytes, ContentSource.Stream, ContentSource.File, ContentSource.Buffer, PooledContent {
+
+    /**
+     * Tamaño del bloque utilizado al copiar contenido entre flujos y canales
+     */
+    int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Valor retornado por {@link #size()} cuando el tamaño del contenido no se conoce de antemano
+     */
+    long UNKNOWN_SIZE = -1;
+
+    /**
+     * @return Tamaño del contenido en bytes o {@link #UNKNOWN_SIZE} si no se conoce de antemano
+     */
+    long size();
+
+    /**
+     * Abre un flujo de lectura sobre el contenido. Los orígenes basados en un {@link InputStream} solo pueden
+     * consumirse una vez.
+     *
+     * @return Flujo de lectura del contenido
+     * @throws IOException Si ocurre un error al abrir el contenido
+     */
+    InputStream openStream() throws IOException;
+
+    /**
+     * Escribe el contenido completo en un flujo de salida utilizando un buffer de tamaño fijo
+     *
+     * @param out Flujo de salida
+     * @return Cantidad de bytes escritos
+     * @throws IOException Si ocurre un error de lectura o escritura
+     */
+    default long transferTo(OutputStream out) throws IOException {
+        try (var in = openStream()) {
+            return copy(in, out);
+        }
+    }
+
+    /**
+     * Escribe el contenido completo en un canal utilizando un buffer de tamaño fijo
+     *
+     * @param channel Canal de salida
+     * @return Cantidad de bytes escritos
+     * @throws IOException Si ocurre un error de lectura o escritura
+     */
+    default long transferTo(WritableByteChannel channel) throws IOException {
+        return transferTo(Channels.newOutputStream(channel));
+    }
+
+    /**
+     * Lee el contenido completo en memoria. Solo debe utilizarse cuando el almacen no permita otra alternativa.
+     *
+     * @return Bytes del contenido
+     * @throws IOException Si ocurre un error de lectura
+     */
+    default byte[] readAllBytes() throws IOException {
+        try (var in = openStream()) {
+            return in.readAllBytes();
+        }
+    }
+
+    static ContentSource of(byte[] content) {
+        return new Bytes(content);
+    }
+
+    static ContentSource of(InputStream content) {
+        return new Stream(content, UNKNOWN_SIZE);
+    }
+
+    static ContentSource of(InputStream content, long size) {
+        return new Stream(content, size);
+    }
+
+    static ContentSource of(Path content) {
+        return new File(content);
+    }
+
+    static ContentSource of(ByteBuffer content) {
+        return new Buffer(content);
+    }
+
+    /**
+     * Copia el contenido de un flujo a otro utilizando un buffer de tamaño fijo, atendiendo interrupciones del hilo
+     *
+     * @param in  Flujo de entrada
+     * @param out Flujo de salida
+     * @return Cantidad de bytes copiados
+     * @throws IOException Si ocurre un error de lectura o escritura
+     */
+    static long copy(InputStream in, OutputStream out) throws IOException {
+        var buffer = new byte[BUFFER_SIZE];
+        long transferred = 0;
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            if (Thread.currentThread().isInterrupted()) throw new InterruptedIOException("Copy interrupted after " + transferred + " bytes");
+            out.write(buffer, 0, read);
+            transferred += read;
+        }
+        return transferred;
+    }
+
+    /**
+     * Copia el contenido de un canal a otro utilizando un buffer directo del {@link BufferPool#shared() pool compartido},
+     * atendiendo interrupciones del hilo
+     *
+     * @param in  Canal de entrada
+     * @param out Canal de salida
+     * @return Cantidad de bytes copiados
+     * @throws IOException Si ocurre un error de lectura o escritura
+     */
+    static long copy(ReadableByteChannel in, WritableByteChannel out) throws IOException {
+        var pool = BufferPool.shared();
+        var buffer = pool.acquire();
+        try {
+            long transferred = 0;
+            while (in.read(buffer) != -1) {
+                if (Thread.currentThread().isInterrupted()) throw new InterruptedIOException("Copy interrupted after " + transferred + " bytes");
+                buffer.flip();
+                while (buffer.hasRemaining()) transferred += out.write(buffer);
+                buffer.clear();
+            }
+            return transferred;
+        } finally {
+            pool.release(buffer);
+        }
+    }
+
+    /**
+     * Transfiere un archivo completo a un canal con {@link FileChannel#transferTo}. Si la transferencia se detiene antes
+     * del final, porque el archivo se truncó o porque el canal dejó de aceptar bytes, el resto se copia con un buffer,
+     * que falla en lugar de repetir la transferencia indefinidamente.
+     *
+     * @param source Canal del archivo
+     * @param target Canal de salida
+     * @return Cantidad de bytes transferidos
+     * @throws EOFException Si el archivo termina antes del tamaño que tenía al iniciar la transferencia
+     * @throws IOException  Si ocurre un error de lectura o escritura
+     */
+    static long transfer(FileChannel source, WritableByteChannel target) throws IOException {
+        var size = source.size();
+        long position = 0;
+        while (position < size) {
+            var transferred = source.transferTo(position, size - position, target);
+            if (transferred == 0) return copyRemaining(source, position, size, target);
+            position += transferred;
+        }
+        return position;
+    }
+
+    /**
+     * Copia el resto del archivo con lecturas posicionales. La escritura se realiza con
+     * {@link Channels#newOutputStream(WritableByteChannel)}, que falla si el canal no acepta bytes o no es bloqueante.
+     */
+    private static long copyRemaining(FileChannel source, long position, long size, WritableByteChannel target) throws IOException {
+        var out = Channels.newOutputStream(target);
+        var buffer = ByteBuffer.allocate((int) Math.min(BUFFER_SIZE, size - position));
+        while (position < size) {
+            buffer.clear().limit((int) Math.min(buffer.capacity(), size - position));
+            var read = source.read(buffer, position);
+            if (read == -1) throw new EOFException("File truncated at " + position + " of " + size + " bytes");
+            out.write(buffer.array(), 0, read);
+            position += read;
+        }
+        return position;
+    }
+
+    /**
+     * Contenido en memoria
+     *
+     * @param content Bytes del contenido
+     */
+    record Bytes(byte[] content) implements ContentSource {
+
+        public Bytes {
+            if (content == null || content.length == 0) {
+                throw new IllegalArgumentException("Content is required");
+            }
+        }
+
+        @Override
+        public long size() {
+            return content.length;
+        }
+
+        @Override
+        public InputStream openStream() {
+            return new ByteArrayInputStream(content);
+        }
+
+        @Override
+        public long transferTo(OutputStream out) throws IOException {
+            out.write(content);
+            return content.length;
+        }
+
+        @Override
+        public long transferTo(WritableByteChannel channel) throws IOException {
+            var buffer = ByteBuffer.wrap(content);
+            while (buffer.hasRemaining()) channel.write(buffer);
+            return content.length;
+        }
+
+        @Override
+        public byte[] readAllBytes() {
+            return content;
+        }
+    }
+
+    /**
+     * Contenido proveniente de un flujo que solo puede consumirse una vez
+     *
+     * @param content Flujo del contenido
+     * @param size    Tamaño del contenido o {@link #UNKNOWN_SIZE}
+     */
+    record Stream(InputStream content, long size) implements ContentSource {
+
+        public Stream {
+            Objects.requireNonNull(content, "Content is required");
+        }
+
+        @Override
+        public InputStream openStream() {
+            return content;
+        }
+    }
+
+    /**
+     * Contenido de un archivo local, los almacenes en disco pueden copiarlo sin pasar por la memoria de la JVM
+     *
+     * @param content Ruta del archivo
+     */
+    record File(Path content) implements ContentSource {
+
+        public File {
+            Objects.requireNonNull(content, "Content is required");
+        }
+
+        @Override
+        public long size() {
+            try {
+                return Files.size(content);
+            } catch (IOException e) {
+                return UNKNOWN_SIZE;
+            }
+        }
+
+        @Override
+        public InputStream openStream() throws IOException {
+            return Files.newInputStream(content);
+        }
+
+        @Override
+        public long transferTo(OutputStream out) throws IOException {
+            return Files.copy(content, out);
+        }
+
+        @Override
+        public long transferTo(WritableByteChannel channel) throws IOException {
+            try (var source = FileChannel.open(content, StandardOpenOption.READ)) {
+                return transfer(source, channel);
+            }
+        }
+    }
+
+    /**
+     * Contenido de un {@link ByteBuffer}, se lee desde su posición hasta su límite sin modificar el buffer original
+     *
+     * @param content Buffer del contenido
+     */
+    record Buffer(ByteBuffer content) implements ContentSource {
+
+        public Buffer {
+            if (content == null || !content.hasRemaining()) {
+                throw new IllegalArgumentException("Content is required");
+            }
+        }
+
+        @Override
+        public long size() {
+            return content.remaining();
+        }
+
+        @Override
+        public InputStream openStream() {
+            return new ByteBufferInputStream(content.duplicate());
+        }
+
+        @Override
+        public long transferTo(WritableByteChannel channel) throws IOException {
+            var buffer = content.duplicate();
+            var size = buffer.remaining();
+            while (buffer.hasRemaining()) channel.write(buffer);
+            return size;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package io.github.luidmidev.storage;
+
+/**
+ * Detector de tipos de contenido que se registra en un {@link ContentTypeEngine}. Un detector puede reconocer los
+ * archivos por su nombre, por sus primeros bytes o por ambos; cuando no reconoce un archivo debe retornar nulo para
+ * que se consulte el siguiente detector.
+ */
+public interface ContentTypeDetector {
+
+    /**
+     * Se consulta en cada detección con el nombre completo del archivo, su resultado no se memoriza
+     *
+     * @param filename Nombre del archivo
+     * @return Tipo de contenido o nulo si el detector no reconoce el nombre
+     */
+    default String detect(String filename) {
+        return null;
+    }
+
+    /**
+     * @param prefix Primeros bytes del contenido
+     * @param length Cantidad de bytes válidos en {@code prefix}, puede ser menor al tamaño del arreglo
+     * @return Tipo de contenido o nulo si el detector no reconoce el contenido
+     */
+    default String detect(byte[] prefix, int length) {
+        return null;
+    }
+}
@@ -0,0 +1,159 @@
+package io.github.luidmidev.storage;
+
+import org.apache.tika.Tika;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Motor de detección de tipos de contenido. La detección por nombre se resuelve primero con los tipos registrados por
+ * extensión, luego con los detectores registrados, que reciben el nombre completo, y por último con Tika, que recibe
+ * solo la extensión. Solo el resultado de Tika se memoriza por extensión, ya que es el único que depende únicamente de
+ * ella, por lo que Tika solo se consulta la primera vez que aparece cada extensión.
+ * <p>
+ * La detección por contenido es opcional: inspecciona solo los primeros {@value #PREFIX_LENGTH} bytes del contenido
+ * y se usa cuando el nombre no permite reconocer el tipo.
+ */
+public final class ContentTypeEngine {
+
+    public static final String DEFAULT_CONTENT_TYPE = "application/octet-stream";
+
+    /**
+     * Cantidad de bytes del contenido que inspeccionan los detectores por contenido
+     */
+    public static final int PREFIX_LENGTH = 64;
+
+    /**
+     * Las extensiones poco comunes no se memorizan a partir de este límite, para que nombres arbitrarios no hagan
+     * crecer la tabla sin control
+     */
+    private static final int MAX_MEMOIZED = 2048;
+
+    private static final ContentTypeEngine SHARED = new ContentTypeEngine();
+
+    private final Tika tika = new Tika();
+    private final ConcurrentHashMap<String, String> registered = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, String> memoized = new ConcurrentHashMap<>();
+    private final List<ContentTypeDetector> detectors = new CopyOnWriteArrayList<>(List.of(new MagicBytesDetector()));
+
+    /**
+     * @return Motor usado por {@link StorageUtils#guessContentType(String)}
+     */
+    public static ContentTypeEngine shared() {
+        return SHARED;
+    }
+
+    /**
+     * Asocia una extensión con un tipo de contenido, con prioridad sobre los detectores
+     *
+     * @param extension   Extensión sin punto, no distingue mayúsculas
+     * @param contentType Tipo de contenido
+     */
+    public void register(String extension, String contentType) {
+        registered.put(extension.toLowerCase(Locale.ROOT), Objects.requireNonNull(contentType));
+    }
+
+    /**
+     * Registra un detector que se consulta antes que los detectores registrados previamente
+     *
+     * @param detector Detector a registrar
+     */
+    public void register(ContentTypeDetector detector) {
+        detectors.addFirst(Objects.requireNonNull(detector));
+    }
+
+    /**
+     * Detecta el tipo de contenido de un archivo a partir de su nombre
+     *
+     * @param filename Nombre del archivo
+     * @return Tipo de contenido, {@value #DEFAULT_CONTENT_TYPE} si no se reconoce
+     */
+    public String detect(String filename) {
+        var extension = extensionOf(filename);
+        if (extension == null) return detectByName(filename);
+
+        var contentType = registered.get(extension);
+        if (contentType != null) return contentType;
+
+        contentType = detectWithDetectors(filename);
+        if (contentType != null) return contentType;
+
+        contentType = memoized.get(extension);
+        if (contentType != null) return contentType;
+
+        // Tika recibe solo la extensión para que el resultado sea válido para cualquier nombre con esa extensión
+        contentType = tika.detect("file." + extension);
+        if (memoized.size() < MAX_MEMOIZED) memoized.putIfAbsent(extension, contentType);
+        return contentType;
+    }
+
+    /**
+     * Detecta el tipo de contenido de un archivo a partir de su nombre y, si el nombre no permite reconocerlo, de sus
+     * primeros bytes
+     *
+     * @param filename Nombre del archivo
+     * @param prefix   Primeros bytes del contenido
+     * @param length   Cantidad de bytes válidos en {@code prefix}
+     * @return Tipo de contenido, {@value #DEFAULT_CONTENT_TYPE} si no se reconoce
+     */
+    public String detect(String filename, byte[] prefix, int length) {
+        var contentType = detect(filename);
+        if (!DEFAULT_CONTENT_TYPE.equals(contentType)) return contentType;
+
+        for (var detector : detectors) {
+            var detected = detector.detect(prefix, length);
+            if (detected != null) return detected;
+        }
+        return DEFAULT_CONTENT_TYPE;
+    }
+
+    /**
+     * Detecta el tipo de contenido de un archivo a partir de su nombre y, si el nombre no permite reconocerlo, de los
+     * primeros bytes del flujo. El flujo se marca y se restablece, por lo que puede leerse completo después.
+     *
+     * @param filename Nombre del archivo
+     * @param content  Flujo del contenido, debe admitir {@link InputStream#mark(int)}
+     * @return Tipo de contenido, {@value #DEFAULT_CONTENT_TYPE} si no se reconoce
+     * @throws IOException Si ocurre un error al leer el flujo
+     */
+    public String detect(String filename, InputStream content) throws IOException {
+        if (!content.markSupported()) throw new IllegalArgumentException("Content stream must support mark");
+
+        var contentType = detect(filename);
+        if (!DEFAULT_CONTENT_TYPE.equals(contentType)) return contentType;
+
+        var prefix = new byte[PREFIX_LENGTH];
+        content.mark(PREFIX_LENGTH);
+        try {
+            var length = content.readNBytes(prefix, 0, PREFIX_LENGTH);
+            return detect(filename, prefix, length);
+        } finally {
+            content.reset();
+        }
+    }
+
+    private String detectByName(String filename) {
+        var detected = detectWithDetectors(filename);
+        return detected != null ? detected : tika.detect(filename);
+    }
+
+    private String detectWithDetectors(String filename) {
+        for (var detector : detectors) {
+            var detected = detector.detect(filename);
+            if (detected != null) return detected;
+        }
+        return null;
+    }
+
+    private static String extensionOf(String filename) {
+        if (filename == null) return null;
+        var dot = filename.lastIndexOf('.');
+        if (dot <= 0 || dot == filename.length() - 1) return null;
+        return filename.substring(dot + 1).toLowerCase(Locale.ROOT);
+    }
+}
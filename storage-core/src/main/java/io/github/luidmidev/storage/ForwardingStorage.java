@@ -0,0 +1,85 @@
+package io.github.luidmidev.storage;
+
+import lombok.Getter;
+
+import java.io.IOException;
+import java.nio.channels.WritableByteChannel;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Almacen que delega todas sus operaciones en otro almacen. Sirve como base de los decoradores, que sobrescriben solo
+ * las operaciones que modifican y delegan el resto.
+ */
+public abstract class ForwardingStorage extends Storage {
+
+    @Getter
+    private final Storage delegate;
+
+    protected ForwardingStorage(Storage delegate) {
+        this.delegate = Objects.requireNonNull(delegate, "Delegate storage is required");
+    }
+
+    @Override
+    protected void internalStore(final ToStore toStore) throws IOException {
+        delegate.internalStore(toStore);
+    }
+
+    @Override
+    protected Optional<Stored> internalDownload(final PathFile pathFile) throws IOException {
+        return delegate.internalDownload(pathFile);
+    }
+
+    @Override
+    protected Optional<StoredStream> internalOpenStream(final PathFile pathFile) throws IOException {
+        return delegate.internalOpenStream(pathFile);
+    }
+
+    @Override
+    protected Optional<StoredStream> internalOpenStream(final PathFile pathFile, final ByteRange range) throws IOException {
+        return delegate.internalOpenStream(pathFile, range);
+    }
+
+    @Override
+    protected long internalTransferTo(final PathFile pathFile, final WritableByteChannel target) throws IOException {
+        return delegate.internalTransferTo(pathFile, target);
+    }
+
+    @Override
+    protected Optional<Stored.Info> internalInfo(final PathFile pathFile) throws IOException {
+        return delegate.internalInfo(pathFile);
+    }
+
+    @Override
+    protected boolean internalExists(final PathFile pathFile) throws IOException {
+        return delegate.internalExists(pathFile);
+    }
+
+    @Override
+    public boolean supportsAttributes() {
+        return delegate.supportsAttributes();
+    }
+
+    @Override
+    protected Set<String> internalExistsAll(final Collection<? extends PathFile> pathFiles) throws IOException {
+        return delegate.internalExistsAll(pathFiles);
+    }
+
+    @Override
+    protected Stream<Stored.Info> internalList(final String path) throws IOException {
+        return delegate.internalList(path);
+    }
+
+    @Override
+    protected void internalRemove(final PathFile pathFile) throws IOException {
+        delegate.internalRemove(pathFile);
+    }
+
+    @Override
+    protected void internalRemoveAll(final Collection<? extends PathFile> pathFiles) throws IOException {
+        delegate.internalRemoveAll(pathFiles);
+    }
+}
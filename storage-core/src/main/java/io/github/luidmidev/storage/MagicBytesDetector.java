@@ -0,0 +1,47 @@
+package io.github.luidmidev.storage;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reconoce los formatos binarios más comunes por la firma al inicio del contenido
+ */
+final class MagicBytesDetector implements ContentTypeDetector {
+
+    private record Signature(int offset, byte[] bytes, String contentType) {
+
+        private Signature(int offset, String ascii, String contentType) {
+            this(offset, ascii.getBytes(StandardCharsets.ISO_8859_1), contentType);
+        }
+
+        private boolean matches(byte[] prefix, int length) {
+            if (length < offset + bytes.length) return false;
+            for (var i = 0; i < bytes.length; i++) {
+                if (prefix[offset + i] != bytes[i]) return false;
+            }
+            return true;
+        }
+    }
+
+    private static final Signature[] SIGNATURES = {
+            new Signature(0, "\u0089PNG\r\n\u001a\n", "image/png"),
+            new Signature(0, "\u00ff\u00d8\u00ff", "image/jpeg"),
+            new Signature(0, "GIF87a", "image/gif"),
+            new Signature(0, "GIF89a", "image/gif"),
+            new Signature(8, "WEBP", "image/webp"),
+            new Signature(0, "%PDF-", "application/pdf"),
+            new Signature(0, "PK\u0003\u0004", "application/zip"),
+            new Signature(0, "\u001f\u008b", "application/gzip"),
+            new Signature(0, "7z\u00bc\u00af'\u001c", "application/x-7z-compressed"),
+            new Signature(4, "ftyp", "video/mp4"),
+            new Signature(0, "OggS", "audio/ogg"),
+            new Signature(0, "ID3", "audio/mpeg"),
+    };
+
+    @Override
+    public String detect(byte[] prefix, int length) {
+        for (var signature : SIGNATURES) {
+            if (signature.matches(prefix, length)) return signature.contentType();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,123 @@
+package io.github.luidmidev.storage;
+
+import lombok.Getter;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Ejecuta las operaciones de un lote de archivos en paralelo con una concurrencia acotada. Si alguna operación
+ * falla, o el ejecutor la rechaza, no se inician las restantes, se espera a que terminen las que están en curso y se
+ * lanza el primer error.
+ */
+public final class ParallelBatch {
+
+    @FunctionalInterface
+    public interface Task<T> {
+        void run(T item) throws IOException;
+    }
+
+    @Getter
+    private final int maxConcurrency;
+    private final Executor executor;
+
+    private ParallelBatch(int maxConcurrency, Executor executor) {
+        if (maxConcurrency <= 0) throw new IllegalArgumentException("Max concurrency must be positive: " + maxConcurrency);
+        this.maxConcurrency = maxConcurrency;
+        this.executor = executor;
+    }
+
+    /**
+     * Ejecuta cada operación en un hilo virtual propio
+     *
+     * @param maxConcurrency Cantidad máxima de operaciones simultáneas
+     * @return Configuración de ejecución en paralelo
+     */
+    public static ParallelBatch virtualThreads(int maxConcurrency) {
+        return new ParallelBatch(maxConcurrency, null);
+    }
+
+    /**
+     * Ejecuta las operaciones en un ejecutor proporcionado, que no se cierra al finalizar el lote
+     *
+     * @param executor       Ejecutor de las operaciones
+     * @param maxConcurrency Cantidad máxima de operaciones simultáneas
+     * @return Configuración de ejecución en paralelo
+     */
+    public static ParallelBatch of(Executor executor, int maxConcurrency) {
+        return new ParallelBatch(maxConcurrency, Objects.requireNonNull(executor));
+    }
+
+    /**
+     * Ejecuta una operación por cada elemento y espera a que todas terminen
+     *
+     * @param items Elementos del lote
+     * @param task  Operación a ejecutar por cada elemento
+     * @throws IOException Primer error de lectura o escritura lanzado por las operaciones
+     */
+    public <T> void run(Collection<? extends T> items, Task<? super T> task) throws IOException {
+        var semaphore = new Semaphore(maxConcurrency);
+        var failure = new AtomicReference<Throwable>();
+        var pending = new ArrayList<CompletableFuture<Void>>(items.size());
+        ExecutorService owned = executor == null ? Executors.newVirtualThreadPerTaskExecutor() : null;
+        var target = owned != null ? owned : executor;
+
+        try {
+            for (var item : items) {
+                if (failure.get() != null) break;
+                semaphore.acquire();
+                if (failure.get() != null) {
+                    semaphore.release();
+                    break;
+                }
+                var done = new CompletableFuture<Void>();
+                pending.add(done);
+                try {
+                    target.execute(() -> {
+                        try {
+                            task.run(item);
+                        } catch (Throwable e) {
+                            fail(failure, e);
+                        } finally {
+                            semaphore.release();
+                            done.complete(null);
+                        }
+                    });
+                } catch (RuntimeException e) {
+                    // El ejecutor rechazó la operación, se espera a las que ya iniciaron antes de lanzar el error
+                    semaphore.release();
+                    done.complete(null);
+                    fail(failure, e);
+                    break;
+                }
+            }
+            CompletableFuture.allOf(pending.toArray(CompletableFuture[]::new)).join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            CompletableFuture.allOf(pending.toArray(CompletableFuture[]::new)).join();
+            var interrupted = new InterruptedIOException("Batch interrupted");
+            if (failure.get() != null) interrupted.addSuppressed(failure.get());
+            throw interrupted;
+        } finally {
+            if (owned != null) owned.close();
+        }
+
+        var error = failure.get();
+        if (error instanceof IOException ioException) throw ioException;
+        if (error instanceof RuntimeException runtimeException) throw runtimeException;
+        if (error instanceof Error fatal) throw fatal;
+    }
+
+    private static void fail(AtomicReference<Throwable> failure, Throwable error) {
+        if (!failure.compareAndSet(null, error)) failure.get().addSuppressed(error);
+    }
+}
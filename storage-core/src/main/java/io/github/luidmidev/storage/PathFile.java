@@ -1,22 +1,51 @@
 package io.github.luidmidev.storage;
 
-import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
 
-@Data
+/**
+ * Ruta de un archivo validada y normalizada al construirse. Es inmutable: la ruta completa se calcula una sola vez y
+ * el hash se memoriza, por lo que puede usarse como clave de mapas y pasarse entre operaciones sin volver a validarse.
+ */
+@Getter
+@ToString(exclude = "completePath")
+@EqualsAndHashCode(onlyExplicitlyIncluded = true, cacheStrategy = EqualsAndHashCode.CacheStrategy.LAZY)
 public class PathFile {
 
     private final String path;
     private final String filename;
+    @EqualsAndHashCode.Include
+    private final String completePath;
 
     public PathFile(String path, String filename) {
         StorageAssertions.validFilename(filename);
         StorageAssertions.validPath(path);
         this.path = StorageUtils.normalizePath(path);
         this.filename = filename;
+        this.completePath = StorageUtils.factoryPathFile(this.path, filename);
     }
 
-    public String getCompletePath() {
-        return StorageUtils.factoryPathFile(path, filename);
+    /**
+     * Copia una ruta ya validada, sin volver a validarla
+     *
+     * @param pathFile Ruta a copiar
+     */
+    protected PathFile(PathFile pathFile) {
+        this.path = pathFile.path;
+        this.filename = pathFile.filename;
+        this.completePath = pathFile.completePath;
     }
 
+    /**
+     * Crea un objeto a partir de la ruta completa de un archivo
+     *
+     * @param fullPath Ruta completa del archivo
+     * @return Objeto que contiene el nombre y ruta del archivo
+     */
+    public static PathFile of(String fullPath) {
+        var slash = fullPath.lastIndexOf('/');
+        if (slash == -1) return new PathFile("", fullPath);
+        return new PathFile(fullPath.substring(0, slash), fullPath.substring(slash + 1));
+    }
 }
@@ -0,0 +1,186 @@
+package io.github.luidmidev.storage;
+
+import lombok.Getter;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.SequenceInputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.GatheringByteChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Contenido almacenado en buffers directos obtenidos de un {@link BufferPool}. Puede usarse como origen de un
+ * {@link ToStore} o como destino de una descarga con {@link Storage#download(String, BufferPool)}.
+ * <p>
+ * Quien crea el contenido es su dueño y debe cerrarlo, preferentemente con try-with-resources, para devolver los
+ * buffers al pool. El contenido no puede leerse ni escribirse después de cerrarse.
+ */
+public final class PooledContent implements ContentSource, Closeable {
+
+    @Getter
+    private final BufferPool pool;
+    private final List<ByteBuffer> chunks = new ArrayList<>();
+    private long size;
+    private boolean closed;
+
+    private PooledContent(BufferPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Crea un contenido vacío que obtiene sus buffers del pool a medida que se escribe
+     *
+     * @param pool Pool de buffers
+     * @return Contenido vacío
+     */
+    public static PooledContent allocate(BufferPool pool) {
+        return new PooledContent(pool);
+    }
+
+    /**
+     * Lee un canal completo en buffers del pool
+     *
+     * @param pool Pool de buffers
+     * @param in   Canal de entrada, no se cierra al finalizar
+     * @return Contenido leído
+     * @throws IOException Si ocurre un error de lectura
+     */
+    public static PooledContent readFrom(BufferPool pool, ReadableByteChannel in) throws IOException {
+        var content = allocate(pool);
+        try {
+            content.append(in);
+            return content;
+        } catch (IOException | RuntimeException e) {
+            content.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Agrega el contenido de un canal leyendo directamente en los buffers del pool
+     *
+     * @param in Canal de entrada, no se cierra al finalizar
+     * @return Cantidad de bytes agregados
+     * @throws IOException Si ocurre un error de lectura
+     */
+    public synchronized long append(ReadableByteChannel in) throws IOException {
+        ensureOpen();
+        long appended = 0;
+        while (true) {
+            var chunk = writableChunk();
+            var read = in.read(chunk);
+            if (read == -1) return appended;
+            if (Thread.currentThread().isInterrupted()) throw new InterruptedIOException("Read interrupted after " + appended + " bytes");
+            appended += read;
+            size += read;
+        }
+    }
+
+    /**
+     * Agrega bytes al contenido
+     *
+     * @param bytes Bytes a agregar
+     */
+    public synchronized void append(ByteBuffer bytes) {
+        ensureOpen();
+        while (bytes.hasRemaining()) {
+            var chunk = writableChunk();
+            var count = Math.min(chunk.remaining(), bytes.remaining());
+            chunk.put(bytes.slice(bytes.position(), count));
+            bytes.position(bytes.position() + count);
+            size += count;
+        }
+    }
+
+    @Override
+    public synchronized long size() {
+        return size;
+    }
+
+    @Override
+    public InputStream openStream() {
+        var streams = views().stream().map(view -> (InputStream) new ByteBufferInputStream(view)).toList();
+        return new SequenceInputStream(Collections.enumeration(streams));
+    }
+
+    @Override
+    public long transferTo(OutputStream out) throws IOException {
+        return transferTo(Channels.newChannel(out));
+    }
+
+    /**
+     * Escribe los buffers directamente en el canal, con una escritura agrupada si el canal la admite
+     */
+    @Override
+    public long transferTo(WritableByteChannel channel) throws IOException {
+        var views = views().toArray(ByteBuffer[]::new);
+        long written = 0;
+        if (channel instanceof GatheringByteChannel gathering) {
+            var total = Math.max(0, size());
+            while (written < total) written += gathering.write(views);
+            return written;
+        }
+        for (var view : views) {
+            while (view.hasRemaining()) written += channel.write(view);
+        }
+        return written;
+    }
+
+    @Override
+    public byte[] readAllBytes() {
+        var views = views();
+        var bytes = new byte[Math.toIntExact(views.stream().mapToLong(ByteBuffer::remaining).sum())];
+        var offset = 0;
+        for (var view : views) {
+            var count = view.remaining();
+            view.get(bytes, offset, count);
+            offset += count;
+        }
+        return bytes;
+    }
+
+    /**
+     * Devuelve los buffers al pool
+     */
+    @Override
+    public synchronized void close() {
+        if (closed) return;
+        closed = true;
+        for (var chunk : chunks) pool.release(chunk);
+        chunks.clear();
+        size = 0;
+    }
+
+    /**
+     * @return Vistas de solo lectura de los buffers con el contenido escrito
+     */
+    private synchronized List<ByteBuffer> views() {
+        ensureOpen();
+        var views = new ArrayList<ByteBuffer>(chunks.size());
+        for (var chunk : chunks) views.add(chunk.asReadOnlyBuffer().flip());
+        return views;
+    }
+
+    private ByteBuffer writableChunk() {
+        if (!chunks.isEmpty()) {
+            var last = chunks.getLast();
+            if (last.hasRemaining()) return last;
+        }
+        var chunk = pool.acquire();
+        chunks.add(chunk);
+        return chunk;
+    }
+
+    private void ensureOpen() {
+        if (closed) throw new IllegalStateException("Pooled content already released");
+    }
+}
@@ -0,0 +1,23 @@
+package io.github.luidmidev.storage;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.io.Closeable;
+
+/**
+ * Representa un archivo descargado cuyo contenido está en buffers de un {@link BufferPool}. Debe cerrarse al terminar
+ * de usar el contenido para devolver los buffers al pool.
+ */
+@Getter
+@RequiredArgsConstructor
+public final class PooledStored implements Closeable {
+
+    private final Stored.Info info;
+    private final PooledContent content;
+
+    @Override
+    public void close() {
+        content.close();
+    }
+}
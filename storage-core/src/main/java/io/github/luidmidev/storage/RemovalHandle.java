@@ -0,0 +1,114 @@
+package io.github.luidmidev.storage;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Seguimiento de las eliminaciones asíncronas de una operación por lotes. Permite esperar a que terminen y consultar
+ * cuántas están pendientes o fallaron.
+ */
+public final class RemovalHandle {
+
+    private static final RemovalHandle EMPTY = new RemovalHandle(0);
+
+    private final int total;
+    private final AtomicInteger pending;
+    private final AtomicInteger removed = new AtomicInteger();
+    private final Map<String, Throwable> failures = new ConcurrentHashMap<>();
+    private final CompletableFuture<Void> completion = new CompletableFuture<>();
+
+    RemovalHandle(int total) {
+        this.total = total;
+        this.pending = new AtomicInteger(total);
+        if (total == 0) completion.complete(null);
+    }
+
+    static RemovalHandle empty() {
+        return EMPTY;
+    }
+
+    void succeeded(int count) {
+        removed.addAndGet(count);
+        settle(count);
+    }
+
+    void failed(String fullPath, Throwable cause) {
+        failures.put(fullPath, cause);
+        settle(1);
+    }
+
+    private void settle(int count) {
+        if (pending.addAndGet(-count) == 0) completion.complete(null);
+    }
+
+    public int total() {
+        return total;
+    }
+
+    public int pending() {
+        return pending.get();
+    }
+
+    public int removed() {
+        return removed.get();
+    }
+
+    public int failed() {
+        return failures.size();
+    }
+
+    /**
+     * @return Errores de los archivos que no pudieron eliminarse, por ruta completa
+     */
+    public Map<String, Throwable> failures() {
+        return Map.copyOf(failures);
+    }
+
+    /**
+     * @return Resultado que se completa cuando todas las eliminaciones terminan, con o sin errores
+     */
+    public CompletableFuture<Void> completion() {
+        return completion.copy();
+    }
+
+    public boolean isDone() {
+        return completion.isDone();
+    }
+
+    /**
+     * Espera a que todas las eliminaciones terminen
+     *
+     * @throws InterruptedException Si el hilo es interrumpido mientras espera
+     */
+    public void await() throws InterruptedException {
+        try {
+            completion.get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Espera a que todas las eliminaciones terminen durante un tiempo máximo
+     *
+     * @param timeout Tiempo máximo de espera
+     * @return Si todas las eliminaciones terminaron dentro del tiempo
+     * @throws InterruptedException Si el hilo es interrumpido mientras espera
+     */
+    public boolean await(Duration timeout) throws InterruptedException {
+        try {
+            completion.get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+            return true;
+        } catch (TimeoutException e) {
+            return false;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
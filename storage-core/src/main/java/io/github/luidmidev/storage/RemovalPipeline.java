@@ -0,0 +1,144 @@
+package io.github.luidmidev.storage;
+
+import io.github.luidmidev.storage.exceptions.PartialRemovalStorageException;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Ejecuta las eliminaciones asíncronas de {@link Storage#batchExecution} en un ejecutor propio con una cola acotada.
+ * Las eliminaciones se agrupan en bloques que se eliminan con {@link Storage#internalRemoveAll}, por lo que los
+ * almacenes que admiten eliminaciones masivas las resuelven con una sola operación por bloque. Cuando la cola está
+ * llena el hilo que envía las eliminaciones las ejecuta, lo que frena a los productores en lugar de acumularlas.
+ */
+@Slf4j
+public final class RemovalPipeline implements AutoCloseable {
+
+    private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+
+    private final ThreadPoolExecutor executor;
+    @Getter
+    private final int chunkSize;
+
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicLong removed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    /**
+     * @param threads       Cantidad de hilos que ejecutan las eliminaciones
+     * @param queueCapacity Cantidad máxima de bloques en espera
+     * @param chunkSize     Cantidad máxima de archivos por bloque
+     */
+    public RemovalPipeline(int threads, int queueCapacity, int chunkSize) {
+        if (threads <= 0) throw new IllegalArgumentException("Threads must be positive: " + threads);
+        if (queueCapacity <= 0) throw new IllegalArgumentException("Queue capacity must be positive: " + queueCapacity);
+        if (chunkSize <= 0) throw new IllegalArgumentException("Chunk size must be positive: " + chunkSize);
+        this.chunkSize = chunkSize;
+        this.executor = new ThreadPoolExecutor(
+                threads, threads,
+                30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    var thread = new Thread(runnable, "storage-removal-" + THREAD_COUNTER.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy()
+        );
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    public static RemovalPipeline defaults() {
+        return new RemovalPipeline(2, 256, 100);
+    }
+
+    /**
+     * Envía a eliminar los archivos de un almacen
+     *
+     * @param storage   Almacen de los archivos
+     * @param fullPaths Rutas completas de los archivos a eliminar
+     * @return Seguimiento de las eliminaciones
+     */
+    public RemovalHandle submit(Storage storage, List<String> fullPaths) {
+        if (fullPaths.isEmpty()) return RemovalHandle.empty();
+
+        var handle = new RemovalHandle(fullPaths.size());
+        pending.addAndGet(fullPaths.size());
+        for (var from = 0; from < fullPaths.size(); from += chunkSize) {
+            var chunk = fullPaths.subList(from, Math.min(from + chunkSize, fullPaths.size()));
+            executor.execute(() -> remove(storage, chunk, handle));
+        }
+        return handle;
+    }
+
+    private void remove(Storage storage, List<String> chunk, RemovalHandle handle) {
+        var pathFiles = new ArrayList<PathFile>(chunk.size());
+        for (var fullPath : chunk) {
+            try {
+                pathFiles.add(PathFile.of(fullPath));
+            } catch (RuntimeException e) {
+                fail(handle, fullPath, e);
+            }
+        }
+        if (pathFiles.isEmpty()) return;
+
+        try {
+            storage.internalRemoveAll(pathFiles);
+            succeed(handle, pathFiles.size());
+        } catch (PartialRemovalStorageException e) {
+            e.getFailures().forEach((fullPath, cause) -> fail(handle, fullPath, cause));
+            succeed(handle, pathFiles.size() - e.getFailures().size());
+        } catch (Exception e) {
+            for (var pathFile : pathFiles) fail(handle, pathFile.getCompletePath(), e);
+        }
+    }
+
+    private void succeed(RemovalHandle handle, int count) {
+        pending.addAndGet(-count);
+        removed.addAndGet(count);
+        handle.succeeded(count);
+    }
+
+    private void fail(RemovalHandle handle, String fullPath, Throwable cause) {
+        log.error("Error removing file: {}", fullPath, cause);
+        pending.decrementAndGet();
+        failed.incrementAndGet();
+        handle.failed(fullPath, cause);
+    }
+
+    /**
+     * @return Cantidad de archivos en espera de ser eliminados
+     */
+    public long pendingCount() {
+        return pending.get();
+    }
+
+    /**
+     * @return Cantidad total de archivos eliminados
+     */
+    public long removedCount() {
+        return removed.get();
+    }
+
+    /**
+     * @return Cantidad total de archivos que no pudieron eliminarse
+     */
+    public long failedCount() {
+        return failed.get();
+    }
+
+    /**
+     * Detiene el ejecutor después de completar las eliminaciones en espera
+     */
+    @Override
+    public void close() {
+        executor.close();
+    }
+}
@@ -4,15 +4,30 @@ import io.github.luidmidev.storage.exceptions.AlreadyFileExistsStorageException;
 import io.github.luidmidev.storage.exceptions.FileNotFoundStorageException;
 import io.github.luidmidev.storage.exceptions.InvalidFileNameStorageException;
 import io.github.luidmidev.storage.exceptions.InvalidPathStorageException;
+import io.github.luidmidev.storage.exceptions.InvalidRangeStorageException;
+import io.github.luidmidev.storage.exceptions.PartialRemovalStorageException;
 import lombok.Getter;
+import lombok.NonNull;
+import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Optional;
-import java.util.concurrent.CompletableFuture;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.Stream;
 
 /**
  * Clase abstracta que representa un almacen de archivos
@@ -23,6 +38,19 @@ public abstract class Storage {
 
     private final StoreTracking traking = new StoreTracking();
 
+    /**
+     * Configuración de ejecución en paralelo de los almacenamientos por lotes, si es nula se ejecutan en secuencia
+     */
+    @Setter
+    private volatile ParallelBatch parallelBatch;
+
+    /**
+     * Ejecutor de las eliminaciones asíncronas de {@link #batchExecution(StorageBatchOperation)}
+     */
+    @Setter
+    @NonNull
+    private volatile RemovalPipeline removalPipeline = RemovalPipeline.defaults();
+
     private static final ThreadLocal<StorageBatchState> CONTEXT_BATCH_STATE = new ThreadLocal<>();
 
     @FunctionalInterface
@@ -38,21 +66,21 @@ public abstract class Storage {
         return executionContext;
     }
 
-    public void batchExecution(StorageBatchOperation context) throws IOException {
+    /**
+     * Ejecuta una operación por lotes: los archivos registrados para almacenar se guardan de forma segura al finalizar
+     * la operación y los registrados para eliminar se envían al {@link RemovalPipeline} del almacen.
+     *
+     * @param context Operación por lotes
+     * @return Seguimiento de las eliminaciones asíncronas de la operación
+     * @throws IOException Si ocurre un error de lectura o escritura al ejecutar la operación o almacenar los archivos
+     */
+    public RemovalHandle batchExecution(StorageBatchOperation context) throws IOException {
         var state = new StorageBatchState();
         CONTEXT_BATCH_STATE.set(state);
         try {
             context.excute(state);
             store(state.toStores());
-            CompletableFuture.runAsync(() -> {
-                for (var fullPath : state.toRemove()) {
-                    try {
-                        remove(fullPath);
-                    } catch (IOException e) {
-                        log.error("Error removing file: {}", fullPath, e);
-                    }
-                }
-            });
+            return removalPipeline.submit(this, state.toRemove());
         } finally {
             CONTEXT_BATCH_STATE.remove();
         }
@@ -60,6 +88,10 @@ public abstract class Storage {
 
 
     /**
+     * Almacena un archivo consumiendo su contenido desde {@link ToStore#getSource()}. Las implementaciones deben
+     * transferir el contenido en bloques y no cargar el archivo completo en memoria, salvo que el almacen no
+     * permita otra alternativa.
+     *
      * @param toStore Objeto que contiene la información del archivo a almacenar
      * @throws IOException Si ocurre un error de lectura o escritura al almacenar el archivo
      */
@@ -74,6 +106,61 @@ public abstract class Storage {
      */
     protected abstract Optional<Stored> internalDownload(final PathFile pathFile) throws IOException;
 
+    /**
+     * Abre un archivo almacenado para leer su contenido de forma diferida. La implementación por defecto descarga el
+     * archivo completo en memoria, los almacenes deben sobrescribirla para leer el contenido de forma nativa.
+     *
+     * @param pathFile Objeto que contiene el nombre y ruta del archivo
+     * @return Objeto que representa el archivo almacenado con su contenido diferido
+     * @throws IOException Si ocurre un error de lectura o escritura al abrir el archivo
+     */
+    protected Optional<StoredStream> internalOpenStream(final PathFile pathFile) throws IOException {
+        return internalDownload(pathFile).map(stored -> StoredStream.ofStream(
+                stored.getInfo(),
+                () -> new ByteArrayInputStream(stored.getContent())
+        ));
+    }
+
+    /**
+     * Abre un rango del contenido de un archivo almacenado. La implementación por defecto abre el archivo completo y
+     * descarta los bytes previos al rango, los almacenes deben sobrescribirla para leer solo el rango solicitado.
+     *
+     * @param pathFile Objeto que contiene el nombre y ruta del archivo
+     * @param range    Rango del contenido a leer
+     * @return Objeto que representa el archivo almacenado con el rango de su contenido diferido
+     * @throws IOException                  Si ocurre un error de lectura o escritura al abrir el archivo
+     * @throws InvalidRangeStorageException Si la posición del rango está más allá del final del archivo
+     */
+    protected Optional<StoredStream> internalOpenStream(final PathFile pathFile, final ByteRange range) throws IOException {
+        var opened = internalOpenStream(pathFile);
+        if (opened.isEmpty()) return Optional.empty();
+        var stored = opened.get();
+        var clamped = range.clamp(stored.getInfo().getFileSize());
+        return Optional.of(StoredStream.ofStream(stored.getInfo(), clamped, () -> {
+            var in = stored.getInputStream();
+            in.skipNBytes(clamped.offset());
+            return new BoundedInputStream(in, clamped.length());
+        }));
+    }
+
+    /**
+     * Escribe el contenido de un archivo almacenado en un canal. La implementación por defecto copia el contenido con
+     * un buffer de tamaño fijo, los almacenes que puedan transferir el contenido sin copiarlo deben sobrescribirla.
+     *
+     * @param pathFile Objeto que contiene el nombre y ruta del archivo
+     * @param target   Canal donde se escribirá el contenido
+     * @return Cantidad de bytes transferidos
+     * @throws IOException                  Si ocurre un error de lectura o escritura al transferir el archivo
+     * @throws FileNotFoundStorageException Si no se encuentra el archivo
+     */
+    protected long internalTransferTo(final PathFile pathFile, final WritableByteChannel target) throws IOException {
+        var opened = internalOpenStream(pathFile);
+        if (opened.isEmpty()) throw new FileNotFoundStorageException(pathFile);
+        try (var stored = opened.get()) {
+            return ContentSource.copy(stored.getChannel(), target);
+        }
+    }
+
     /**
      * Obtiene la información de un archivo almacenado a partir de su nombre y ruta
      *
@@ -92,6 +179,54 @@ public abstract class Storage {
      */
     protected abstract boolean internalExists(final PathFile pathFile) throws IOException;
 
+    /**
+     * Verifica cuáles de varios archivos existen. La implementación por defecto verifica cada archivo con
+     * {@link #internalExists(PathFile)}, en paralelo si se configuró un {@link ParallelBatch}; los almacenes deben
+     * sobrescribirla para verificarlos con una sola consulta.
+     *
+     * @param pathFiles Objetos que contienen el nombre y ruta de los archivos
+     * @return Rutas completas de los archivos que existen
+     * @throws IOException Si ocurre un error de lectura o escritura al verificar la existencia de los archivos
+     */
+    protected Set<String> internalExistsAll(final Collection<? extends PathFile> pathFiles) throws IOException {
+        var existing = ConcurrentHashMap.<String>newKeySet();
+        ParallelBatch.Task<PathFile> check = pathFile -> {
+            if (internalExists(pathFile)) existing.add(pathFile.getCompletePath());
+        };
+        var batch = parallelBatch;
+        if (batch == null || pathFiles.size() < 2) {
+            for (var pathFile : pathFiles) check.run(pathFile);
+        } else {
+            batch.run(pathFiles, check);
+        }
+        return existing;
+    }
+
+    /**
+     * Lista los archivos almacenados bajo una ruta, incluidas sus subrutas. El flujo debe ser perezoso: los almacenes
+     * obtienen los archivos por páginas a medida que se consumen, sin cargar todos en memoria, y liberan sus recursos
+     * al cerrarse el flujo. La implementación por defecto no admite el listado, los almacenes deben sobrescribirla.
+     *
+     * @param path Ruta normalizada, vacía para listar todos los archivos
+     * @return Información de los archivos, sin un orden garantizado
+     * @throws IOException                   Si ocurre un error de lectura al iniciar el listado
+     * @throws UnsupportedOperationException Si el almacen no admite el listado
+     */
+    protected Stream<Stored.Info> internalList(final String path) throws IOException {
+        throw new UnsupportedOperationException(getClass().getSimpleName() + " does not support listing files");
+    }
+
+    /**
+     * Indica si el almacen guarda los atributos de {@link ToStore#getAttributes()} junto al archivo y los devuelve en
+     * {@link Stored.Info#getAttributes()} de todas las operaciones de lectura. Los almacenes que los admiten deben
+     * sobrescribirla; almacenar un archivo con atributos en un almacen que no los admite falla.
+     *
+     * @return Si el almacen admite atributos
+     */
+    public boolean supportsAttributes() {
+        return false;
+    }
+
     /**
      * Elimina un archivo almacenado a partir de su nombre y ruta
      *
@@ -101,6 +236,26 @@ public abstract class Storage {
     protected abstract void internalRemove(final PathFile pathFile) throws IOException;
 
 
+    /**
+     * Elimina varios archivos almacenados. La implementación por defecto elimina cada archivo con
+     * {@link #internalRemove(PathFile)}; los almacenes que admiten eliminaciones masivas deben sobrescribirla.
+     *
+     * @param pathFiles Objetos que contienen el nombre y ruta de los archivos
+     * @throws IOException                     Si ocurre un error de lectura o escritura al eliminar los archivos
+     * @throws PartialRemovalStorageException Si algunos de los archivos no pudieron eliminarse
+     */
+    protected void internalRemoveAll(final Collection<? extends PathFile> pathFiles) throws IOException {
+        var failures = new LinkedHashMap<String, Exception>();
+        for (var pathFile : pathFiles) {
+            try {
+                internalRemove(pathFile);
+            } catch (Exception e) {
+                failures.put(pathFile.getCompletePath(), e);
+            }
+        }
+        if (!failures.isEmpty()) throw new PartialRemovalStorageException(failures);
+    }
+
     /**
      * Guarda un archivo en el almacen a partir de un input stream en la ruta raíz
      *
@@ -138,8 +293,22 @@ public abstract class Storage {
      * @throws InvalidPathStorageException     Si el path es inválido
      */
     public String store(InputStream content, String filename, String path) throws IOException {
-        var bytes = content.readAllBytes();
-        return store(bytes, filename, path);
+        return store(new ToStore(path, filename, content));
+    }
+
+    /**
+     * Guarda un archivo en el almacen a partir de un origen de contenido en un path específico
+     *
+     * @param content  Origen del contenido del archivo
+     * @param filename Nombre del archivo
+     * @param path     Ruta donde se almacenará el archivo
+     * @return Ruta completa del archivo almacenado
+     * @throws IOException                     Si ocurre un error de lectura o escritura al almacenar el archivo
+     * @throws InvalidFileNameStorageException Si el nombre del archivo es inválido
+     * @throws InvalidPathStorageException     Si el path es inválido
+     */
+    public String store(ContentSource content, String filename, String path) throws IOException {
+        return store(new ToStore(path, filename, content));
     }
 
     /**
@@ -163,9 +332,13 @@ public abstract class Storage {
      * @param toStore Objeto que contiene la información del archivo a almacenar
      * @return Ruta completa del archivo almacenado
      * @throws IOException Si ocurre un error de lectura o escritura al almacenar el archivo
+     * @throws UnsupportedOperationException Si el archivo tiene atributos y el almacen no los admite
+     * @throws IllegalArgumentException Si el contenido del archivo está vacío
      */
     public String store(ToStore toStore) throws IOException {
         log.debug("Storing file {} in path {}", toStore.getFilename(), toStore.getPath());
+        throwIfAttributesUnsupported(toStore);
+        toStore = requireContent(toStore);
         throwIfAlreadyFileExists(toStore);
         internalStore(toStore);
         var completedPath = toStore.getCompletePath();
@@ -175,18 +348,33 @@ public abstract class Storage {
 
 
     /**
-     * Guarda varios archivos en el almacen de forma segura
+     * Guarda varios archivos en el almacen de forma segura, si alguno falla se eliminan los archivos ya almacenados.
+     * Si se configuró un {@link ParallelBatch} las verificaciones de existencia y los almacenamientos se ejecutan en
+     * paralelo.
      *
      * @param toStores Objetos que contienen la información de los archivos a almacenar
      * @throws IOException Si ocurre un error de lectura o escritura al almacenar los archivos
      * @throws FileNotFoundStorageException Si no se encuentra alguno de los archivos a almacenar
+     * @throws UnsupportedOperationException Si algún archivo tiene atributos y el almacen no los admite
+     * @throws IllegalArgumentException Si el contenido de algún archivo está vacío
      */
     public void store(ToStore... toStores) throws IOException {
+        for (var toStore : toStores) throwIfAttributesUnsupported(toStore);
+        toStores = toStores.clone();
+        for (var i = 0; i < toStores.length; i++) toStores[i] = requireContent(toStores[i]);
+        var batch = parallelBatch;
+        if (batch == null || toStores.length < 2) {
+            storeSequentially(toStores);
+        } else {
+            storeInParallel(batch, toStores);
+        }
+        traking.track(Arrays.stream(toStores).map(PathFile::getCompletePath).toList());
+    }
+
+    private void storeSequentially(ToStore... toStores) throws IOException {
         var storeds = new ArrayList<ToStore>();
         try {
-            for (var toStore : toStores) {
-                throwIfAlreadyFileExists(toStore);
-            }
+            throwIfAnyAlreadyFileExists(toStores);
             for (var toStore : toStores) {
                 internalStore(toStore);
                 storeds.add(toStore);
@@ -202,7 +390,36 @@ public abstract class Storage {
             }
             throw e;
         }
-        traking.track(storeds.stream().map(PathFile::getCompletePath).toList());
+    }
+
+    private void storeInParallel(ParallelBatch batch, ToStore... toStores) throws IOException {
+        var items = List.of(toStores);
+        var storeds = new ConcurrentLinkedQueue<ToStore>();
+        try {
+            throwIfAnyAlreadyFileExists(toStores);
+            batch.run(items, toStore -> {
+                internalStore(toStore);
+                storeds.add(toStore);
+                log.debug("Stored file: {}", toStore.getCompletePath());
+            });
+        } catch (Exception e) {
+            // Una interrupción impediría eliminar los archivos almacenados, se restablece al terminar la compensación
+            var interrupted = Thread.interrupted();
+            try {
+                batch.run(storeds, stored -> {
+                    try {
+                        internalRemove(stored);
+                    } catch (Exception e1) {
+                        log.debug("Error purging file: {}", stored.getCompletePath(), e1);
+                    }
+                });
+            } catch (Exception e1) {
+                e.addSuppressed(e1);
+            } finally {
+                if (interrupted) Thread.currentThread().interrupt();
+            }
+            throw e;
+        }
     }
 
     /**
@@ -217,6 +434,37 @@ public abstract class Storage {
     }
 
 
+    /**
+     * Verifica que el archivo tenga contenido antes de entregarlo al almacen, de modo que ningún almacen guarde un
+     * archivo vacío. Los orígenes en flujo de tamaño desconocido se verifican leyendo su primer byte, que se devuelve
+     * al flujo antes de almacenarlo.
+     *
+     * @param toStore Archivo a almacenar
+     * @return Archivo a almacenar, con un flujo equivalente si se leyó su primer byte
+     * @throws IOException              Si ocurre un error al leer el primer byte del flujo
+     * @throws IllegalArgumentException Si el contenido está vacío
+     */
+    protected static ToStore requireContent(ToStore toStore) throws IOException {
+        var source = toStore.getSource();
+        if (source.size() == 0) throw new IllegalArgumentException("Content is required: " + toStore.getCompletePath());
+        if (source.size() != ContentSource.UNKNOWN_SIZE || !(source instanceof ContentSource.Stream stream)) return toStore;
+
+        var content = new PushbackInputStream(stream.content(), 1);
+        var first = content.read();
+        if (first == -1) throw new IllegalArgumentException("Content is required: " + toStore.getCompletePath());
+        content.unread(first);
+        return toStore.withSource(ContentSource.of(content));
+    }
+
+    /**
+     * Lanza una excepción si el archivo tiene atributos y el almacen no los admite
+     */
+    private void throwIfAttributesUnsupported(ToStore toStore) {
+        if (!toStore.getAttributes().isEmpty() && !supportsAttributes()) {
+            throw new UnsupportedOperationException(getClass().getSimpleName() + " does not support attributes, cannot store " + toStore.getCompletePath());
+        }
+    }
+
     /**
      * Lanza una excepción si el archivo ya existe
      * @param pathFile Objeto que contiene el nombre y ruta del archivo
@@ -229,6 +477,22 @@ public abstract class Storage {
         }
     }
 
+    /**
+     * Lanza una excepción si alguno de los archivos ya existe, verificándolos con una sola consulta al almacen
+     * @param pathFiles Objetos que contienen el nombre y ruta de los archivos
+     * @throws IOException Si ocurre un error de lectura o escritura al verificar la existencia de los archivos
+     * @throws AlreadyFileExistsStorageException Si alguno de los archivos ya existe
+     */
+    private void throwIfAnyAlreadyFileExists(PathFile... pathFiles) throws IOException, AlreadyFileExistsStorageException {
+        var existing = internalExistsAll(List.of(pathFiles));
+        if (existing.isEmpty()) return;
+        for (var pathFile : pathFiles) {
+            if (existing.contains(pathFile.getCompletePath())) {
+                throw new AlreadyFileExistsStorageException(pathFile);
+            }
+        }
+    }
+
     /**
      * Descarga un archivo almacenado a partir de su ruta completa
      *
@@ -237,8 +501,7 @@ public abstract class Storage {
      * @throws IOException Si ocurre un error de lectura o escritura al descargar el archivo
      */
     public Optional<Stored> download(String fullPath) throws IOException {
-        var split = SplitPath.from(fullPath);
-        return download(split.filename(), split.path());
+        return download(PathFile.of(fullPath));
     }
 
     /**
@@ -248,7 +511,122 @@ public abstract class Storage {
      * @throws IOException Si ocurre un error de lectura o escritura al descargar el archivo
      */
     public Optional<Stored> download(String filename, String path) throws IOException {
-        return internalDownload(new PathFile(path, filename));
+        return download(new PathFile(path, filename));
+    }
+
+    /**
+     * Descarga un archivo almacenado a partir de una ruta ya validada
+     *
+     * @param pathFile Objeto que contiene el nombre y ruta del archivo
+     * @return Objeto que representa el archivo almacenado
+     * @throws IOException Si ocurre un error de lectura o escritura al descargar el archivo
+     */
+    public Optional<Stored> download(PathFile pathFile) throws IOException {
+        return internalDownload(pathFile);
+    }
+
+    /**
+     * Descarga un archivo almacenado en buffers de un pool, el contenido se lee directamente del canal del almacen a
+     * los buffers sin pasar por un arreglo del tamaño del archivo
+     *
+     * @param fullPath Ruta completa del archivo
+     * @param pool     Pool de donde se obtienen los buffers
+     * @return Archivo descargado, debe cerrarse para devolver los buffers al pool
+     * @throws IOException Si ocurre un error de lectura o escritura al descargar el archivo
+     */
+    public Optional<PooledStored> download(String fullPath, BufferPool pool) throws IOException {
+        var opened = openStream(fullPath);
+        if (opened.isEmpty()) return Optional.empty();
+        try (var stored = opened.get()) {
+            return Optional.of(new PooledStored(stored.getInfo(), PooledContent.readFrom(pool, stored.getChannel())));
+        }
+    }
+
+    /**
+     * Abre un archivo almacenado a partir de su ruta completa sin cargar su contenido en memoria, el contenido se
+     * abre al solicitar su flujo o canal y debe cerrarse al terminar de leerlo
+     *
+     * @param fullPath Ruta completa del archivo
+     * @return Objeto que representa el archivo almacenado con su contenido diferido
+     * @throws IOException Si ocurre un error de lectura o escritura al abrir el archivo
+     */
+    public Optional<StoredStream> openStream(String fullPath) throws IOException {
+        return openStream(PathFile.of(fullPath));
+    }
+
+    /**
+     * Abre un archivo almacenado a partir de su nombre y ruta sin cargar su contenido en memoria, el contenido se
+     * abre al solicitar su flujo o canal y debe cerrarse al terminar de leerlo
+     *
+     * @param filename Nombre del archivo
+     * @param path     Ruta donde se encuentra el archivo
+     * @return Objeto que representa el archivo almacenado con su contenido diferido
+     * @throws IOException Si ocurre un error de lectura o escritura al abrir el archivo
+     */
+    public Optional<StoredStream> openStream(String filename, String path) throws IOException {
+        return openStream(new PathFile(path, filename));
+    }
+
+    /**
+     * Abre un archivo almacenado a partir de una ruta ya validada sin cargar su contenido en memoria
+     *
+     * @param pathFile Objeto que contiene el nombre y ruta del archivo
+     * @return Objeto que representa el archivo almacenado con su contenido diferido
+     * @throws IOException Si ocurre un error de lectura o escritura al abrir el archivo
+     */
+    public Optional<StoredStream> openStream(PathFile pathFile) throws IOException {
+        return internalOpenStream(pathFile);
+    }
+
+    /**
+     * Abre un rango del contenido de un archivo almacenado a partir de su ruta completa, la cantidad de bytes se
+     * recorta si excede el final del archivo
+     *
+     * @param fullPath Ruta completa del archivo
+     * @param offset   Posición del primer byte a leer, comenzando en cero
+     * @param length   Cantidad máxima de bytes a leer
+     * @return Objeto que representa el archivo almacenado con el rango de su contenido diferido
+     * @throws IOException                  Si ocurre un error de lectura o escritura al abrir el archivo
+     * @throws InvalidRangeStorageException Si la posición está más allá del final del archivo
+     */
+    public Optional<StoredStream> openStream(String fullPath, long offset, long length) throws IOException {
+        return openStream(PathFile.of(fullPath), offset, length);
+    }
+
+    /**
+     * Abre un rango del contenido de un archivo almacenado a partir de una ruta ya validada
+     *
+     * @param pathFile Objeto que contiene el nombre y ruta del archivo
+     * @param offset   Posición del primer byte a leer, comenzando en cero
+     * @param length   Cantidad máxima de bytes a leer
+     * @return Objeto que representa el archivo almacenado con el rango de su contenido diferido
+     * @throws IOException                  Si ocurre un error de lectura o escritura al abrir el archivo
+     * @throws InvalidRangeStorageException Si la posición está más allá del final del archivo
+     */
+    public Optional<StoredStream> openStream(PathFile pathFile, long offset, long length) throws IOException {
+        return internalOpenStream(pathFile, new ByteRange(offset, length));
+    }
+
+    /**
+     * Descarga un rango del contenido de un archivo almacenado a partir de su ruta completa. El contenido del objeto
+     * retornado corresponde solo al rango, mientras que su información conserva el tamaño completo del archivo.
+     *
+     * @param fullPath Ruta completa del archivo
+     * @param offset   Posición del primer byte a leer, comenzando en cero
+     * @param length   Cantidad máxima de bytes a leer
+     * @return Objeto que representa el rango del archivo almacenado
+     * @throws IOException                  Si ocurre un error de lectura o escritura al descargar el archivo
+     * @throws InvalidRangeStorageException Si la posición está más allá del final del archivo
+     */
+    public Optional<Stored> download(String fullPath, long offset, long length) throws IOException {
+        var opened = openStream(fullPath, offset, length);
+        if (opened.isEmpty()) return Optional.empty();
+        try (var stored = opened.get()) {
+            return Optional.of(Stored.builder()
+                    .content(stored.readAllBytes())
+                    .info(stored.getInfo())
+                    .build());
+        }
     }
 
 
@@ -260,8 +638,7 @@ public abstract class Storage {
      * @throws IOException Si ocurre un error de lectura o escritura al obtener la información del archivo
      */
     public Optional<Stored.Info> info(String fullPath) throws IOException {
-        var split = SplitPath.from(fullPath);
-        return info(split.filename(), split.path());
+        return info(PathFile.of(fullPath));
     }
 
     /**
@@ -273,7 +650,46 @@ public abstract class Storage {
      * @throws IOException Si ocurre un error de lectura o escritura al obtener la información del archivo
      */
     public Optional<Stored.Info> info(String filename, String path) throws IOException {
-        return internalInfo(new PathFile(path, filename));
+        return info(new PathFile(path, filename));
+    }
+
+    /**
+     * Obtiene la información de un archivo almacenado a partir de una ruta ya validada
+     *
+     * @param pathFile Objeto que contiene el nombre y ruta del archivo
+     * @return Objeto que representa la información del archivo almacenado
+     * @throws IOException Si ocurre un error de lectura o escritura al obtener la información del archivo
+     */
+    public Optional<Stored.Info> info(PathFile pathFile) throws IOException {
+        return internalInfo(pathFile);
+    }
+
+    /**
+     * Lista todos los archivos almacenados
+     *
+     * @return Flujo perezoso con la información de los archivos, debe cerrarse al terminar
+     * @throws IOException Si ocurre un error de lectura al iniciar el listado
+     * @see #list(String)
+     */
+    public Stream<Stored.Info> list() throws IOException {
+        return list("");
+    }
+
+    /**
+     * Lista los archivos almacenados bajo una ruta, incluidas sus subrutas. Los archivos se obtienen por páginas a
+     * medida que se consume el flujo, por lo que el flujo debe cerrarse al terminar, por ejemplo con
+     * try-with-resources. No se garantiza un orden, y los archivos almacenados o eliminados durante el listado pueden
+     * aparecer o no. Los errores de lectura durante el recorrido se lanzan como {@link java.io.UncheckedIOException}.
+     *
+     * @param path Ruta bajo la que se listan los archivos, vacía para listar todos
+     * @return Flujo perezoso con la información de los archivos
+     * @throws InvalidPathStorageException   Si la ruta es inválida
+     * @throws IOException                   Si ocurre un error de lectura al iniciar el listado
+     * @throws UnsupportedOperationException Si el almacen no admite el listado
+     */
+    public Stream<Stored.Info> list(String path) throws IOException {
+        StorageAssertions.validPath(path);
+        return internalList(StorageUtils.normalizePath(path));
     }
 
     /**
@@ -284,8 +700,7 @@ public abstract class Storage {
      * @throws IOException Si ocurre un error de lectura o escritura al verificar la existencia del archivo
      */
     public boolean exists(String fullPath) throws IOException {
-        var split = SplitPath.from(fullPath);
-        return exists(split.filename(), split.path());
+        return exists(PathFile.of(fullPath));
     }
 
     /**
@@ -297,8 +712,18 @@ public abstract class Storage {
      * @throws IOException Si ocurre un error de lectura o escritura al verificar la existencia del archivo
      */
     public boolean exists(String filename, String path) throws IOException {
-        var normalizedPath = StorageUtils.normalizePath(path);
-        return internalExists(new PathFile(normalizedPath, filename));
+        return exists(new PathFile(path, filename));
+    }
+
+    /**
+     * Verifica si un archivo almacenado existe a partir de una ruta ya validada
+     *
+     * @param pathFile Objeto que contiene el nombre y ruta del archivo
+     * @return Si el archivo existe o no
+     * @throws IOException Si ocurre un error de lectura o escritura al verificar la existencia del archivo
+     */
+    public boolean exists(PathFile pathFile) throws IOException {
+        return internalExists(pathFile);
     }
 
     /**
@@ -308,8 +733,7 @@ public abstract class Storage {
      * @throws IOException Si ocurre un error de lectura o escritura al eliminar el archivo
      */
     public void remove(String fullPath) throws IOException {
-        var split = SplitPath.from(fullPath);
-        remove(split.filename(), split.path());
+        remove(PathFile.of(fullPath));
     }
 
     /**
@@ -320,7 +744,17 @@ public abstract class Storage {
      * @throws IOException Si ocurre un error de lectura o escritura al eliminar el archivo
      */
     public void remove(String filename, String path) throws IOException {
-        internalRemove(new PathFile(path, filename));
+        remove(new PathFile(path, filename));
+    }
+
+    /**
+     * Elimina un archivo almacenado a partir de una ruta ya validada
+     *
+     * @param pathFile Objeto que contiene el nombre y ruta del archivo
+     * @throws IOException Si ocurre un error de lectura o escritura al eliminar el archivo
+     */
+    public void remove(PathFile pathFile) throws IOException {
+        internalRemove(pathFile);
     }
 
 
@@ -358,12 +792,26 @@ public abstract class Storage {
      * @throws IOException Si ocurre un error de lectura o escritura al transferir el archivo
      */
     public void transferTo(Storage target, String filename, String path) throws IOException {
-        var pathFile = new PathFile(path, filename);
-        var downloadedFile = internalDownload(pathFile);
-        if (downloadedFile.isEmpty()) {
+        transferTo(target, new PathFile(path, filename));
+    }
+
+    /**
+     * Transfiere un archivo almacenado a otro almacen a partir de una ruta ya validada
+     *
+     * @param target   Almacen donde se almacenará el archivo
+     * @param pathFile Objeto que contiene el nombre y ruta del archivo
+     * @throws IOException Si ocurre un error de lectura o escritura al transferir el archivo
+     */
+    public void transferTo(Storage target, PathFile pathFile) throws IOException {
+        var opened = internalOpenStream(pathFile);
+        if (opened.isEmpty()) {
             throw new FileNotFoundStorageException(pathFile);
         }
-        target.store(downloadedFile.get().getContent(), filename, path);
+        try (var stored = opened.get()) {
+            var fileSize = stored.getInfo().getFileSize();
+            var content = ContentSource.of(stored.getInputStream(), fileSize == null ? ContentSource.UNKNOWN_SIZE : fileSize);
+            target.store(new ToStore(pathFile, content, stored.getInfo().getAttributes()));
+        }
     }
 
     /**
@@ -374,42 +822,45 @@ public abstract class Storage {
      * @throws IOException Si ocurre un error de lectura o escritura al transferir el archivo
      */
     public void transferTo(Storage target, String fullPath) throws IOException {
-        var split = SplitPath.from(fullPath);
-        transferTo(target, split.filename(), split.path());
+        transferTo(target, PathFile.of(fullPath));
     }
 
-    record SplitPath(String path, String filename) {
-
-        public static SplitPath from(String fullPath) {
-            var split = new SplitPath(extractPath(fullPath), extractFilename(fullPath));
-            log.debug("Split path: {}", split);
-            return split;
-        }
-
-        /**
-         * Extrae la ruta de un archivo a partir de su ruta completa
-         *
-         * @param fullpath Ruta completa del archivo
-         * @return Ruta del archivo
-         */
-        private static String extractPath(String fullpath) {
-            return fullpath.contains("/") ? fullpath.substring(0, fullpath.lastIndexOf("/") + 1) : "/";
-        }
+    /**
+     * Escribe el contenido de un archivo almacenado en un canal, como un socket o un archivo, sin cargarlo en memoria
+     *
+     * @param fullPath Ruta completa del archivo
+     * @param target   Canal donde se escribirá el contenido, no se cierra al finalizar
+     * @return Cantidad de bytes transferidos
+     * @throws IOException                  Si ocurre un error de lectura o escritura al transferir el archivo
+     * @throws FileNotFoundStorageException Si no se encuentra el archivo
+     */
+    public long transferTo(String fullPath, WritableByteChannel target) throws IOException {
+        return transferTo(PathFile.of(fullPath), target);
+    }
 
-        /**
-         * Extrae el nombre de un archivo a partir de su ruta completa
-         *
-         * @param fullpath Ruta completa del archivo
-         * @return Nombre del archivo
-         */
-        private static String extractFilename(String fullpath) {
-            return fullpath.contains("/") ? fullpath.substring(fullpath.lastIndexOf("/") + 1) : fullpath;
-        }
+    /**
+     * Escribe el contenido de un archivo almacenado en un canal a partir de una ruta ya validada
+     *
+     * @param pathFile Objeto que contiene el nombre y ruta del archivo
+     * @param target   Canal donde se escribirá el contenido, no se cierra al finalizar
+     * @return Cantidad de bytes transferidos
+     * @throws IOException                  Si ocurre un error de lectura o escritura al transferir el archivo
+     * @throws FileNotFoundStorageException Si no se encuentra el archivo
+     */
+    public long transferTo(PathFile pathFile, WritableByteChannel target) throws IOException {
+        return internalTransferTo(pathFile, target);
+    }
 
-        @Override
-        public String toString() {
-            return "[path= " + path + ", filename= " + filename + "]";
-        }
+    /**
+     * Escribe el contenido de un archivo almacenado en un flujo de salida sin cargarlo en memoria
+     *
+     * @param fullPath Ruta completa del archivo
+     * @param target   Flujo donde se escribirá el contenido, no se cierra al finalizar
+     * @return Cantidad de bytes transferidos
+     * @throws IOException                  Si ocurre un error de lectura o escritura al transferir el archivo
+     * @throws FileNotFoundStorageException Si no se encuentra el archivo
+     */
+    public long transferTo(String fullPath, OutputStream target) throws IOException {
+        return transferTo(fullPath, Channels.newChannel(target));
     }
 }
-
@@ -4,10 +4,9 @@ import io.github.luidmidev.storage.exceptions.InvalidFileNameStorageException;
 import io.github.luidmidev.storage.exceptions.InvalidPathStorageException;
 import io.github.luidmidev.storage.exceptions.StorageException;
 
-import java.util.regex.Pattern;
-
 public final class StorageAssertions {
-    private static final Pattern INVALID_FILENAME_CHARACTERS = Pattern.compile("[\\\\/:*?\"<>|]");
+    private static final boolean[] INVALID_FILENAME_CHARACTERS = characterTable("\\/:*?\"<>|");
+    private static final boolean[] INVALID_PATH_CHARACTERS = characterTable("<>:\"|?*\\");
     private static final int MAX_FILENAME_LENGTH = 255;
 
     private StorageAssertions() {
@@ -30,22 +29,11 @@ public final class StorageAssertions {
             throw new InvalidFileNameStorageException(filename, "The filename is too long, it must be less than " + MAX_FILENAME_LENGTH + " characters.");
         }
 
-        var invalidCharacters = new StringBuilder();
-        for (char c : filename.toCharArray()) {
-            var charact = String.valueOf(c);
-            if (INVALID_FILENAME_CHARACTERS.matcher(charact).find() && invalidCharacters.indexOf(charact) == -1) {
-                invalidCharacters.append(c).append(" ");
-            }
-        }
-
-        if (!invalidCharacters.isEmpty()) {
-            throw new InvalidFileNameStorageException(filename, "The filename contains invalid characters: " + invalidCharacters.toString().trim());
+        if (containsAny(filename, INVALID_FILENAME_CHARACTERS)) {
+            throw new InvalidFileNameStorageException(filename, "The filename contains invalid characters: " + invalidCharacters(filename, INVALID_FILENAME_CHARACTERS));
         }
     }
 
-
-    private static final Pattern INVALID_PATH_CHARACTERS = Pattern.compile("[<>:\"|?*\\\\]");
-
     /**
      * Lanza una excepción si el path es inválido
      *
@@ -61,45 +49,92 @@ public final class StorageAssertions {
             return;
         }
 
-        var invalidCharacters = new StringBuilder();
-        for (char c : path.toCharArray()) {
-            var charact = String.valueOf(c);
-            if (INVALID_PATH_CHARACTERS.matcher(charact).find() && invalidCharacters.indexOf(charact) == -1) {
-                invalidCharacters.append(c).append(" ");
-            }
-        }
-
-        if (!invalidCharacters.isEmpty()) {
-            throw new InvalidPathStorageException(path, "The path contains invalid characters: " + invalidCharacters.toString().trim());
+        if (containsAny(path, INVALID_PATH_CHARACTERS)) {
+            throw new InvalidPathStorageException(path, "The path contains invalid characters: " + invalidCharacters(path, INVALID_PATH_CHARACTERS));
         }
 
         validateInPathSegments(path);
     }
 
+    /**
+     * Lanza una excepción si el primer segmento del path es un directorio reservado por el almacen
+     *
+     * @param path     Path normalizado a validar
+     * @param reserved Nombres de los directorios reservados
+     * @throws InvalidPathStorageException Si el path está dentro de un directorio reservado
+     */
+    public static void notReservedPath(String path, String... reserved) throws InvalidPathStorageException {
+        var slash = path.indexOf('/');
+        var first = slash == -1 ? path : path.substring(0, slash);
+        for (var directory : reserved) {
+            if (first.equals(directory)) {
+                throw new InvalidPathStorageException(path, "The directory " + directory + " is reserved by the storage.");
+            }
+        }
+    }
+
+    /**
+     * Recorre los segmentos sin dividir la ruta. Se omiten una barra inicial y las barras finales.
+     */
     private static void validateInPathSegments(String path) {
-        var segments = path.startsWith("/") ? path.substring(1).split("/") : path.split("/");
+        var end = path.length();
+        while (end > 0 && path.charAt(end - 1) == '/') end--;
+
+        var start = path.startsWith("/") ? 1 : 0;
+        while (start < end) {
+            var slash = path.indexOf('/', start);
+            var segmentEnd = slash == -1 || slash > end ? end : slash;
+            validateSegment(path, start, segmentEnd);
+            start = segmentEnd + 1;
+        }
+    }
 
-        for (var segment : segments) {
+    private static void validateSegment(String path, int start, int end) {
+        if (start == end) {
+            throw new InvalidPathStorageException(path, "The path cannot contain empty segments.");
+        }
 
-            if (segment.isEmpty()) {
-                throw new InvalidPathStorageException(path, "The path cannot contain empty segments.");
-            }
+        if (path.charAt(start) == ' ') {
+            throw new InvalidPathStorageException(path, "The path cannot contain segments starting with spaces.");
+        }
 
-            if (segment.startsWith(" ")) {
-                throw new InvalidPathStorageException(path, "The path cannot contain segments starting with spaces.");
-            }
+        var last = path.charAt(end - 1);
+        if (last == ' ') {
+            throw new InvalidPathStorageException(path, "The path cannot contain segments ending with spaces.");
+        }
 
-            if (segment.endsWith(" ")) {
-                throw new InvalidPathStorageException(path, "The path cannot contain segments ending with spaces.");
-            }
+        if (last == '.') {
+            throw new InvalidPathStorageException(path, "The path cannot contain segments ending with a dot.");
+        }
+    }
 
-            if (segment.endsWith(".")) {
-                throw new InvalidPathStorageException(path, "The path cannot contain segments ending with a dot.");
-            }
+    private static boolean[] characterTable(String characters) {
+        var table = new boolean[128];
+        for (var i = 0; i < characters.length(); i++) table[characters.charAt(i)] = true;
+        return table;
+    }
 
-            if (segment.chars().allMatch(c -> c == '.')) {
-                throw new InvalidPathStorageException(path, "The path cannot contain segments with only dots.");
-            }
+    private static boolean containsAny(String value, boolean[] table) {
+        for (var i = 0; i < value.length(); i++) {
+            var c = value.charAt(i);
+            if (c < table.length && table[c]) return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return Caracteres inválidos sin repetir, en el orden en que aparecen y separados por espacios
+     */
+    private static String invalidCharacters(String value, boolean[] table) {
+        var seen = new boolean[table.length];
+        var invalid = new StringBuilder();
+        for (var i = 0; i < value.length(); i++) {
+            var c = value.charAt(i);
+            if (c >= table.length || !table[c] || seen[c]) continue;
+            seen[c] = true;
+            if (!invalid.isEmpty()) invalid.append(' ');
+            invalid.append(c);
         }
+        return invalid.toString();
     }
 }
@@ -1,6 +1,5 @@
 package io.github.luidmidev.storage;
 
-import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.List;
@@ -14,7 +13,7 @@ public final class StorageBatchState {
         this.toRemove = new ArrayList<>();
     }
 
-    public String store(InputStream content, String filename) throws IOException {
+    public String store(InputStream content, String filename) {
         return store(content, filename, "");
     }
 
@@ -22,9 +21,11 @@ public final class StorageBatchState {
         return store(content, filename, "");
     }
 
-    public String store(InputStream content, String filename, String path) throws IOException {
-        var bytes = content.readAllBytes();
-        return store(bytes, filename, path);
+    /**
+     * El flujo se consume al finalizar la operación por lotes, por lo que debe permanecer abierto hasta entonces
+     */
+    public String store(InputStream content, String filename, String path) {
+        return store(new ToStore(path, filename, content));
     }
 
     public String store(byte[] content, String filename, String path) {
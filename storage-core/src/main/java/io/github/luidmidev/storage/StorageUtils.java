@@ -1,12 +1,9 @@
 package io.github.luidmidev.storage;
 
-import org.apache.tika.Tika;
-
+import java.util.Map;
 
 public final class StorageUtils {
 
-    private static final Tika TIKA = new Tika();
-
     private StorageUtils() {
         throw new IllegalStateException("Utility class");
     }
@@ -28,6 +25,18 @@ public final class StorageUtils {
         return path.isEmpty() ? filename : path + "/" + filename;
     }
 
+    /**
+     * Verifica si una ruta normalizada es igual a otra o está bajo ella
+     *
+     * @param path   Ruta normalizada de un archivo
+     * @param parent Ruta normalizada, vacía para la raíz
+     * @return Si la ruta es la ruta padre o una de sus subrutas
+     */
+    public static boolean isUnderPath(String path, String parent) {
+        if (parent.isEmpty() || path.equals(parent)) return true;
+        return path.length() > parent.length() && path.charAt(parent.length()) == '/' && path.startsWith(parent);
+    }
+
     /**
      * Construye un archivo descargado con los bytes, nombre y ruta, el tipo de contenido se detecta automáticamente con el nombre del archivo
      *
@@ -64,9 +73,24 @@ public final class StorageUtils {
      * @return Archivo descargado
      */
     public static Stored constructStoredFile(byte[] bytes, long fileSize, String filename, String path, String contentType) {
+        return constructStoredFile(bytes, fileSize, filename, path, contentType, Map.of());
+    }
+
+    /**
+     * Construye un archivo descargado con los bytes, tamaño, nombre, ruta, tipo de contenido y atributos
+     *
+     * @param bytes Contenido del archivo
+     * @param fileSize Tamaño del archivo
+     * @param filename Nombre del archivo
+     * @param path Ruta del archivo
+     * @param contentType Tipo de contenido
+     * @param attributes Atributos del archivo
+     * @return Archivo descargado
+     */
+    public static Stored constructStoredFile(byte[] bytes, long fileSize, String filename, String path, String contentType, Map<String, String> attributes) {
         return Stored.builder()
                 .content(bytes)
-                .info(constructFileInfo(filename, fileSize, path, contentType))
+                .info(constructFileInfo(filename, fileSize, path, contentType, attributes))
                 .build();
     }
 
@@ -90,22 +114,36 @@ public final class StorageUtils {
      * @return Información del archivo almacenado
      */
     public static Stored.Info constructFileInfo(String filename, long fileSize, String path, String contentType) {
+        return constructFileInfo(filename, fileSize, path, contentType, Map.of());
+    }
+
+    /**
+     * Construye la información de un archivo almacenado con el nombre, tamaño, ruta, tipo de contenido y atributos
+     * @param filename Nombre del archivo
+     * @param fileSize Tamaño del archivo
+     * @param path Ruta del archivo
+     * @param contentType Tipo de contenido
+     * @param attributes Atributos guardados con el archivo
+     * @return Información del archivo almacenado
+     */
+    public static Stored.Info constructFileInfo(String filename, long fileSize, String path, String contentType, Map<String, String> attributes) {
 
         return Stored.Info.builder()
                 .filename(filename)
                 .fileSize(fileSize)
                 .path(path)
                 .contentType(contentType)
+                .attributes(attributes)
                 .build();
 
     }
 
     /**
-     * Detecta el tipo de contenido de un archivo a partir de su nombre
+     * Detecta el tipo de contenido de un archivo a partir de su nombre con el {@link ContentTypeEngine#shared() motor compartido}
      * @param filename Nombre del archivo
      * @return Tipo de contenido
      */
     public static String guessContentType(String filename) {
-        return TIKA.detect(filename);
+        return ContentTypeEngine.shared().detect(filename);
     }
 }
@@ -3,6 +3,8 @@ package io.github.luidmidev.storage;
 import lombok.Builder;
 import lombok.Data;
 
+import java.util.Map;
+
 /**
  * Representa un archivo descargado
  */
@@ -17,11 +19,18 @@ public class Stored {
      * Representa la información de un archivo almacenado
      */
     @Data
-    @Builder
+    @Builder(toBuilder = true)
     public static class Info {
         private String path;
         private String filename;
         private String contentType;
         private Long fileSize;
+        /**
+         * Atributos guardados con el archivo, vacío si el almacen no admite atributos
+         *
+         * @see Storage#supportsAttributes()
+         */
+        @Builder.Default
+        private Map<String, String> attributes = Map.of();
     }
 }
\ No newline at end of file
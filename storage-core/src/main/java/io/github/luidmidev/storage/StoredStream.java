@@ -0,0 +1,161 @@
+package io.github.luidmidev.storage;
+
+import lombok.Getter;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Objects;
+
+/**
+ * Representa un archivo almacenado cuyo contenido se abre de forma diferida al solicitar su flujo o canal de lectura,
+ * evitando cargar el archivo completo en memoria. Debe cerrarse al terminar de leer el contenido.
+ */
+public final class StoredStream implements Closeable {
+
+    /**
+     * Abre el recurso nativo del almacen con el que se lee el contenido
+     *
+     * @param <T> Tipo del recurso
+     */
+    @FunctionalInterface
+    public interface Opener<T extends Closeable> {
+        T open() throws IOException;
+    }
+
+    @Getter
+    private final Stored.Info info;
+    /**
+     * Rango del contenido que se lee, el tamaño del archivo en {@link #getInfo()} siempre es el tamaño completo
+     */
+    @Getter
+    private final ByteRange range;
+    private final Opener<? extends InputStream> streamOpener;
+    private final Opener<? extends ReadableByteChannel> channelOpener;
+
+    private InputStream stream;
+    private ReadableByteChannel channel;
+    private boolean closed;
+
+    private StoredStream(Stored.Info info, ByteRange range, Opener<? extends InputStream> streamOpener, Opener<? extends ReadableByteChannel> channelOpener) {
+        this.info = Objects.requireNonNull(info, "Info is required");
+        this.range = range != null ? range : new ByteRange(0, info.getFileSize() != null ? info.getFileSize() : Long.MAX_VALUE);
+        this.streamOpener = streamOpener;
+        this.channelOpener = channelOpener;
+    }
+
+    /**
+     * Crea un archivo cuyo contenido se lee de forma nativa a través de un flujo
+     *
+     * @param info   Información del archivo
+     * @param opener Función que abre el flujo del contenido
+     * @return Archivo con contenido diferido
+     */
+    public static StoredStream ofStream(Stored.Info info, Opener<? extends InputStream> opener) {
+        return ofStream(info, null, opener);
+    }
+
+    /**
+     * Crea un archivo cuyo contenido se lee de forma nativa a través de un flujo limitado a un rango
+     *
+     * @param info   Información del archivo
+     * @param range  Rango del contenido que entrega el flujo
+     * @param opener Función que abre el flujo del rango
+     * @return Archivo con contenido diferido
+     */
+    public static StoredStream ofStream(Stored.Info info, ByteRange range, Opener<? extends InputStream> opener) {
+        return new StoredStream(info, range, Objects.requireNonNull(opener), null);
+    }
+
+    /**
+     * Crea un archivo cuyo contenido se lee de forma nativa a través de un canal
+     *
+     * @param info   Información del archivo
+     * @param opener Función que abre el canal del contenido
+     * @return Archivo con contenido diferido
+     */
+    public static StoredStream ofChannel(Stored.Info info, Opener<? extends ReadableByteChannel> opener) {
+        return ofChannel(info, null, opener);
+    }
+
+    /**
+     * Crea un archivo cuyo contenido se lee de forma nativa a través de un canal limitado a un rango
+     *
+     * @param info   Información del archivo
+     * @param range  Rango del contenido que entrega el canal
+     * @param opener Función que abre el canal del rango
+     * @return Archivo con contenido diferido
+     */
+    public static StoredStream ofChannel(Stored.Info info, ByteRange range, Opener<? extends ReadableByteChannel> opener) {
+        return new StoredStream(info, range, null, Objects.requireNonNull(opener));
+    }
+
+    /**
+     * Abre, si aún no se ha abierto, el contenido del archivo como flujo
+     *
+     * @return Flujo del contenido
+     * @throws IOException Si ocurre un error al abrir el contenido
+     */
+    public synchronized InputStream getInputStream() throws IOException {
+        ensureOpen();
+        if (stream == null) stream = Channels.newInputStream(channel);
+        return stream;
+    }
+
+    /**
+     * Abre, si aún no se ha abierto, el contenido del archivo como canal
+     *
+     * @return Canal del contenido
+     * @throws IOException Si ocurre un error al abrir el contenido
+     */
+    public synchronized ReadableByteChannel getChannel() throws IOException {
+        ensureOpen();
+        if (channel == null) channel = Channels.newChannel(stream);
+        return channel;
+    }
+
+    /**
+     * Escribe el contenido restante en un flujo de salida utilizando un buffer de tamaño fijo
+     *
+     * @param out Flujo de salida
+     * @return Cantidad de bytes escritos
+     * @throws IOException Si ocurre un error de lectura o escritura
+     */
+    public long transferTo(OutputStream out) throws IOException {
+        return ContentSource.copy(getInputStream(), out);
+    }
+
+    /**
+     * Lee el contenido restante en memoria
+     *
+     * @return Bytes del contenido
+     * @throws IOException Si ocurre un error de lectura
+     */
+    public byte[] readAllBytes() throws IOException {
+        return getInputStream().readAllBytes();
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) throw new IOException("Stream already closed for " + info.getFilename());
+        if (stream != null || channel != null) return;
+        if (streamOpener != null) {
+            stream = streamOpener.open();
+        } else {
+            channel = channelOpener.open();
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) return;
+        closed = true;
+        if (stream != null) {
+            stream.close();
+        } else if (channel != null) {
+            channel.close();
+        }
+    }
+}
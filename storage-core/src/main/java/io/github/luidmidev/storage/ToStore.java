@@ -5,30 +5,98 @@ import lombok.Getter;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Objects;
 
 @Getter
 @EqualsAndHashCode(callSuper = true)
 public class ToStore extends PathFile {
 
-    private final byte[] content;
+    private final ContentSource source;
 
-    public ToStore(String path, String filename, byte[] content) {
+    /**
+     * Atributos que el almacen guarda con el archivo y devuelve en {@link Stored.Info#getAttributes()}
+     *
+     * @see Storage#supportsAttributes()
+     */
+    private final Map<String, String> attributes;
+
+    public ToStore(String path, String filename, ContentSource source) {
         super(path, filename);
-        if (content == null || content.length == 0) {
-            throw new IllegalArgumentException("Content is required");
-        }
-        this.content = content;
+        this.source = Objects.requireNonNull(source, "Content is required");
+        this.attributes = Map.of();
+    }
+
+    /**
+     * @param pathFile Ruta ya validada del archivo
+     * @param source   Origen del contenido
+     */
+    public ToStore(PathFile pathFile, ContentSource source) {
+        this(pathFile, source, Map.of());
+    }
+
+    /**
+     * @param pathFile   Ruta ya validada del archivo
+     * @param source     Origen del contenido
+     * @param attributes Atributos del archivo
+     */
+    public ToStore(PathFile pathFile, ContentSource source, Map<String, String> attributes) {
+        super(pathFile);
+        this.source = Objects.requireNonNull(source, "Content is required");
+        this.attributes = Map.copyOf(attributes);
+    }
+
+    /**
+     * @param source Origen del contenido
+     * @return Archivo con la misma ruta y atributos, y otro origen del contenido
+     */
+    public ToStore withSource(ContentSource source) {
+        return new ToStore(this, source, attributes);
+    }
+
+    public ToStore(String path, String filename, byte[] content) {
+        this(path, filename, ContentSource.of(content));
     }
 
     public ToStore(String filename, byte[] content) {
         this("", filename, content);
     }
 
-    public ToStore(String path, String filename, InputStream content) throws IOException {
-        this(path, filename, content.readAllBytes());
+    /**
+     * El flujo no se lee al construir el objeto, se consume una única vez al almacenar el archivo
+     */
+    public ToStore(String path, String filename, InputStream content) {
+        this(path, filename, ContentSource.of(content));
     }
 
-    public ToStore(String filename, InputStream content) throws IOException {
+    public ToStore(String filename, InputStream content) {
         this("", filename, content);
     }
+
+    public ToStore(String path, String filename, Path content) {
+        this(path, filename, ContentSource.of(content));
+    }
+
+    public ToStore(String path, String filename, ByteBuffer content) {
+        this(path, filename, ContentSource.of(content));
+    }
+
+    /**
+     * Lee el contenido completo en memoria, si el origen es un flujo este queda consumido
+     *
+     * @return Bytes del contenido
+     * @throws UncheckedIOException Si ocurre un error al leer el contenido
+     * @deprecated Utilizar {@link #getSource()} para consumir el contenido en bloques
+     */
+    @Deprecated
+    public byte[] getContent() {
+        try {
+            return source.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read the content of " + getCompletePath(), e);
+        }
+    }
 }
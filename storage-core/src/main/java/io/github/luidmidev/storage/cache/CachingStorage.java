@@ -0,0 +1,130 @@
+package io.github.luidmidev.storage.cache;
+
+import io.github.luidmidev.storage.ByteBufferInputStream;
+import io.github.luidmidev.storage.ByteRange;
+import io.github.luidmidev.storage.ForwardingStorage;
+import io.github.luidmidev.storage.PathFile;
+import io.github.luidmidev.storage.Storage;
+import io.github.luidmidev.storage.Stored;
+import io.github.luidmidev.storage.StoredStream;
+import io.github.luidmidev.storage.ToStore;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.channels.WritableByteChannel;
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * Decorador que almacena en un {@link ContentCache} el contenido de los archivos descargados de cualquier almacen.
+ * Las descargas, lecturas, transferencias y consultas de información de un archivo en el cache se resuelven sin
+ * acceder al almacen; las lecturas y transferencias comparten el contenido del cache sin copiarlo.
+ * <p>
+ * El cache se invalida al almacenar o eliminar archivos a través del decorador, incluidas las eliminaciones de
+ * {@link #purge} y {@link #batchExecution}. Las modificaciones realizadas directamente sobre el almacen decorado no
+ * son visibles para el cache.
+ */
+@Slf4j
+public class CachingStorage extends ForwardingStorage {
+
+    @Getter
+    private final ContentCache cache;
+
+    public CachingStorage(Storage delegate, ContentCache cache) {
+        super(delegate);
+        this.cache = cache;
+    }
+
+    @Override
+    protected void internalStore(final ToStore toStore) throws IOException {
+        try {
+            super.internalStore(toStore);
+        } finally {
+            cache.invalidate(toStore.getCompletePath());
+        }
+    }
+
+    @Override
+    protected Optional<Stored> internalDownload(final PathFile pathFile) throws IOException {
+        var key = pathFile.getCompletePath();
+        var cached = cache.get(key);
+        if (cached.isPresent()) {
+            var content = cached.get().content();
+            var bytes = new byte[content.remaining()];
+            content.get(bytes);
+            return Optional.of(Stored.builder().content(bytes).info(cached.get().info().toBuilder().build()).build());
+        }
+
+        var generation = cache.generation();
+        var downloaded = super.internalDownload(pathFile);
+        // La información de un archivo es mutable, por lo que el cache almacena y entrega copias
+        downloaded.ifPresent(stored -> {
+            if (cache.put(key, stored.getInfo().toBuilder().build(), stored.getContent(), generation)) {
+                log.debug("Cached content of {}", key);
+            }
+        });
+        return downloaded;
+    }
+
+    @Override
+    protected Optional<StoredStream> internalOpenStream(final PathFile pathFile) throws IOException {
+        var cached = cache.get(pathFile.getCompletePath());
+        if (cached.isEmpty()) return super.internalOpenStream(pathFile);
+
+        var content = cached.get().content();
+        return Optional.of(StoredStream.ofStream(cached.get().info().toBuilder().build(), () -> new ByteBufferInputStream(content.duplicate())));
+    }
+
+    @Override
+    protected Optional<StoredStream> internalOpenStream(final PathFile pathFile, final ByteRange range) throws IOException {
+        var cached = cache.get(pathFile.getCompletePath());
+        if (cached.isEmpty()) return super.internalOpenStream(pathFile, range);
+
+        var content = cached.get().content();
+        var clamped = range.clamp(content.capacity());
+        var slice = content.slice((int) clamped.offset(), (int) clamped.length());
+        return Optional.of(StoredStream.ofStream(cached.get().info().toBuilder().build(), clamped, () -> new ByteBufferInputStream(slice.duplicate())));
+    }
+
+    @Override
+    protected long internalTransferTo(final PathFile pathFile, final WritableByteChannel target) throws IOException {
+        var cached = cache.get(pathFile.getCompletePath());
+        if (cached.isEmpty()) return super.internalTransferTo(pathFile, target);
+
+        var content = cached.get().content();
+        long written = 0;
+        while (content.hasRemaining()) written += target.write(content);
+        return written;
+    }
+
+    @Override
+    protected Optional<Stored.Info> internalInfo(final PathFile pathFile) throws IOException {
+        var cached = cache.get(pathFile.getCompletePath());
+        if (cached.isPresent()) return Optional.of(cached.get().info().toBuilder().build());
+        return super.internalInfo(pathFile);
+    }
+
+    @Override
+    protected boolean internalExists(final PathFile pathFile) throws IOException {
+        return cache.contains(pathFile.getCompletePath()) || super.internalExists(pathFile);
+    }
+
+    @Override
+    protected void internalRemove(final PathFile pathFile) throws IOException {
+        try {
+            super.internalRemove(pathFile);
+        } finally {
+            cache.invalidate(pathFile.getCompletePath());
+        }
+    }
+
+    @Override
+    protected void internalRemoveAll(final Collection<? extends PathFile> pathFiles) throws IOException {
+        try {
+            super.internalRemoveAll(pathFiles);
+        } finally {
+            for (var pathFile : pathFiles) cache.invalidate(pathFile.getCompletePath());
+        }
+    }
+}
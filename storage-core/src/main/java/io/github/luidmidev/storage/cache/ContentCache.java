@@ -0,0 +1,184 @@
+package io.github.luidmidev.storage.cache;
+
+import io.github.luidmidev.storage.Stored;
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.ByteBuffer;
+import java.util.LinkedHashMap;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache del contenido de archivos acotado por la cantidad de bytes almacenados. Las entradas se desalojan en orden de
+ * uso menos reciente y los archivos más grandes que el tamaño máximo por entrada no se almacenan, para que un archivo
+ * grande no desaloje a muchos archivos pequeños de uso frecuente.
+ * <p>
+ * El contenido puede almacenarse en el heap o fuera de él en buffers directos, que no son recorridos por el recolector
+ * de basura y permiten caches de gran tamaño sin aumentar las pausas de recolección.
+ * <p>
+ * Cada invalidación incrementa una generación; las cargas capturan la generación antes de leer el almacen y solo se
+ * almacenan si no hubo invalidaciones mientras tanto, lo que evita almacenar contenido obsoleto de una lectura que
+ * compitió con una escritura o eliminación.
+ */
+@Slf4j
+public final class ContentCache {
+
+    /**
+     * Contenido almacenado en el cache, el buffer es de solo lectura y cada lectura debe usar su propia vista
+     */
+    public record Entry(Stored.Info info, ByteBuffer content) {
+    }
+
+    private final long maxBytes;
+    private final long maxEntryBytes;
+    private final boolean offHeap;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long weightedBytes;
+    private long generation;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * @param maxBytes      Cantidad máxima de bytes almacenados
+     * @param maxEntryBytes Tamaño máximo de un archivo almacenado
+     * @param offHeap       Si el contenido se almacena en buffers directos fuera del heap
+     */
+    public ContentCache(long maxBytes, long maxEntryBytes, boolean offHeap) {
+        if (maxBytes <= 0) throw new IllegalArgumentException("Max bytes must be positive: " + maxBytes);
+        if (maxEntryBytes <= 0) throw new IllegalArgumentException("Max entry bytes must be positive: " + maxEntryBytes);
+        this.maxBytes = maxBytes;
+        this.maxEntryBytes = Math.min(Math.min(maxEntryBytes, maxBytes), Integer.MAX_VALUE);
+        this.offHeap = offHeap;
+    }
+
+    /**
+     * Cache en el heap, cada archivo puede ocupar hasta una octava parte del cache
+     */
+    public static ContentCache onHeap(long maxBytes) {
+        return new ContentCache(maxBytes, Math.max(1, maxBytes / 8), false);
+    }
+
+    /**
+     * Cache fuera del heap, cada archivo puede ocupar hasta una octava parte del cache
+     */
+    public static ContentCache offHeap(long maxBytes) {
+        return new ContentCache(maxBytes, Math.max(1, maxBytes / 8), true);
+    }
+
+    /**
+     * @param key Ruta completa del archivo
+     * @return Contenido almacenado con su vista en la posición cero, vacío si no está en el cache
+     */
+    public Optional<Entry> get(String key) {
+        Entry entry;
+        synchronized (this) {
+            entry = entries.get(key);
+        }
+        if (entry == null) {
+            misses.incrementAndGet();
+            return Optional.empty();
+        }
+        hits.incrementAndGet();
+        return Optional.of(new Entry(entry.info(), entry.content().duplicate()));
+    }
+
+    /**
+     * Verifica si el contenido de un archivo está en el cache sin afectar el orden de desalojo ni las estadísticas
+     *
+     * @param key Ruta completa del archivo
+     * @return Si el contenido está en el cache
+     */
+    public synchronized boolean contains(String key) {
+        return entries.containsKey(key);
+    }
+
+    /**
+     * @return Generación actual, debe capturarse antes de leer el contenido que se almacenará
+     */
+    public synchronized long generation() {
+        return generation;
+    }
+
+    /**
+     * Almacena el contenido de un archivo si no hubo invalidaciones desde la generación indicada
+     *
+     * @param key        Ruta completa del archivo
+     * @param info       Información del archivo
+     * @param content    Contenido del archivo, se copia al cache
+     * @param generation Generación capturada antes de leer el contenido
+     * @return Si el contenido fue almacenado
+     */
+    public boolean put(String key, Stored.Info info, byte[] content, long generation) {
+        if (content.length > maxEntryBytes) return false;
+        synchronized (this) {
+            if (this.generation != generation) return false;
+        }
+
+        var buffer = offHeap ? ByteBuffer.allocateDirect(content.length) : ByteBuffer.allocate(content.length);
+        buffer.put(content).flip();
+        var entry = new Entry(info, buffer.asReadOnlyBuffer());
+
+        synchronized (this) {
+            if (this.generation != generation) return false;
+            var previous = entries.put(key, entry);
+            if (previous != null) weightedBytes -= previous.content().capacity();
+            weightedBytes += content.length;
+            evict(key);
+        }
+        return true;
+    }
+
+    /**
+     * Descarta el contenido de un archivo, debe invocarse cuando el archivo se almacena o elimina
+     *
+     * @param key Ruta completa del archivo
+     */
+    public synchronized void invalidate(String key) {
+        generation++;
+        var removed = entries.remove(key);
+        if (removed != null) weightedBytes -= removed.content().capacity();
+    }
+
+    /**
+     * Descarta todo el contenido del cache
+     */
+    public synchronized void clear() {
+        generation++;
+        entries.clear();
+        weightedBytes = 0;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long weightedBytes() {
+        return weightedBytes;
+    }
+
+    public long hitCount() {
+        return hits.get();
+    }
+
+    public long missCount() {
+        return misses.get();
+    }
+
+    public long evictionCount() {
+        return evictions.get();
+    }
+
+    private void evict(String inserted) {
+        var iterator = entries.entrySet().iterator();
+        while (weightedBytes > maxBytes && iterator.hasNext()) {
+            var eldest = iterator.next();
+            if (eldest.getKey().equals(inserted)) continue;
+            weightedBytes -= eldest.getValue().content().capacity();
+            iterator.remove();
+            evictions.incrementAndGet();
+            log.debug("Evicted cached content {}", eldest.getKey());
+        }
+    }
+}
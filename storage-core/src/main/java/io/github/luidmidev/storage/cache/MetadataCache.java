@@ -0,0 +1,133 @@
+package io.github.luidmidev.storage.cache;
+
+import io.github.luidmidev.storage.Stored;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Cache de la información de archivos acotado por cantidad de entradas, con desalojo por uso menos reciente. Almacena
+ * tanto los archivos encontrados como los no encontrados; las entradas negativas tienen su propia vigencia, que suele
+ * ser más corta, para que un archivo almacenado por otro proceso se vuelva visible pronto.
+ * <p>
+ * Igual que {@link ContentCache}, las cargas capturan una generación antes de consultar el almacen y no se almacenan
+ * si hubo invalidaciones mientras tanto.
+ */
+public final class MetadataCache {
+
+    /**
+     * Información almacenada en el cache, {@code info} es nula si el archivo no existe
+     */
+    public record Entry(Stored.Info info, long expiresAt) {
+
+        public boolean exists() {
+            return info != null;
+        }
+    }
+
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final long negativeTtlNanos;
+    private final LongSupplier clock;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long generation;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * @param maxEntries  Cantidad máxima de entradas
+     * @param ttl         Vigencia de la información de los archivos encontrados
+     * @param negativeTtl Vigencia de las entradas de archivos no encontrados, cero para no almacenarlas
+     */
+    public MetadataCache(int maxEntries, Duration ttl, Duration negativeTtl) {
+        this(maxEntries, ttl, negativeTtl, System::nanoTime);
+    }
+
+    MetadataCache(int maxEntries, Duration ttl, Duration negativeTtl, LongSupplier clock) {
+        if (maxEntries <= 0) throw new IllegalArgumentException("Max entries must be positive: " + maxEntries);
+        if (ttl.isNegative() || ttl.isZero()) throw new IllegalArgumentException("TTL must be positive: " + ttl);
+        if (negativeTtl.isNegative()) throw new IllegalArgumentException("Negative TTL must not be negative: " + negativeTtl);
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttl.toNanos();
+        this.negativeTtlNanos = negativeTtl.toNanos();
+        this.clock = clock;
+    }
+
+    /**
+     * @param key Ruta completa del archivo
+     * @return Entrada vigente, vacío si no está en el cache o expiró
+     */
+    public Optional<Entry> get(String key) {
+        Entry entry;
+        synchronized (this) {
+            entry = entries.get(key);
+            if (entry != null && entry.expiresAt() - clock.getAsLong() <= 0) {
+                entries.remove(key);
+                entry = null;
+            }
+        }
+        (entry == null ? misses : hits).incrementAndGet();
+        return Optional.ofNullable(entry);
+    }
+
+    /**
+     * @return Generación actual, debe capturarse antes de consultar la información que se almacenará
+     */
+    public synchronized long generation() {
+        return generation;
+    }
+
+    /**
+     * Almacena la información de un archivo si no hubo invalidaciones desde la generación indicada
+     *
+     * @param key        Ruta completa del archivo
+     * @param info       Información del archivo, nula si el archivo no existe
+     * @param generation Generación capturada antes de consultar la información
+     */
+    public synchronized void put(String key, Stored.Info info, long generation) {
+        if (this.generation != generation) return;
+        var ttl = info == null ? negativeTtlNanos : ttlNanos;
+        if (ttl == 0) return;
+
+        entries.put(key, new Entry(info, clock.getAsLong() + ttl));
+        var iterator = entries.entrySet().iterator();
+        while (entries.size() > maxEntries && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    /**
+     * Descarta la información de un archivo, debe invocarse cuando el archivo se almacena o elimina
+     *
+     * @param key Ruta completa del archivo
+     */
+    public synchronized void invalidate(String key) {
+        generation++;
+        entries.remove(key);
+    }
+
+    /**
+     * Descarta toda la información del cache
+     */
+    public synchronized void clear() {
+        generation++;
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public long hitCount() {
+        return hits.get();
+    }
+
+    public long missCount() {
+        return misses.get();
+    }
+}
@@ -0,0 +1,105 @@
+package io.github.luidmidev.storage.cache;
+
+import io.github.luidmidev.storage.ForwardingStorage;
+import io.github.luidmidev.storage.PathFile;
+import io.github.luidmidev.storage.Storage;
+import io.github.luidmidev.storage.Stored;
+import io.github.luidmidev.storage.ToStore;
+import lombok.Getter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Decorador que almacena en un {@link MetadataCache} la información de los archivos consultados con {@code info} y
+ * {@code exists}, incluidos los archivos no encontrados. Las consultas de existencia se resuelven con la información
+ * del archivo, que en la mayoría de almacenes cuesta lo mismo que verificar su existencia, para que ambas consultas
+ * compartan la misma entrada.
+ * <p>
+ * El cache se invalida al almacenar o eliminar archivos a través del decorador; las modificaciones realizadas
+ * directamente sobre el almacen decorado se vuelven visibles al expirar las entradas.
+ */
+public class MetadataCachingStorage extends ForwardingStorage {
+
+    @Getter
+    private final MetadataCache cache;
+
+    public MetadataCachingStorage(Storage delegate, MetadataCache cache) {
+        super(delegate);
+        this.cache = cache;
+    }
+
+    @Override
+    protected void internalStore(final ToStore toStore) throws IOException {
+        try {
+            super.internalStore(toStore);
+        } finally {
+            cache.invalidate(toStore.getCompletePath());
+        }
+    }
+
+    @Override
+    protected Optional<Stored.Info> internalInfo(final PathFile pathFile) throws IOException {
+        var key = pathFile.getCompletePath();
+        var cached = cache.get(key);
+        if (cached.isPresent()) return Optional.ofNullable(cached.get().info()).map(info -> info.toBuilder().build());
+
+        var generation = cache.generation();
+        var info = super.internalInfo(pathFile);
+        // La información de un archivo es mutable, por lo que el cache almacena y entrega copias
+        cache.put(key, info.map(found -> found.toBuilder().build()).orElse(null), generation);
+        return info;
+    }
+
+    @Override
+    protected boolean internalExists(final PathFile pathFile) throws IOException {
+        return internalInfo(pathFile).isPresent();
+    }
+
+    /**
+     * Los archivos en el cache se resuelven en memoria y el resto se verifica con una sola consulta al almacen, los
+     * archivos no encontrados se almacenan como entradas negativas
+     */
+    @Override
+    protected Set<String> internalExistsAll(final Collection<? extends PathFile> pathFiles) throws IOException {
+        var existing = new HashSet<String>();
+        var uncached = new ArrayList<PathFile>();
+        for (var pathFile : pathFiles) {
+            var cached = cache.get(pathFile.getCompletePath());
+            if (cached.isEmpty()) uncached.add(pathFile);
+            else if (cached.get().exists()) existing.add(pathFile.getCompletePath());
+        }
+        if (uncached.isEmpty()) return existing;
+
+        var generation = cache.generation();
+        var found = super.internalExistsAll(uncached);
+        existing.addAll(found);
+        for (var pathFile : uncached) {
+            var key = pathFile.getCompletePath();
+            if (!found.contains(key)) cache.put(key, null, generation);
+        }
+        return existing;
+    }
+
+    @Override
+    protected void internalRemove(final PathFile pathFile) throws IOException {
+        try {
+            super.internalRemove(pathFile);
+        } finally {
+            cache.invalidate(pathFile.getCompletePath());
+        }
+    }
+
+    @Override
+    protected void internalRemoveAll(final Collection<? extends PathFile> pathFiles) throws IOException {
+        try {
+            super.internalRemoveAll(pathFiles);
+        } finally {
+            for (var pathFile : pathFiles) cache.invalidate(pathFile.getCompletePath());
+        }
+    }
+}
@@ -0,0 +1,250 @@
+package io.github.luidmidev.storage.compression;
+
+import io.github.luidmidev.storage.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static io.github.luidmidev.storage.StorageUtils.guessContentType;
+
+/**
+ * Decorador que comprime el contenido de los archivos cuyo tipo de contenido, detectado a partir del nombre, acepta
+ * la {@link CompressionPolicy}. El contenido se comprime mientras el almacen decorado lo consume y se descomprime
+ * mientras se lee.
+ * <p>
+ * El algoritmo y el tamaño original se guardan como atributos del archivo en el almacen decorado, que debe admitir
+ * atributos, de modo que el contenido almacenado es solo el contenido comprimido y {@code info} y {@code list}
+ * informan el tamaño original sin leer el contenido. Los archivos sin esos atributos, como los almacenados antes de
+ * usar el decorador, se leen tal cual. El contenido de tamaño desconocido se comprime primero a un archivo temporal
+ * para conocer su tamaño original antes de almacenarlo.
+ */
+public class CompressingStorage extends ForwardingStorage {
+
+    /**
+     * Atributo con el identificador del algoritmo de compresión
+     */
+    public static final String CODEC_ATTRIBUTE = "compression-codec";
+
+    /**
+     * Atributo con el tamaño original del contenido
+     */
+    public static final String SIZE_ATTRIBUTE = "compression-size";
+
+    private static final CompressionCodec DEFLATE = CompressionCodec.deflate();
+
+    /**
+     * Compresión de un archivo almacenado
+     *
+     * @param codec Algoritmo de compresión
+     * @param size  Tamaño original
+     */
+    private record Compression(CompressionCodec codec, long size) {
+    }
+
+    private final CompressionCodec codec;
+    private final CompressionPolicy policy;
+
+    public CompressingStorage(Storage delegate) {
+        this(delegate, CompressionCodec.deflate(), CompressionPolicy.defaults());
+    }
+
+    /**
+     * @throws IllegalArgumentException Si el almacen decorado no admite atributos
+     */
+    public CompressingStorage(Storage delegate, CompressionCodec codec, CompressionPolicy policy) {
+        super(delegate);
+        if (!delegate.supportsAttributes()) {
+            throw new IllegalArgumentException("Compressing storage requires a delegate that supports attributes: " + delegate.getClass().getSimpleName());
+        }
+        this.codec = codec;
+        this.policy = policy;
+    }
+
+    /**
+     * @throws IllegalArgumentException Si el archivo trae alguno de los atributos reservados para la compresión
+     */
+    @Override
+    protected void internalStore(final ToStore toStore) throws IOException {
+        notReservedAttributes(toStore);
+        if (!compressible(toStore)) {
+            super.internalStore(toStore);
+            return;
+        }
+
+        var source = toStore.getSource();
+        if (source.size() != ContentSource.UNKNOWN_SIZE) {
+            try (var compressed = codec.compress(source.openStream())) {
+                super.internalStore(new ToStore(toStore, ContentSource.of(compressed), attributesOf(toStore, source.size())));
+            }
+            return;
+        }
+
+        var spool = Files.createTempFile("storage-compression-", ".tmp");
+        try {
+            long size;
+            try (var raw = new CountingInputStream(source.openStream());
+                 var compressed = codec.compress(raw);
+                 var out = Files.newOutputStream(spool)) {
+                compressed.transferTo(out);
+                size = raw.getCount();
+            }
+            super.internalStore(new ToStore(toStore, ContentSource.of(spool), attributesOf(toStore, size)));
+        } finally {
+            Files.deleteIfExists(spool);
+        }
+    }
+
+    /**
+     * Los atributos de compresión solo los escribe el decorador, de lo contrario un archivo sin comprimir con esos
+     * atributos se descomprimiría al leerlo
+     */
+    private static void notReservedAttributes(ToStore toStore) {
+        for (var attribute : new String[]{CODEC_ATTRIBUTE, SIZE_ATTRIBUTE}) {
+            if (toStore.getAttributes().containsKey(attribute)) {
+                throw new IllegalArgumentException("The attribute " + attribute + " is reserved by the compressing storage: " + toStore.getCompletePath());
+            }
+        }
+    }
+
+    @Override
+    protected Optional<Stored> internalDownload(final PathFile pathFile) throws IOException {
+        var stored = super.internalDownload(pathFile);
+        if (stored.isEmpty()) return stored;
+
+        var compression = compressionOf(pathFile, stored.get().getInfo());
+        if (compression.isEmpty()) return stored;
+
+        try (var in = compression.get().codec().decompress(new ByteArrayInputStream(stored.get().getContent()))) {
+            var raw = in.readAllBytes();
+            return Optional.of(Stored.builder().content(raw).info(logical(stored.get().getInfo(), raw.length)).build());
+        }
+    }
+
+    @Override
+    protected Optional<StoredStream> internalOpenStream(final PathFile pathFile) throws IOException {
+        var opened = super.internalOpenStream(pathFile);
+        if (opened.isEmpty()) return opened;
+        return Optional.of(decompressed(pathFile, opened.get(), null));
+    }
+
+    /**
+     * El contenido comprimido no admite acceso aleatorio, el rango de un archivo comprimido se obtiene descomprimiendo
+     * desde el inicio. El rango se valida contra el tamaño original, por lo que primero se abre el archivo completo y
+     * solo si no está comprimido se abre el rango.
+     */
+    @Override
+    protected Optional<StoredStream> internalOpenStream(final PathFile pathFile, final ByteRange range) throws IOException {
+        var opened = super.internalOpenStream(pathFile);
+        if (opened.isEmpty()) return opened;
+        if (compressed(opened.get().getInfo())) return Optional.of(decompressed(pathFile, opened.get(), range));
+
+        opened.get().close();
+        return super.internalOpenStream(pathFile, range);
+    }
+
+    @Override
+    protected long internalTransferTo(final PathFile pathFile, final WritableByteChannel target) throws IOException {
+        var info = super.internalInfo(pathFile);
+        if (info.isEmpty() || !compressed(info.get())) return super.internalTransferTo(pathFile, target);
+
+        var opened = internalOpenStream(pathFile);
+        if (opened.isEmpty()) return super.internalTransferTo(pathFile, target);
+        try (var stored = opened.get()) {
+            return ContentSource.copy(stored.getChannel(), target);
+        }
+    }
+
+    @Override
+    protected Optional<Stored.Info> internalInfo(final PathFile pathFile) throws IOException {
+        var info = super.internalInfo(pathFile);
+        if (info.isEmpty()) return info;
+
+        var compression = compressionOf(pathFile, info.get());
+        return compression.isEmpty() ? info : Optional.of(logical(info.get(), compression.get().size()));
+    }
+
+    @Override
+    protected Stream<Stored.Info> internalList(final String path) throws IOException {
+        return super.internalList(path).map(info -> {
+            try {
+                var compression = compressionOf(new PathFile(info.getPath(), info.getFilename()), info);
+                return compression.isEmpty() ? info : logical(info, compression.get().size());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private boolean compressible(PathFile pathFile) {
+        return policy.shouldCompress(guessContentType(pathFile.getFilename()));
+    }
+
+    private Map<String, String> attributesOf(ToStore toStore, long size) {
+        var attributes = new HashMap<>(toStore.getAttributes());
+        attributes.put(CODEC_ATTRIBUTE, Byte.toString(codec.id()));
+        attributes.put(SIZE_ATTRIBUTE, Long.toString(size));
+        return attributes;
+    }
+
+    /**
+     * @param range Rango del contenido original, nulo para el contenido completo
+     * @return Flujo del contenido original, el mismo flujo si el archivo no está comprimido
+     */
+    private StoredStream decompressed(PathFile pathFile, StoredStream stored, ByteRange range) throws IOException {
+        try {
+            var compression = compressionOf(pathFile, stored.getInfo());
+            if (compression.isEmpty()) return stored;
+
+            var size = compression.get().size();
+            var clamped = range == null ? new ByteRange(0, size) : range.clamp(size);
+            return StoredStream.ofStream(logical(stored.getInfo(), size), clamped, () -> {
+                var raw = compression.get().codec().decompress(stored.getInputStream());
+                raw.skipNBytes(clamped.offset());
+                return new BoundedInputStream(raw, clamped.length());
+            });
+        } catch (IOException | RuntimeException e) {
+            stored.close();
+            throw e;
+        }
+    }
+
+    private static boolean compressed(Stored.Info info) {
+        return info.getAttributes().containsKey(CODEC_ATTRIBUTE);
+    }
+
+    /**
+     * @return Compresión del archivo según sus atributos, vacío si no fue comprimido por este decorador
+     */
+    private Optional<Compression> compressionOf(PathFile pathFile, Stored.Info info) throws IOException {
+        var attributes = info.getAttributes();
+        var id = attributes.get(CODEC_ATTRIBUTE);
+        if (id == null) return Optional.empty();
+
+        var size = attributes.get(SIZE_ATTRIBUTE);
+        if (size == null) throw new IOException("Compressed file " + pathFile.getCompletePath() + " has no " + SIZE_ATTRIBUTE + " attribute");
+        return Optional.of(new Compression(codecOf(Byte.parseByte(id)), Long.parseLong(size)));
+    }
+
+    private CompressionCodec codecOf(byte id) throws IOException {
+        if (id == codec.id()) return codec;
+        if (id == DEFLATE.id()) return DEFLATE;
+        throw new IOException("Unknown compression codec " + id);
+    }
+
+    /**
+     * @return Información con el tamaño original y sin los atributos de compresión
+     */
+    private static Stored.Info logical(Stored.Info info, long size) {
+        var attributes = new HashMap<>(info.getAttributes());
+        attributes.remove(CODEC_ATTRIBUTE);
+        attributes.remove(SIZE_ATTRIBUTE);
+        return info.toBuilder().fileSize(size).attributes(Map.copyOf(attributes)).build();
+    }
+}
@@ -0,0 +1,44 @@
+package io.github.luidmidev.storage.compression;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.Deflater;
+
+/**
+ * Algoritmo de compresión de un {@link CompressingStorage}. Ambas operaciones transforman flujos de lectura, por lo
+ * que el contenido se comprime a medida que el almacen lo consume, sin cargarlo completo en memoria.
+ */
+public interface CompressionCodec {
+
+    /**
+     * @return Identificador del algoritmo, se guarda en los atributos de los archivos comprimidos y debe ser único
+     */
+    byte id();
+
+    /**
+     * @param raw Flujo del contenido original
+     * @return Flujo del contenido comprimido, al cerrarlo se cierra el flujo original
+     */
+    InputStream compress(InputStream raw) throws IOException;
+
+    /**
+     * @param compressed Flujo del contenido comprimido
+     * @return Flujo del contenido original, al cerrarlo se cierra el flujo comprimido
+     */
+    InputStream decompress(InputStream compressed) throws IOException;
+
+    /**
+     * @return Compresión deflate con el nivel por defecto
+     */
+    static CompressionCodec deflate() {
+        return deflate(Deflater.DEFAULT_COMPRESSION);
+    }
+
+    /**
+     * @param level Nivel de compresión, de {@link Deflater#BEST_SPEED} a {@link Deflater#BEST_COMPRESSION}
+     * @return Compresión deflate con el nivel indicado
+     */
+    static CompressionCodec deflate(int level) {
+        return new DeflateCodec(level);
+    }
+}
@@ -0,0 +1,40 @@
+package io.github.luidmidev.storage.compression;
+
+import java.util.Set;
+
+/**
+ * Decide a partir del tipo de contenido qué archivos comprime un {@link CompressingStorage}. Al leer un archivo se
+ * usan los atributos guardados con él y no la política, por lo que esta puede cambiar sin afectar a los archivos ya
+ * almacenados.
+ */
+@FunctionalInterface
+public interface CompressionPolicy {
+
+    Set<String> TEXT_APPLICATION_TYPES = Set.of(
+            "application/json",
+            "application/xml",
+            "application/javascript",
+            "application/x-yaml",
+            "application/x-sh",
+            "application/sql",
+            "application/x-ndjson",
+            "image/svg+xml"
+    );
+
+    /**
+     * @param contentType Tipo de contenido detectado a partir del nombre del archivo
+     * @return Si el contenido debe comprimirse
+     */
+    boolean shouldCompress(String contentType);
+
+    /**
+     * Comprime los tipos de texto, incluidos CSV, JSON, XML y sus derivados. Las imágenes, los archivos comprimidos y
+     * los tipos desconocidos se almacenan sin comprimir.
+     */
+    static CompressionPolicy defaults() {
+        return contentType -> contentType != null && (contentType.startsWith("text/")
+                || TEXT_APPLICATION_TYPES.contains(contentType)
+                || contentType.endsWith("+json")
+                || contentType.endsWith("+xml"));
+    }
+}
@@ -0,0 +1,61 @@
+package io.github.luidmidev.storage.compression;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Compresión deflate de la JDK. Los compresores nativos se liberan al cerrar los flujos, sin esperar al recolector.
+ */
+final class DeflateCodec implements CompressionCodec {
+
+    static final byte ID = 1;
+    private static final int BUFFER_SIZE = 8 * 1024;
+
+    private final int level;
+
+    DeflateCodec(int level) {
+        if (level != Deflater.DEFAULT_COMPRESSION && (level < Deflater.NO_COMPRESSION || level > Deflater.BEST_COMPRESSION)) {
+            throw new IllegalArgumentException("Invalid deflate level: " + level);
+        }
+        this.level = level;
+    }
+
+    @Override
+    public byte id() {
+        return ID;
+    }
+
+    @Override
+    public InputStream compress(InputStream raw) {
+        var deflater = new Deflater(level);
+        return new DeflaterInputStream(raw, deflater, BUFFER_SIZE) {
+            @Override
+            public void close() throws IOException {
+                try {
+                    super.close();
+                } finally {
+                    deflater.end();
+                }
+            }
+        };
+    }
+
+    @Override
+    public InputStream decompress(InputStream compressed) {
+        var inflater = new Inflater();
+        return new InflaterInputStream(compressed, inflater, BUFFER_SIZE) {
+            @Override
+            public void close() throws IOException {
+                try {
+                    super.close();
+                } finally {
+                    inflater.end();
+                }
+            }
+        };
+    }
+}
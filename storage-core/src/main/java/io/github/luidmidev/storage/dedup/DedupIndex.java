@@ -0,0 +1,62 @@
+package io.github.luidmidev.storage.dedup;
+
+import io.github.luidmidev.storage.Stored;
+
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Índice de un {@link DeduplicatingStorage}: asocia la ruta completa de cada archivo con el resumen de su contenido y
+ * lleva la cuenta de cuántos archivos comparten cada resumen. Las implementaciones deben ser seguras para uso
+ * concurrente. Un índice que no es persistente se reconstruye con {@link DeduplicatingStorage#rebuildIndex()} a partir
+ * de las asociaciones guardadas en el almacen decorado.
+ */
+public interface DedupIndex {
+
+    /**
+     * Asociación de un archivo con su contenido
+     *
+     * @param digest Resumen del contenido en hexadecimal
+     * @param info   Información del archivo
+     */
+    record Link(String digest, Stored.Info info) {
+    }
+
+    /**
+     * @param completePath Ruta completa del archivo
+     * @return Asociación del archivo, vacío si el archivo no existe
+     */
+    Optional<Link> find(String completePath);
+
+    /**
+     * Asocia un archivo con su contenido e incrementa las referencias del resumen
+     *
+     * @param completePath Ruta completa del archivo
+     * @param link         Asociación del archivo
+     * @return Falso si el archivo ya estaba asociado, en cuyo caso no se modifica el índice
+     */
+    boolean link(String completePath, Link link);
+
+    /**
+     * Elimina la asociación de un archivo y decrementa las referencias de su resumen
+     *
+     * @param completePath Ruta completa del archivo
+     * @return Asociación eliminada, vacío si el archivo no existía
+     */
+    Optional<Link> unlink(String completePath);
+
+    /**
+     * @param digest Resumen del contenido
+     * @return Cantidad de archivos asociados al contenido
+     */
+    long references(String digest);
+
+    /**
+     * Obtiene las asociaciones de los archivos bajo una ruta. Los índices persistentes deben obtenerlas por páginas a
+     * medida que se consume el flujo.
+     *
+     * @param path Ruta normalizada, vacía para todos los archivos
+     * @return Asociaciones de los archivos bajo la ruta, incluidas sus subrutas
+     */
+    Stream<Link> list(String path);
+}
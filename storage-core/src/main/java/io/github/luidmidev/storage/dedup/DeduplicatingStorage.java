@@ -0,0 +1,413 @@
+package io.github.luidmidev.storage.dedup;
+
+import io.github.luidmidev.storage.*;
+import io.github.luidmidev.storage.exceptions.AlreadyFileExistsStorageException;
+import io.github.luidmidev.storage.exceptions.FileNotFoundStorageException;
+import io.github.luidmidev.storage.exceptions.PartialRemovalStorageException;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+import static io.github.luidmidev.storage.StorageUtils.constructFileInfo;
+
+/**
+ * Decorador que almacena una sola copia de cada contenido. El contenido se guarda en el almacen decorado bajo la ruta
+ * {@value #BLOB_ROOT}, nombrado por su resumen SHA-256, y un {@link DedupIndex} asocia cada archivo con el resumen de
+ * su contenido. Almacenar un contenido repetido solo escribe la asociación en el índice, y el contenido se elimina
+ * del almacen decorado cuando se elimina el último archivo que lo referencia.
+ * <p>
+ * Cada asociación también se guarda en el almacen decorado como un archivo pequeño bajo la ruta {@value #LINK_ROOT},
+ * con la misma ruta y nombre del archivo, de modo que un índice que no es persistente, como
+ * {@link InMemoryDedupIndex}, puede reconstruirse al iniciar la aplicación con {@link #rebuildIndex()}.
+ * <p>
+ * Para calcular el resumen antes de subir el contenido, los orígenes que solo pueden leerse una vez se copian a un
+ * archivo temporal mientras se calcula el resumen.
+ */
+@Slf4j
+public class DeduplicatingStorage extends ForwardingStorage {
+
+    /**
+     * Ruta del almacen decorado bajo la que se guardan los contenidos
+     */
+    public static final String BLOB_ROOT = ".blobs";
+
+    /**
+     * Ruta del almacen decorado bajo la que se guardan las asociaciones de los archivos con sus contenidos
+     */
+    public static final String LINK_ROOT = ".links";
+
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+    private static final int LOCK_STRIPES = 64;
+
+    private final DedupIndex index;
+    private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+    private final AtomicLong deduplicated = new AtomicLong();
+
+    /**
+     * @param delegate Almacen de los contenidos y de las asociaciones
+     * @param index    Índice de las asociaciones, si no es persistente debe reconstruirse con {@link #rebuildIndex()}
+     */
+    public DeduplicatingStorage(Storage delegate, DedupIndex index) {
+        super(delegate);
+        this.index = Objects.requireNonNull(index, "Dedup index is required");
+        for (var i = 0; i < LOCK_STRIPES; i++) locks[i] = new ReentrantLock();
+    }
+
+    @Override
+    protected void internalStore(final ToStore toStore) throws IOException {
+        try (var hashed = Hashed.of(toStore.getSource())) {
+            var digest = hashed.digest();
+            var blob = blobOf(digest);
+            var link = new DedupIndex.Link(digest, constructFileInfo(toStore.getFilename(), hashed.size(), toStore.getPath()));
+
+            var lock = lockOf(digest);
+            lock.lock();
+            try {
+                var uploaded = false;
+                if (index.references(digest) == 0 && !super.internalExists(blob)) {
+                    super.internalStore(new ToStore(blob.getPath(), blob.getFilename(), hashed.source()));
+                    uploaded = true;
+                } else {
+                    deduplicated.incrementAndGet();
+                    log.debug("Content of {} already stored as {}", toStore.getCompletePath(), digest);
+                }
+
+                if (!index.link(toStore.getCompletePath(), link)) {
+                    if (uploaded) removeBlobIfUnreferenced(digest);
+                    throw new AlreadyFileExistsStorageException(toStore);
+                }
+                try {
+                    storeLink(toStore, link);
+                } catch (IOException | RuntimeException e) {
+                    index.unlink(toStore.getCompletePath());
+                    removeBlobIfUnreferenced(digest);
+                    throw e;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    @Override
+    protected Optional<Stored> internalDownload(final PathFile pathFile) throws IOException {
+        var link = index.find(pathFile.getCompletePath());
+        if (link.isEmpty()) return Optional.empty();
+
+        return super.internalDownload(blobOf(link.get().digest()))
+                .map(blob -> Stored.builder().content(blob.getContent()).info(infoOf(link.get())).build());
+    }
+
+    @Override
+    protected Optional<StoredStream> internalOpenStream(final PathFile pathFile) throws IOException {
+        var link = index.find(pathFile.getCompletePath());
+        if (link.isEmpty()) return Optional.empty();
+
+        return super.internalOpenStream(blobOf(link.get().digest()))
+                .map(blob -> StoredStream.ofStream(infoOf(link.get()), blob.getRange(), blob::getInputStream));
+    }
+
+    @Override
+    protected Optional<StoredStream> internalOpenStream(final PathFile pathFile, final ByteRange range) throws IOException {
+        var link = index.find(pathFile.getCompletePath());
+        if (link.isEmpty()) return Optional.empty();
+
+        return super.internalOpenStream(blobOf(link.get().digest()), range)
+                .map(blob -> StoredStream.ofStream(infoOf(link.get()), blob.getRange(), blob::getInputStream));
+    }
+
+    @Override
+    protected long internalTransferTo(final PathFile pathFile, final WritableByteChannel target) throws IOException {
+        var link = index.find(pathFile.getCompletePath()).orElseThrow(() -> new FileNotFoundStorageException(pathFile));
+        return super.internalTransferTo(blobOf(link.digest()), target);
+    }
+
+    @Override
+    protected Optional<Stored.Info> internalInfo(final PathFile pathFile) {
+        return index.find(pathFile.getCompletePath()).map(DeduplicatingStorage::infoOf);
+    }
+
+    @Override
+    protected boolean internalExists(final PathFile pathFile) {
+        return index.find(pathFile.getCompletePath()).isPresent();
+    }
+
+    @Override
+    protected Set<String> internalExistsAll(final Collection<? extends PathFile> pathFiles) {
+        var existing = new HashSet<String>();
+        for (var pathFile : pathFiles) {
+            if (internalExists(pathFile)) existing.add(pathFile.getCompletePath());
+        }
+        return existing;
+    }
+
+    /**
+     * Los archivos del índice no guardan atributos
+     */
+    @Override
+    public boolean supportsAttributes() {
+        return false;
+    }
+
+    /**
+     * Los archivos se listan desde el índice, sin consultar el almacen decorado
+     */
+    @Override
+    protected Stream<Stored.Info> internalList(final String path) {
+        return index.list(path).map(DeduplicatingStorage::infoOf);
+    }
+
+    @Override
+    protected void internalRemove(final PathFile pathFile) throws IOException {
+        var key = pathFile.getCompletePath();
+        var link = index.find(key).orElseThrow(() -> new FileNotFoundStorageException(pathFile));
+
+        var lock = lockOf(link.digest());
+        lock.lock();
+        try {
+            removeLink(pathFile);
+            if (index.unlink(key).isEmpty()) throw new FileNotFoundStorageException(pathFile);
+            removeBlobIfUnreferenced(link.digest());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Elimina las asociaciones guardadas en una sola operación del almacen decorado, luego cada archivo del índice y
+     * por último, también en una sola operación, los contenidos que quedaron sin referencias
+     */
+    @Override
+    protected void internalRemoveAll(final Collection<? extends PathFile> pathFiles) throws IOException {
+        var failures = new LinkedHashMap<String, Exception>();
+        var found = new LinkedHashMap<PathFile, DedupIndex.Link>();
+        for (var pathFile : pathFiles) {
+            var link = index.find(pathFile.getCompletePath());
+            if (link.isPresent()) found.put(pathFile, link.get());
+            else failures.put(pathFile.getCompletePath(), new FileNotFoundStorageException(pathFile));
+        }
+        if (!found.isEmpty()) removeLinks(found, failures);
+
+        var orphans = new HashMap<String, PathFile>();
+        for (var file : found.entrySet()) {
+            var pathFile = file.getKey();
+            var key = pathFile.getCompletePath();
+            var digest = file.getValue().digest();
+
+            var lock = lockOf(digest);
+            lock.lock();
+            try {
+                if (index.unlink(key).isEmpty()) failures.put(key, new FileNotFoundStorageException(pathFile));
+                else if (index.references(digest) == 0) orphans.put(digest, blobOf(digest));
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        if (!orphans.isEmpty()) removeBlobsIfUnreferenced(orphans);
+        if (!failures.isEmpty()) throw new PartialRemovalStorageException(failures);
+    }
+
+    /**
+     * Agrega al índice las asociaciones guardadas en el almacen decorado que no contiene. Debe llamarse al iniciar la
+     * aplicación, antes de usar el almacen, si el índice no es persistente.
+     *
+     * @return Cantidad de asociaciones agregadas al índice
+     */
+    public long rebuildIndex() throws IOException {
+        var rebuilt = 0L;
+        try (var links = super.internalList(LINK_ROOT)) {
+            for (var iterator = links.iterator(); iterator.hasNext(); ) {
+                var stored = iterator.next();
+                var linkFile = new PathFile(stored.getPath(), stored.getFilename());
+                var content = super.internalDownload(linkFile);
+                if (content.isEmpty()) continue;
+
+                var fields = new String(content.get().getContent(), StandardCharsets.UTF_8).split("\n");
+                var path = stored.getPath().equals(LINK_ROOT) ? "" : stored.getPath().substring(LINK_ROOT.length() + 1);
+                var link = new DedupIndex.Link(fields[0], constructFileInfo(stored.getFilename(), Long.parseLong(fields[1]), path));
+                if (index.link(StorageUtils.factoryPathFile(path, stored.getFilename()), link)) rebuilt++;
+            }
+        }
+        log.info("Rebuilt {} links of the dedup index", rebuilt);
+        return rebuilt;
+    }
+
+    /**
+     * @return Cantidad de archivos almacenados cuyo contenido ya existía
+     */
+    public long deduplicatedCount() {
+        return deduplicated.get();
+    }
+
+    /**
+     * Debe llamarse con el bloqueo del resumen tomado. Si el contenido ya no existe en el almacen decorado no se
+     * considera un error, el objetivo de la eliminación ya se cumplió.
+     */
+    private void removeBlobIfUnreferenced(String digest) throws IOException {
+        if (index.references(digest) > 0) return;
+        try {
+            super.internalRemove(blobOf(digest));
+        } catch (FileNotFoundStorageException e) {
+            log.debug("Content {} was already removed", digest);
+        }
+    }
+
+    /**
+     * Toma los bloqueos de todos los resúmenes en orden, para no bloquearse con otra eliminación masiva, y elimina en
+     * una sola operación los contenidos que siguen sin referencias
+     */
+    private void removeBlobsIfUnreferenced(Map<String, PathFile> blobs) throws IOException {
+        var stripes = new TreeSet<Integer>();
+        for (var digest : blobs.keySet()) stripes.add(stripeOf(digest));
+        for (var stripe : stripes) locks[stripe].lock();
+        try {
+            var unreferenced = blobs.entrySet().stream()
+                    .filter(blob -> index.references(blob.getKey()) == 0)
+                    .map(Map.Entry::getValue)
+                    .toList();
+            if (!unreferenced.isEmpty()) super.internalRemoveAll(unreferenced);
+        } catch (PartialRemovalStorageException e) {
+            log.warn("Could not remove {} unreferenced contents: {}", e.getFailures().size(), e.getFailures().keySet());
+        } finally {
+            for (var stripe : stripes) locks[stripe].unlock();
+        }
+    }
+
+    /**
+     * Guarda la asociación con el resumen y el tamaño del contenido en líneas separadas
+     */
+    private void storeLink(PathFile pathFile, DedupIndex.Link link) throws IOException {
+        var content = link.digest() + "\n" + link.info().getFileSize();
+        super.internalStore(new ToStore(linkOf(pathFile), ContentSource.of(content.getBytes(StandardCharsets.UTF_8))));
+    }
+
+    /**
+     * Si la asociación guardada ya no existe no se considera un error, el archivo se elimina igualmente del índice
+     */
+    private void removeLink(PathFile pathFile) throws IOException {
+        try {
+            super.internalRemove(linkOf(pathFile));
+        } catch (FileNotFoundStorageException e) {
+            log.debug("Link of {} was already removed", pathFile.getCompletePath());
+        }
+    }
+
+    /**
+     * Los archivos cuya asociación guardada no pudo eliminarse se quitan de {@code found} y se agregan a
+     * {@code failures}
+     */
+    private void removeLinks(Map<PathFile, DedupIndex.Link> found, Map<String, Exception> failures) throws IOException {
+        var links = new HashMap<String, PathFile>();
+        for (var pathFile : found.keySet()) links.put(linkOf(pathFile).getCompletePath(), pathFile);
+        try {
+            super.internalRemoveAll(links.keySet().stream().map(PathFile::of).toList());
+        } catch (PartialRemovalStorageException e) {
+            for (var failure : e.getFailures().entrySet()) {
+                if (failure.getValue() instanceof FileNotFoundStorageException) continue;
+                var pathFile = links.get(failure.getKey());
+                found.remove(pathFile);
+                failures.put(pathFile.getCompletePath(), failure.getValue());
+            }
+        }
+    }
+
+    private static PathFile linkOf(PathFile pathFile) {
+        var path = pathFile.getPath();
+        return new PathFile(path.isEmpty() ? LINK_ROOT : LINK_ROOT + "/" + path, pathFile.getFilename());
+    }
+
+    private static int stripeOf(String digest) {
+        return Math.floorMod(digest.hashCode(), LOCK_STRIPES);
+    }
+
+    private ReentrantLock lockOf(String digest) {
+        return locks[stripeOf(digest)];
+    }
+
+    private static PathFile blobOf(String digest) {
+        return new PathFile(BLOB_ROOT + "/" + digest.substring(0, 2), digest);
+    }
+
+    private static Stored.Info infoOf(DedupIndex.Link link) {
+        return link.info().toBuilder().build();
+    }
+
+    /**
+     * Contenido con su resumen calculado, listo para leerse de nuevo
+     *
+     * @param digest Resumen en hexadecimal
+     * @param size   Tamaño del contenido
+     * @param source Origen del que se lee el contenido
+     * @param spool  Archivo temporal con la copia del contenido, nulo si no fue necesario
+     */
+    private record Hashed(String digest, long size, ContentSource source, Path spool) implements Closeable {
+
+        private static Hashed of(ContentSource source) throws IOException {
+            var digest = newDigest();
+            switch (source) {
+                case ContentSource.Bytes(var content) -> {
+                    digest.update(content);
+                    return new Hashed(hex(digest), content.length, source, null);
+                }
+                case ContentSource.Buffer(var content) -> {
+                    digest.update(content.duplicate());
+                    return new Hashed(hex(digest), content.remaining(), source, null);
+                }
+                case ContentSource.File file -> {
+                    var size = file.transferTo(new DigestOutputStream(OutputStream.nullOutputStream(), digest));
+                    return new Hashed(hex(digest), size, file, null);
+                }
+                default -> {
+                    var spool = Files.createTempFile("storage-dedup-", ".tmp");
+                    try (var out = new DigestOutputStream(Files.newOutputStream(spool), digest)) {
+                        var size = source.transferTo(out);
+                        return new Hashed(hex(digest), size, ContentSource.of(spool), spool);
+                    } catch (IOException | RuntimeException e) {
+                        Files.deleteIfExists(spool);
+                        throw e;
+                    }
+                }
+            }
+        }
+
+        private static MessageDigest newDigest() {
+            try {
+                return MessageDigest.getInstance(DIGEST_ALGORITHM);
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(DIGEST_ALGORITHM + " not available", e);
+            }
+        }
+
+        private static String hex(MessageDigest digest) {
+            return HexFormat.of().formatHex(digest.digest());
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (spool != null) Files.deleteIfExists(spool);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package io.github.luidmidev.storage.dedup;
+
+import io.github.luidmidev.storage.StorageUtils;
+
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Índice de deduplicación en memoria, se pierde al reiniciar la aplicación y debe reconstruirse con
+ * {@link DeduplicatingStorage#rebuildIndex()}
+ */
+public class InMemoryDedupIndex implements DedupIndex {
+
+    private final ConcurrentHashMap<String, Link> links = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Long> references = new ConcurrentHashMap<>();
+
+    @Override
+    public Optional<Link> find(String completePath) {
+        return Optional.ofNullable(links.get(completePath));
+    }
+
+    @Override
+    public boolean link(String completePath, Link link) {
+        if (links.putIfAbsent(completePath, link) != null) return false;
+        references.merge(link.digest(), 1L, Long::sum);
+        return true;
+    }
+
+    @Override
+    public Optional<Link> unlink(String completePath) {
+        var link = links.remove(completePath);
+        if (link == null) return Optional.empty();
+        references.computeIfPresent(link.digest(), (digest, count) -> count == 1 ? null : count - 1);
+        return Optional.of(link);
+    }
+
+    @Override
+    public long references(String digest) {
+        return references.getOrDefault(digest, 0L);
+    }
+
+    @Override
+    public Stream<Link> list(String path) {
+        return links.values().stream().filter(link -> StorageUtils.isUnderPath(link.info().getPath(), path));
+    }
+}
@@ -0,0 +1,21 @@
+package io.github.luidmidev.storage.exceptions;
+
+import io.github.luidmidev.storage.PathFile;
+import lombok.Getter;
+
+@Getter
+public class InsufficientCapacityStorageException extends StorageException {
+
+    private final String filename;
+    private final String path;
+    private final long requiredBytes;
+    private final long availableBytes;
+
+    public InsufficientCapacityStorageException(PathFile pathFile, long requiredBytes, long availableBytes) {
+        super("Insufficient capacity to store " + pathFile.getCompletePath() + ": required " + requiredBytes + " bytes, available " + availableBytes + " bytes");
+        this.filename = pathFile.getFilename();
+        this.path = pathFile.getPath();
+        this.requiredBytes = requiredBytes;
+        this.availableBytes = availableBytes;
+    }
+}
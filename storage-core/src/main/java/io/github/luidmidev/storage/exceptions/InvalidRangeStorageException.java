@@ -0,0 +1,16 @@
+package io.github.luidmidev.storage.exceptions;
+
+import lombok.Getter;
+
+@Getter
+public class InvalidRangeStorageException extends StorageException {
+
+    private final long offset;
+    private final long fileSize;
+
+    public InvalidRangeStorageException(long offset, long fileSize) {
+        super("Invalid range: offset " + offset + " is beyond the file size " + fileSize);
+        this.offset = offset;
+        this.fileSize = fileSize;
+    }
+}
@@ -0,0 +1,19 @@
+package io.github.luidmidev.storage.exceptions;
+
+import lombok.Getter;
+
+import java.util.Map;
+
+@Getter
+public class PartialRemovalStorageException extends StorageException {
+
+    /**
+     * Errores de los archivos que no pudieron eliminarse, por ruta completa
+     */
+    private final Map<String, Exception> failures;
+
+    public PartialRemovalStorageException(Map<String, Exception> failures) {
+        super("Could not remove " + failures.size() + " files: " + failures.keySet());
+        this.failures = Map.copyOf(failures);
+    }
+}
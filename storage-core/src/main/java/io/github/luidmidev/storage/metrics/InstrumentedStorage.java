@@ -0,0 +1,246 @@
+package io.github.luidmidev.storage.metrics;
+
+import io.github.luidmidev.storage.*;
+import io.github.luidmidev.storage.exceptions.PartialRemovalStorageException;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+import java.util.stream.Stream;
+
+/**
+ * Decorador que registra la duración, los bytes transferidos y los errores de cada operación de otro almacen y los
+ * entrega a uno o más {@link StorageListener}. También registra la parte síncrona de
+ * {@link #batchExecution(StorageBatchOperation)} y, al terminar, sus eliminaciones asíncronas.
+ * <p>
+ * Las operaciones pueden agruparse por un prefijo de la ruta de los archivos con {@link Builder#prefix(Function)}. El
+ * prefijo se usa como etiqueta de las métricas, por lo que debe tener pocos valores posibles; por defecto todas las
+ * operaciones usan {@link #NO_PREFIX}, ya que las rutas las elige el usuario.
+ */
+@Slf4j
+public class InstrumentedStorage extends ForwardingStorage {
+
+    @FunctionalInterface
+    private interface IOCallable<T> {
+        T call() throws IOException;
+    }
+
+    /**
+     * Prefijo de todas las operaciones si no se configura cómo obtenerlo
+     */
+    public static final String NO_PREFIX = "";
+
+    @Getter
+    private final String name;
+    private final List<StorageListener> listeners;
+    private final Function<PathFile, String> prefixResolver;
+
+    private InstrumentedStorage(Builder builder) {
+        super(builder.delegate);
+        this.name = builder.name != null ? builder.name : builder.delegate.getClass().getSimpleName();
+        this.listeners = List.copyOf(builder.listeners);
+        this.prefixResolver = builder.prefixResolver;
+    }
+
+    public static Builder builder(Storage delegate) {
+        return new Builder(delegate);
+    }
+
+    /**
+     * Primer segmento de la ruta del archivo, vacío para los archivos en la ruta raíz. Solo debe usarse como prefijo si
+     * los primeros segmentos de las rutas forman un conjunto pequeño y conocido.
+     */
+    public static String firstSegment(PathFile pathFile) {
+        var path = pathFile.getPath();
+        var slash = path.indexOf('/');
+        return slash == -1 ? path : path.substring(0, slash);
+    }
+
+    /**
+     * Los orígenes de tamaño desconocido se cuentan a medida que el almacen los consume
+     */
+    @Override
+    protected void internalStore(final ToStore toStore) throws IOException {
+        var source = toStore.getSource();
+        if (source.size() != ContentSource.UNKNOWN_SIZE) {
+            measure(StorageOperation.STORE, toStore, () -> {
+                super.internalStore(toStore);
+                return null;
+            }, ignored -> source.size());
+            return;
+        }
+
+        var counting = new CountingInputStream(source.openStream());
+        var counted = toStore.withSource(ContentSource.of(counting));
+        measure(StorageOperation.STORE, toStore, () -> {
+            super.internalStore(counted);
+            return null;
+        }, ignored -> counting.getCount());
+    }
+
+    @Override
+    protected Optional<Stored> internalDownload(final PathFile pathFile) throws IOException {
+        return measure(StorageOperation.DOWNLOAD, pathFile, () -> super.internalDownload(pathFile),
+                stored -> stored.map(found -> (long) found.getContent().length).orElse(0L));
+    }
+
+    /**
+     * Se registra el tiempo de apertura y los bytes del rango que se abre, no el tiempo de lectura del contenido
+     */
+    @Override
+    protected Optional<StoredStream> internalOpenStream(final PathFile pathFile) throws IOException {
+        return measure(StorageOperation.OPEN_STREAM, pathFile, () -> super.internalOpenStream(pathFile), InstrumentedStorage::openedBytes);
+    }
+
+    @Override
+    protected Optional<StoredStream> internalOpenStream(final PathFile pathFile, final ByteRange range) throws IOException {
+        return measure(StorageOperation.OPEN_STREAM, pathFile, () -> super.internalOpenStream(pathFile, range), InstrumentedStorage::openedBytes);
+    }
+
+    @Override
+    protected long internalTransferTo(final PathFile pathFile, final WritableByteChannel target) throws IOException {
+        return measure(StorageOperation.TRANSFER, pathFile, () -> super.internalTransferTo(pathFile, target), Long::longValue);
+    }
+
+    @Override
+    protected Optional<Stored.Info> internalInfo(final PathFile pathFile) throws IOException {
+        return measure(StorageOperation.INFO, pathFile, () -> super.internalInfo(pathFile), ignored -> StorageEvent.UNKNOWN_BYTES);
+    }
+
+    @Override
+    protected boolean internalExists(final PathFile pathFile) throws IOException {
+        return measure(StorageOperation.EXISTS, pathFile, () -> super.internalExists(pathFile), ignored -> StorageEvent.UNKNOWN_BYTES);
+    }
+
+    @Override
+    protected Set<String> internalExistsAll(final Collection<? extends PathFile> pathFiles) throws IOException {
+        return measure(StorageOperation.EXISTS_ALL, "", pathFiles.size(), () -> super.internalExistsAll(pathFiles), ignored -> StorageEvent.UNKNOWN_BYTES);
+    }
+
+    /**
+     * Se registra el tiempo de apertura del listado, no el de su recorrido
+     */
+    @Override
+    protected Stream<Stored.Info> internalList(final String path) throws IOException {
+        return measure(StorageOperation.LIST, "", 0, () -> super.internalList(path), ignored -> StorageEvent.UNKNOWN_BYTES);
+    }
+
+    @Override
+    protected void internalRemove(final PathFile pathFile) throws IOException {
+        measure(StorageOperation.REMOVE, pathFile, () -> {
+            super.internalRemove(pathFile);
+            return null;
+        }, ignored -> StorageEvent.UNKNOWN_BYTES);
+    }
+
+    @Override
+    protected void internalRemoveAll(final Collection<? extends PathFile> pathFiles) throws IOException {
+        measure(StorageOperation.REMOVE_ALL, "", pathFiles.size(), () -> {
+            super.internalRemoveAll(pathFiles);
+            return null;
+        }, ignored -> StorageEvent.UNKNOWN_BYTES);
+    }
+
+    @Override
+    public RemovalHandle batchExecution(StorageBatchOperation context) throws IOException {
+        var handle = measure(StorageOperation.BATCH, "", 0, () -> super.batchExecution(context), ignored -> StorageEvent.UNKNOWN_BYTES);
+        if (handle.total() == 0) return handle;
+
+        started(StorageOperation.BATCH_REMOVAL, "");
+        var start = System.nanoTime();
+        handle.completion().whenComplete((ignored, error) -> completed(new StorageEvent(
+                name, StorageOperation.BATCH_REMOVAL, "", System.nanoTime() - start,
+                StorageEvent.UNKNOWN_BYTES, handle.total(), handle.failed(), error
+        )));
+        return handle;
+    }
+
+    private <T> T measure(StorageOperation operation, PathFile pathFile, IOCallable<T> call, ToLongFunction<T> bytes) throws IOException {
+        return measure(operation, prefixResolver.apply(pathFile), 1, call, bytes);
+    }
+
+    private <T> T measure(StorageOperation operation, String prefix, int files, IOCallable<T> call, ToLongFunction<T> bytes) throws IOException {
+        started(operation, prefix);
+        var start = System.nanoTime();
+        try {
+            var result = call.call();
+            completed(new StorageEvent(name, operation, prefix, System.nanoTime() - start, bytes.applyAsLong(result), files, 0, null));
+            return result;
+        } catch (IOException | RuntimeException e) {
+            var failed = e instanceof PartialRemovalStorageException partial ? partial.getFailures().size() : files;
+            completed(new StorageEvent(name, operation, prefix, System.nanoTime() - start, StorageEvent.UNKNOWN_BYTES, files, failed, e));
+            throw e;
+        }
+    }
+
+    private void started(StorageOperation operation, String prefix) {
+        for (var listener : listeners) {
+            try {
+                listener.started(name, operation, prefix);
+            } catch (RuntimeException e) {
+                log.warn("Storage listener failed on start of {}", operation, e);
+            }
+        }
+    }
+
+    private void completed(StorageEvent event) {
+        for (var listener : listeners) {
+            try {
+                listener.completed(event);
+            } catch (RuntimeException e) {
+                log.warn("Storage listener failed on completion of {}", event.operation(), e);
+            }
+        }
+    }
+
+    private static long openedBytes(Optional<StoredStream> opened) {
+        return opened.map(stored -> stored.getRange().length()).orElse(0L);
+    }
+
+    public static final class Builder {
+
+        private final Storage delegate;
+        private final List<StorageListener> listeners = new ArrayList<>();
+        private Function<PathFile, String> prefixResolver = pathFile -> NO_PREFIX;
+        private String name;
+
+        private Builder(Storage delegate) {
+            this.delegate = Objects.requireNonNull(delegate, "Delegate storage is required");
+        }
+
+        /**
+         * @param name Nombre del almacen en los eventos, por defecto el nombre de la clase del almacen
+         */
+        public Builder name(String name) {
+            this.name = Objects.requireNonNull(name);
+            return this;
+        }
+
+        public Builder listener(StorageListener listener) {
+            listeners.add(Objects.requireNonNull(listener));
+            return this;
+        }
+
+        /**
+         * @param prefixResolver Función que obtiene el prefijo con el que se agrupan las operaciones de un archivo, por
+         *                       ejemplo {@link InstrumentedStorage#firstSegment(PathFile)}
+         */
+        public Builder prefix(Function<PathFile, String> prefixResolver) {
+            this.prefixResolver = Objects.requireNonNull(prefixResolver);
+            return this;
+        }
+
+        public InstrumentedStorage build() {
+            return new InstrumentedStorage(this);
+        }
+    }
+}
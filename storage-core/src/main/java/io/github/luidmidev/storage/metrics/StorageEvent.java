@@ -0,0 +1,32 @@
+package io.github.luidmidev.storage.metrics;
+
+/**
+ * Resultado de una operación de un almacen
+ *
+ * @param storage       Nombre del almacen
+ * @param operation     Operación ejecutada
+ * @param prefix        Prefijo de la ruta de los archivos, vacío si la operación involucra varias rutas
+ * @param durationNanos Duración de la operación en nanosegundos
+ * @param bytes         Bytes escritos o leídos, {@link #UNKNOWN_BYTES} si la operación no transfiere contenido o su
+ *                      tamaño no se conoce
+ * @param files         Cantidad de archivos involucrados
+ * @param failedFiles   Cantidad de archivos cuya operación falló
+ * @param error         Error lanzado por la operación, nulo si terminó correctamente
+ */
+public record StorageEvent(
+        String storage,
+        StorageOperation operation,
+        String prefix,
+        long durationNanos,
+        long bytes,
+        int files,
+        int failedFiles,
+        Throwable error
+) {
+
+    public static final long UNKNOWN_BYTES = -1;
+
+    public boolean succeeded() {
+        return error == null && failedFiles == 0;
+    }
+}
@@ -0,0 +1,25 @@
+package io.github.luidmidev.storage.metrics;
+
+/**
+ * Recibe las operaciones registradas por {@link InstrumentedStorage}. Los métodos se invocan en el hilo que ejecuta
+ * la operación, por lo que deben ser rápidos y seguros para hilos; los errores que lancen se registran y se ignoran.
+ */
+public interface StorageListener {
+
+    /**
+     * Se invoca antes de ejecutar una operación, permite llevar la cuenta de operaciones en curso
+     *
+     * @param storage   Nombre del almacen
+     * @param operation Operación que inicia
+     * @param prefix    Prefijo de la ruta de los archivos
+     */
+    default void started(String storage, StorageOperation operation, String prefix) {
+    }
+
+    /**
+     * Se invoca al terminar una operación, correctamente o con error
+     *
+     * @param event Resultado de la operación
+     */
+    void completed(StorageEvent event);
+}
@@ -0,0 +1,29 @@
+package io.github.luidmidev.storage.metrics;
+
+/**
+ * Operaciones de un almacen registradas por {@link InstrumentedStorage}
+ */
+public enum StorageOperation {
+    STORE,
+    DOWNLOAD,
+    OPEN_STREAM,
+    TRANSFER,
+    INFO,
+    EXISTS,
+    EXISTS_ALL,
+    /**
+     * Apertura de un listado, no el recorrido de sus archivos
+     */
+    LIST,
+    REMOVE,
+    REMOVE_ALL,
+    /**
+     * Parte síncrona de {@link io.github.luidmidev.storage.Storage#batchExecution}: la operación y los almacenamientos
+     */
+    BATCH,
+    /**
+     * Eliminaciones asíncronas de {@link io.github.luidmidev.storage.Storage#batchExecution}, desde que se envían
+     * hasta que terminan
+     */
+    BATCH_REMOVAL
+}
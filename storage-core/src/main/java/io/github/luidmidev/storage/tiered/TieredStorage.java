@@ -0,0 +1,554 @@
+package io.github.luidmidev.storage.tiered;
+
+import io.github.luidmidev.storage.*;
+import io.github.luidmidev.storage.exceptions.FileNotFoundStorageException;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Almacen de dos niveles: un nivel local de acceso rápido, normalmente un {@code DiskStorage}, delante de un nivel
+ * remoto que conserva todos los archivos. El nivel local debe usarse solo a través de este almacen.
+ * <p>
+ * Los archivos remotos se copian al nivel local al alcanzar {@link TieredStorageOptions#getPromoteAfterReads()}
+ * lecturas. Cuando el nivel local excede su presupuesto se desaloja, de cada muestra de {@value #EVICTION_SAMPLE}
+ * archivos, el que tiene menos lecturas y entre ellos el leído hace más tiempo; las lecturas de los archivos
+ * examinados se reducen a la mitad para que los archivos que dejaron de leerse puedan desalojarse. Los archivos que
+ * aún no se subieron al nivel remoto nunca se desalojan.
+ * <p>
+ * Los archivos almacenados se escriben primero en el nivel local y desde ahí se suben al remoto, por lo que el
+ * contenido se consume una sola vez aunque provenga de un flujo. En modo
+ * {@link TieredStorageOptions.WriteMode#WRITE_BACK} cada subida pendiente se marca con un archivo que contiene su
+ * ruta en el directorio {@value #PENDING_DIRECTORY} del nivel local, que se elimina al terminar la subida.
+ * <p>
+ * Al construirse el almacen recorre el nivel local para contar los archivos que ya contiene en su presupuesto y
+ * reanuda las subidas pendientes que dejó una ejecución anterior.
+ */
+@Slf4j
+public class TieredStorage extends ForwardingStorage implements AutoCloseable {
+
+    /**
+     * Directorio del nivel local con las marcas de las subidas pendientes, reservado por el almacen
+     */
+    public static final String PENDING_DIRECTORY = ".tiered-pending";
+
+    private static final int MAX_TRACKED_CANDIDATES = 10_000;
+    private static final int EVICTION_SAMPLE = 16;
+
+    private static final class HotEntry {
+        private final long size;
+        private final AtomicInteger frequency = new AtomicInteger();
+        private volatile long lastAccess;
+        /**
+         * Subida pendiente o fallida al nivel remoto, nula si el archivo ya está en el nivel remoto
+         */
+        private volatile CompletableFuture<Void> upload;
+
+        private HotEntry(long size, CompletableFuture<Void> upload) {
+            this.size = size;
+            this.upload = upload;
+            touch();
+        }
+
+        private void touch() {
+            frequency.incrementAndGet();
+            lastAccess = System.nanoTime();
+        }
+    }
+
+    @Getter
+    private final Storage hot;
+    private final TieredStorageOptions options;
+    private final Executor writeBackExecutor;
+    private final ExecutorService ownedExecutor;
+
+    private final ConcurrentHashMap<String, HotEntry> hotFiles = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, AtomicInteger> candidates = new ConcurrentHashMap<>();
+    private final Set<String> promoting = ConcurrentHashMap.newKeySet();
+    private final AtomicLong hotBytes = new AtomicLong();
+    private final AtomicLong promotions = new AtomicLong();
+    private final AtomicLong demotions = new AtomicLong();
+    /**
+     * Recorrido del índice que continúa entre muestras de desalojo, protegido por el monitor del almacen
+     */
+    private Iterator<Map.Entry<String, HotEntry>> evictionCursor;
+
+    /**
+     * @param hot     Nivel local
+     * @param remote  Nivel remoto
+     * @param options Opciones del almacen
+     * @throws UncheckedIOException Si no se pudo recorrer el nivel local
+     */
+    public TieredStorage(Storage hot, Storage remote, TieredStorageOptions options) {
+        super(remote);
+        if (options.getMaxHotBytes() <= 0) throw new IllegalArgumentException("Max hot bytes must be positive: " + options.getMaxHotBytes());
+        if (options.getPromoteAfterReads() <= 0) throw new IllegalArgumentException("Promote after reads must be positive: " + options.getPromoteAfterReads());
+        this.hot = Objects.requireNonNull(hot, "Hot storage is required");
+        this.options = options;
+        this.ownedExecutor = options.getWriteBackExecutor() == null ? Executors.newVirtualThreadPerTaskExecutor() : null;
+        this.writeBackExecutor = ownedExecutor != null ? ownedExecutor : options.getWriteBackExecutor();
+        try {
+            recover();
+        } catch (IOException e) {
+            if (ownedExecutor != null) ownedExecutor.close();
+            throw new UncheckedIOException("Could not recover the hot tier", e);
+        }
+    }
+
+    /**
+     * Indexa los archivos del nivel local y vuelve a subir los que tienen una marca de subida pendiente. Las marcas
+     * sin archivo se eliminan.
+     */
+    private void recover() throws IOException {
+        var sizes = new HashMap<String, Long>();
+        var pending = new HashSet<String>();
+        try (var files = hot.list()) {
+            files.forEach(info -> {
+                var path = info.getPath();
+                if (path.equals(PENDING_DIRECTORY) || path.startsWith(PENDING_DIRECTORY + "/")) {
+                    var original = path.substring(Math.min(path.length(), PENDING_DIRECTORY.length() + 1));
+                    pending.add(StorageUtils.factoryPathFile(original, info.getFilename()));
+                } else {
+                    var size = info.getFileSize();
+                    sizes.put(StorageUtils.factoryPathFile(path, info.getFilename()), size == null ? 0L : size);
+                }
+            });
+        }
+
+        for (var file : sizes.entrySet()) {
+            var key = file.getKey();
+            var upload = pending.remove(key) ? new CompletableFuture<Void>() : null;
+            var entry = new HotEntry(file.getValue(), upload);
+            hotFiles.put(key, entry);
+            hotBytes.addAndGet(file.getValue());
+            if (upload != null) writeBackExecutor.execute(() -> writeBack(PathFile.of(key), entry, upload));
+        }
+        for (var key : pending) removeHotQuietly(pendingMarker(key));
+        if (!hotFiles.isEmpty()) log.info("Recovered {} files in hot tier", hotFiles.size());
+        evictIfNeeded(null);
+    }
+
+    @Override
+    protected void internalStore(final ToStore toStore) throws IOException {
+        StorageAssertions.notReservedPath(toStore.getPath(), PENDING_DIRECTORY);
+        var key = toStore.getCompletePath();
+        if (!hotFiles.containsKey(key)) removeHotQuietly(key);
+        hot.store(toStore);
+
+        var size = toStore.getSource().size();
+        if (size == ContentSource.UNKNOWN_SIZE) size = hot.info(toStore).map(Stored.Info::getFileSize).orElse(0L);
+
+        if (options.getWriteMode() == TieredStorageOptions.WriteMode.WRITE_BACK) {
+            markPending(toStore);
+            var upload = new CompletableFuture<Void>();
+            var entry = index(key, size, upload);
+            writeBackExecutor.execute(() -> writeBack(PathFile.of(key), entry, upload));
+            return;
+        }
+
+        try {
+            upload(toStore);
+        } catch (IOException | RuntimeException e) {
+            removeHotQuietly(key);
+            throw e;
+        }
+        index(key, size, null);
+    }
+
+    @Override
+    protected Optional<Stored> internalDownload(final PathFile pathFile) throws IOException {
+        var key = pathFile.getCompletePath();
+        if (touch(key)) {
+            var local = hot.download(pathFile);
+            if (local.isPresent()) return local;
+        }
+
+        var remote = super.internalDownload(pathFile);
+        if (remote.isPresent() && remote.get().getContent().length > 0 && shouldPromote(key)) {
+            promote(pathFile, ContentSource.of(remote.get().getContent()), remote.get().getInfo());
+        }
+        return remote;
+    }
+
+    @Override
+    protected Optional<StoredStream> internalOpenStream(final PathFile pathFile) throws IOException {
+        var key = pathFile.getCompletePath();
+        if (touch(key) || promoteFromRemote(pathFile)) {
+            var local = hot.openStream(pathFile);
+            if (local.isPresent()) return local;
+        }
+        return super.internalOpenStream(pathFile);
+    }
+
+    @Override
+    protected Optional<StoredStream> internalOpenStream(final PathFile pathFile, final ByteRange range) throws IOException {
+        var key = pathFile.getCompletePath();
+        if (touch(key) || promoteFromRemote(pathFile)) {
+            var local = hot.openStream(pathFile, range.offset(), range.length());
+            if (local.isPresent()) return local;
+        }
+        return super.internalOpenStream(pathFile, range);
+    }
+
+    @Override
+    protected long internalTransferTo(final PathFile pathFile, final WritableByteChannel target) throws IOException {
+        var key = pathFile.getCompletePath();
+        if (touch(key) || promoteFromRemote(pathFile)) {
+            try {
+                return hot.transferTo(pathFile, target);
+            } catch (FileNotFoundStorageException e) {
+                log.debug("Hot copy of {} was evicted, reading from remote", key);
+            }
+        }
+        return super.internalTransferTo(pathFile, target);
+    }
+
+    @Override
+    protected Optional<Stored.Info> internalInfo(final PathFile pathFile) throws IOException {
+        var key = pathFile.getCompletePath();
+        if (hotFiles.containsKey(key)) {
+            var local = hot.info(pathFile);
+            if (local.isPresent()) return local;
+        }
+        return super.internalInfo(pathFile);
+    }
+
+    @Override
+    protected boolean internalExists(final PathFile pathFile) throws IOException {
+        return hotFiles.containsKey(pathFile.getCompletePath()) || super.internalExists(pathFile);
+    }
+
+    /**
+     * Los atributos deben conservarse en ambos niveles
+     */
+    @Override
+    public boolean supportsAttributes() {
+        return hot.supportsAttributes() && super.supportsAttributes();
+    }
+
+    @Override
+    protected Set<String> internalExistsAll(final Collection<? extends PathFile> pathFiles) throws IOException {
+        var existing = new HashSet<String>();
+        var remote = new ArrayList<PathFile>();
+        for (var pathFile : pathFiles) {
+            if (hotFiles.containsKey(pathFile.getCompletePath())) existing.add(pathFile.getCompletePath());
+            else remote.add(pathFile);
+        }
+        if (!remote.isEmpty()) existing.addAll(super.internalExistsAll(remote));
+        return existing;
+    }
+
+    /**
+     * Los archivos que aún no se subieron al nivel remoto se listan desde el nivel local
+     */
+    @Override
+    protected Stream<Stored.Info> internalList(final String path) throws IOException {
+        var pending = new HashSet<String>();
+        for (var file : hotFiles.entrySet()) {
+            if (file.getValue().upload != null && StorageUtils.isUnderPath(PathFile.of(file.getKey()).getPath(), path)) pending.add(file.getKey());
+        }
+        var remote = super.internalList(path)
+                .filter(info -> !pending.contains(StorageUtils.factoryPathFile(info.getPath(), info.getFilename())));
+        var local = pending.stream().flatMap(key -> {
+            try {
+                return hot.info(key).stream();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return Stream.concat(remote, local);
+    }
+
+    @Override
+    protected void internalRemove(final PathFile pathFile) throws IOException {
+        if (removeHot(pathFile.getCompletePath())) super.internalRemove(pathFile);
+    }
+
+    @Override
+    protected void internalRemoveAll(final Collection<? extends PathFile> pathFiles) throws IOException {
+        var remote = new ArrayList<PathFile>(pathFiles.size());
+        for (var pathFile : pathFiles) {
+            if (removeHot(pathFile.getCompletePath())) remote.add(pathFile);
+        }
+        if (!remote.isEmpty()) super.internalRemoveAll(remote);
+    }
+
+    /**
+     * Espera a que terminen las subidas pendientes y reintenta las que fallaron
+     *
+     * @throws IOException Si algún archivo no pudo subirse al nivel remoto
+     */
+    public void flush() throws IOException {
+        for (var file : Map.copyOf(hotFiles).entrySet()) {
+            var entry = file.getValue();
+            var upload = entry.upload;
+            if (upload == null || awaitUpload(upload)) continue;
+
+            upload(PathFile.of(file.getKey()));
+            removeHotQuietly(pendingMarker(file.getKey()));
+            entry.upload = null;
+        }
+        evictIfNeeded(null);
+    }
+
+    /**
+     * Sube los archivos pendientes y detiene el ejecutor de subidas si fue creado por el almacen
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            if (ownedExecutor != null) ownedExecutor.close();
+        }
+    }
+
+    public long hotBytes() {
+        return hotBytes.get();
+    }
+
+    public int hotFileCount() {
+        return hotFiles.size();
+    }
+
+    /**
+     * @return Cantidad total de archivos copiados al nivel local al leerlos
+     */
+    public long promotionCount() {
+        return promotions.get();
+    }
+
+    /**
+     * @return Cantidad total de archivos desalojados del nivel local
+     */
+    public long demotionCount() {
+        return demotions.get();
+    }
+
+    private boolean touch(String key) {
+        var entry = hotFiles.get(key);
+        if (entry == null) return false;
+        entry.touch();
+        return true;
+    }
+
+    private boolean shouldPromote(String key) {
+        var threshold = options.getPromoteAfterReads();
+        if (threshold == 1) return true;
+        if (candidates.size() > MAX_TRACKED_CANDIDATES) candidates.clear();
+        var reads = candidates.computeIfAbsent(key, ignored -> new AtomicInteger()).incrementAndGet();
+        if (reads < threshold) return false;
+        candidates.remove(key);
+        return true;
+    }
+
+    private boolean promoteFromRemote(PathFile pathFile) throws IOException {
+        if (!shouldPromote(pathFile.getCompletePath())) return false;
+        var opened = super.internalOpenStream(pathFile);
+        if (opened.isEmpty()) return false;
+        try (var stored = opened.get()) {
+            var size = stored.getInfo().getFileSize();
+            return promote(pathFile, ContentSource.of(stored.getInputStream(), size == null ? ContentSource.UNKNOWN_SIZE : size), stored.getInfo());
+        }
+    }
+
+    /**
+     * Copia un archivo remoto al nivel local, un error al copiar no afecta la lectura en curso
+     */
+    private boolean promote(PathFile pathFile, ContentSource content, Stored.Info info) {
+        var key = pathFile.getCompletePath();
+        var size = content.size();
+        if (size > options.getMaxHotBytes() || !promoting.add(key)) return false;
+        try {
+            removeHotQuietly(key);
+            hot.store(new ToStore(pathFile, content, info.getAttributes()));
+            if (size == ContentSource.UNKNOWN_SIZE) size = hot.info(pathFile).map(Stored.Info::getFileSize).orElse(0L);
+            index(key, size, null);
+            promotions.incrementAndGet();
+            log.debug("Promoted {} to hot tier", key);
+            return true;
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not promote {} to hot tier", key, e);
+            removeHotQuietly(key);
+            return false;
+        } finally {
+            promoting.remove(key);
+        }
+    }
+
+    private HotEntry index(String key, long size, CompletableFuture<Void> upload) {
+        var entry = new HotEntry(size, upload);
+        var previous = hotFiles.put(key, entry);
+        if (previous != null) hotBytes.addAndGet(-previous.size);
+        hotBytes.addAndGet(size);
+        evictIfNeeded(key);
+        return entry;
+    }
+
+    /**
+     * Desaloja archivos hasta volver al presupuesto del nivel local, sin desalojar el archivo recién indexado ni los
+     * archivos que aún no están en el nivel remoto. Las víctimas se eligen bajo el monitor y se eliminan del nivel
+     * local después de liberarlo.
+     */
+    private void evictIfNeeded(String inserted) {
+        var maxHotBytes = options.getMaxHotBytes();
+        if (hotBytes.get() <= maxHotBytes) return;
+
+        for (var key : selectVictims(inserted, maxHotBytes)) {
+            if (!hotFiles.containsKey(key)) removeHotQuietly(key);
+            demotions.incrementAndGet();
+            log.debug("Demoted {} from hot tier", key);
+        }
+    }
+
+    /**
+     * Retira del índice los archivos a desalojar
+     *
+     * @return Rutas de los archivos retirados, aún presentes en el nivel local
+     */
+    private synchronized List<String> selectVictims(String inserted, long maxHotBytes) {
+        var victims = new ArrayList<String>();
+        while (hotBytes.get() > maxHotBytes) {
+            var victim = sampleVictim(inserted);
+            if (victim == null) break;
+            if (!hotFiles.remove(victim.getKey(), victim.getValue())) continue;
+            hotBytes.addAndGet(-victim.getValue().size);
+            victims.add(victim.getKey());
+        }
+        return victims;
+    }
+
+    /**
+     * Examina hasta {@value #EVICTION_SAMPLE} archivos desalojables desde donde terminó la muestra anterior
+     *
+     * @return El archivo con menos lecturas de la muestra, nulo si no hay archivos desalojables
+     */
+    private Map.Entry<String, HotEntry> sampleVictim(String inserted) {
+        Map.Entry<String, HotEntry> victim = null;
+        var victimFrequency = 0;
+        var sampled = 0;
+        var restarted = false;
+        while (sampled < EVICTION_SAMPLE) {
+            if (evictionCursor == null || !evictionCursor.hasNext()) {
+                if (restarted) break;
+                evictionCursor = hotFiles.entrySet().iterator();
+                restarted = true;
+                continue;
+            }
+            var file = evictionCursor.next();
+            var entry = file.getValue();
+            if (file.getKey().equals(inserted) || entry.upload != null) continue;
+            sampled++;
+            var frequency = entry.frequency.getAndUpdate(current -> current >> 1);
+            if (victim == null || frequency < victimFrequency
+                    || frequency == victimFrequency && entry.lastAccess < victim.getValue().lastAccess) {
+                victim = file;
+                victimFrequency = frequency;
+            }
+        }
+        return victim;
+    }
+
+    /**
+     * Elimina un archivo del nivel local
+     *
+     * @return Si el archivo debe eliminarse también del nivel remoto, falso si su subida falló
+     */
+    private boolean removeHot(String key) {
+        var entry = hotFiles.remove(key);
+        if (entry == null) return true;
+        hotBytes.addAndGet(-entry.size);
+        var upload = entry.upload;
+        var uploaded = upload == null || awaitUpload(upload);
+        removeHotQuietly(key);
+        if (!uploaded) removeHotQuietly(pendingMarker(key));
+        return uploaded;
+    }
+
+    /**
+     * Marca la subida pendiente de un archivo del nivel local
+     *
+     * @throws IOException Si no se pudo marcar, en cuyo caso se elimina el archivo del nivel local
+     */
+    private void markPending(PathFile pathFile) throws IOException {
+        var marker = pendingMarker(pathFile.getCompletePath());
+        try {
+            removeHotQuietly(marker);
+            hot.store(new ToStore(PathFile.of(marker), ContentSource.of(pathFile.getCompletePath().getBytes(StandardCharsets.UTF_8))));
+        } catch (IOException | RuntimeException e) {
+            removeHotQuietly(pathFile.getCompletePath());
+            throw e;
+        }
+    }
+
+    private static String pendingMarker(String key) {
+        return PENDING_DIRECTORY + "/" + key;
+    }
+
+    private void writeBack(PathFile pathFile, HotEntry entry, CompletableFuture<Void> upload) {
+        var key = pathFile.getCompletePath();
+        try {
+            upload(pathFile);
+            removeHotQuietly(pendingMarker(pathFile.getCompletePath()));
+            entry.upload = null;
+            upload.complete(null);
+            evictIfNeeded(null);
+        } catch (IOException | RuntimeException e) {
+            log.error("Error uploading {} to remote tier", key, e);
+            upload.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Sube al nivel remoto el contenido del nivel local
+     */
+    private void upload(PathFile pathFile) throws IOException {
+        var local = hot.openStream(pathFile);
+        if (local.isEmpty()) throw new FileNotFoundStorageException(pathFile);
+        try (var stored = local.get()) {
+            var size = stored.getInfo().getFileSize();
+            var content = ContentSource.of(stored.getInputStream(), size == null ? ContentSource.UNKNOWN_SIZE : size);
+            super.internalStore(new ToStore(pathFile, content, stored.getInfo().getAttributes()));
+        }
+    }
+
+    private static boolean awaitUpload(CompletableFuture<Void> upload) {
+        try {
+            upload.join();
+            return true;
+        } catch (CompletionException e) {
+            return false;
+        }
+    }
+
+    private void removeHotQuietly(String key) {
+        try {
+            if (hot.exists(key)) hot.remove(key);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not remove {} from hot tier", key, e);
+        }
+    }
+}
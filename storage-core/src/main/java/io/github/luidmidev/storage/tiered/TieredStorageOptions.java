@@ -0,0 +1,49 @@
+package io.github.luidmidev.storage.tiered;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Opciones de configuración de un {@link TieredStorage}
+ */
+@Getter
+@Builder
+public class TieredStorageOptions {
+
+    /**
+     * Forma en que los archivos almacenados llegan al nivel remoto
+     */
+    public enum WriteMode {
+        /**
+         * El almacenamiento termina cuando el archivo está en ambos niveles
+         */
+        WRITE_THROUGH,
+        /**
+         * El almacenamiento termina cuando el archivo está en el nivel local y se sube al remoto en segundo plano. Las
+         * subidas pendientes se marcan en el nivel local y se reanudan al volver a construir el almacen, pero un archivo
+         * que aún no se subió se pierde si el nivel local se pierde.
+         */
+        WRITE_BACK
+    }
+
+    /**
+     * Cantidad máxima de bytes en el nivel local
+     */
+    private final long maxHotBytes;
+
+    @Builder.Default
+    private final WriteMode writeMode = WriteMode.WRITE_THROUGH;
+
+    /**
+     * Cantidad de lecturas de un archivo remoto necesarias para copiarlo al nivel local
+     */
+    @Builder.Default
+    private final int promoteAfterReads = 1;
+
+    /**
+     * Ejecutor de las subidas en modo {@link WriteMode#WRITE_BACK}, por defecto un hilo virtual por subida
+     */
+    private final Executor writeBackExecutor;
+}
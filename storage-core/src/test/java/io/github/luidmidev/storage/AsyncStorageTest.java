@@ -0,0 +1,92 @@
+package io.github.luidmidev.storage;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static io.github.luidmidev.storage.TestStorage.CONTENT;
+import static org.junit.jupiter.api.Assertions.*;
+
+class AsyncStorageTest {
+
+    /**
+     * Almacen cuyas descargas esperan a que se abra la compuerta
+     */
+    private static final class BlockingStorage extends TestStorage {
+
+        private final CountDownLatch gate = new CountDownLatch(1);
+        private final Semaphore entered = new Semaphore(0);
+        private final CountDownLatch interrupted = new CountDownLatch(1);
+        private final AtomicInteger running = new AtomicInteger();
+        private final AtomicInteger maxRunning = new AtomicInteger();
+
+        @Override
+        protected Optional<Stored> internalDownload(final PathFile pathFile) {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            entered.release();
+            try {
+                gate.await();
+                return super.internalDownload(pathFile);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Download interrupted", e);
+            } finally {
+                running.decrementAndGet();
+            }
+        }
+    }
+
+    private final BlockingStorage storage = new BlockingStorage();
+
+    @Test
+    void asyncFacade() {
+        try (var async = AsyncStorage.of(new TestStorage())) {
+            var fullPath = async.store(new ToStore("async", "file.txt", CONTENT)).join();
+
+            assertTrue(async.exists(fullPath).join());
+            assertArrayEquals(CONTENT, async.download(fullPath).join().orElseThrow().getContent());
+            async.remove(fullPath).join();
+            assertFalse(async.exists(fullPath).join());
+        }
+    }
+
+    @Test
+    void cancelInterruptsDownload() throws Exception {
+        try (var async = AsyncStorage.builder(storage).limit(AsyncStorage.Operation.DOWNLOAD, 1).build()) {
+            var fullPath = async.store(new ToStore("async", "file.txt", CONTENT)).join();
+
+            var cancelled = async.download(fullPath);
+            assertTrue(storage.entered.tryAcquire(10, TimeUnit.SECONDS));
+            assertTrue(cancelled.cancel(true));
+            assertTrue(storage.interrupted.await(10, TimeUnit.SECONDS));
+
+            storage.gate.countDown();
+            var next = async.download(fullPath);
+            assertArrayEquals(CONTENT, assertTimeoutPreemptively(Duration.ofSeconds(10), () -> next.join().orElseThrow().getContent()));
+        }
+    }
+
+    @Test
+    void limitConcurrentDownloads() throws Exception {
+        try (var async = AsyncStorage.builder(storage).limit(AsyncStorage.Operation.DOWNLOAD, 2).build()) {
+            var fullPath = async.store(new ToStore("async", "file.txt", CONTENT)).join();
+
+            var downloads = IntStream.range(0, 6).mapToObj(i -> async.download(fullPath)).toList();
+            assertTrue(storage.entered.tryAcquire(2, 10, TimeUnit.SECONDS));
+            assertFalse(storage.entered.tryAcquire(200, TimeUnit.MILLISECONDS));
+            assertEquals(2, storage.running.get());
+
+            storage.gate.countDown();
+            CompletableFuture.allOf(downloads.toArray(CompletableFuture[]::new)).get(10, TimeUnit.SECONDS);
+            assertEquals(2, storage.maxRunning.get());
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package io.github.luidmidev.storage;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContentTypeEngineTest {
+
+    private final ContentTypeEngine engine = new ContentTypeEngine();
+
+    @Test
+    void detectByExtension() {
+        assertEquals("text/csv", engine.detect("report.CSV"));
+        assertEquals(ContentTypeEngine.DEFAULT_CONTENT_TYPE, engine.detect("upload"));
+    }
+
+    @Test
+    void detectByContent() throws IOException {
+        var png = new byte[]{(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1a, '\n', 0, 0};
+        var content = new BufferedInputStream(new ByteArrayInputStream(png));
+
+        assertEquals("image/png", engine.detect("upload", content));
+        assertArrayEquals(png, content.readAllBytes());
+    }
+
+    @Test
+    void registerExtension() {
+        engine.register("custom", "application/x-custom");
+        assertEquals("application/x-custom", engine.detect("file.custom"));
+    }
+
+    @Test
+    void detectOnStore() throws IOException {
+        var storage = new TestStorage();
+        var fullPath = storage.store("{}".getBytes(), "info.json");
+        assertEquals("application/json", storage.info(fullPath).orElseThrow().getContentType());
+    }
+
+    @Test
+    void nameDetectorsAreNotMemoizedByExtension() {
+        var byExtension = engine.detect("notes.txt");
+
+        engine.register(new ContentTypeDetector() {
+            @Override
+            public String detect(String filename) {
+                return filename.startsWith("i_") ? "text/x-investigation" : null;
+            }
+        });
+
+        assertEquals("text/x-investigation", engine.detect("i_study.txt"));
+        assertEquals(byExtension, engine.detect("notes.txt"));
+        assertEquals(byExtension, engine.detect("other.txt"));
+    }
+}
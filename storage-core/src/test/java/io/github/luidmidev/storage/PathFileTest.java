@@ -0,0 +1,45 @@
+package io.github.luidmidev.storage;
+
+import io.github.luidmidev.storage.exceptions.InvalidFileNameStorageException;
+import io.github.luidmidev.storage.exceptions.InvalidPathStorageException;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static io.github.luidmidev.storage.TestStorage.CONTENT;
+import static org.junit.jupiter.api.Assertions.*;
+
+class PathFileTest {
+
+    @Test
+    void parseCompletePath() {
+        var pathFile = PathFile.of("/model/nested/file.txt");
+
+        assertEquals("model/nested", pathFile.getPath());
+        assertEquals("file.txt", pathFile.getFilename());
+        assertEquals("model/nested/file.txt", pathFile.getCompletePath());
+        assertEquals(new PathFile("model/nested/", "file.txt"), pathFile);
+    }
+
+    @Test
+    void storeByPathFile() throws IOException {
+        var pathFile = PathFile.of("model/nested/file.txt");
+        var storage = new TestStorage();
+        storage.store(new ToStore(pathFile, ContentSource.of(CONTENT)));
+
+        assertTrue(storage.exists(pathFile));
+        assertEquals(CONTENT.length, storage.info(pathFile).orElseThrow().getFileSize());
+    }
+
+    @Test
+    void rejectInvalidFilename() {
+        var invalidFilename = assertThrows(InvalidFileNameStorageException.class, () -> new PathFile("", "a:b*c:.txt"));
+        assertTrue(invalidFilename.getMessage().endsWith("The filename contains invalid characters: : *"));
+    }
+
+    @Test
+    void rejectInvalidPath() {
+        assertThrows(InvalidPathStorageException.class, () -> new PathFile("model//nested", "file.txt"));
+        assertThrows(InvalidPathStorageException.class, () -> new PathFile("model/nested./", "file.txt"));
+    }
+}
@@ -0,0 +1,57 @@
+package io.github.luidmidev.storage;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import static io.github.luidmidev.storage.TestStorage.CONTENT;
+import static org.junit.jupiter.api.Assertions.*;
+
+class PooledContentTest {
+
+    private final TestStorage storage = new TestStorage();
+    private final BufferPool pool = new BufferPool(8, 16);
+
+    @Test
+    void releaseBuffersOnClose() {
+        try (var content = PooledContent.allocate(pool)) {
+            content.append(ByteBuffer.wrap(CONTENT));
+            assertEquals(CONTENT.length, content.size());
+            assertArrayEquals(CONTENT, content.readAllBytes());
+        }
+        assertEquals(3, pool.pooledCount());
+    }
+
+    @Test
+    void storePooledContent() throws IOException {
+        try (var content = PooledContent.allocate(pool)) {
+            content.append(ByteBuffer.wrap(CONTENT));
+            storage.store(new ToStore("pooled", "file.txt", content));
+        }
+        assertArrayEquals(CONTENT, storage.files().get("pooled/file.txt"));
+    }
+
+    @Test
+    void downloadIntoPool() throws IOException {
+        storage.store(CONTENT, "file.txt", "pooled");
+
+        try (var pooled = storage.download("pooled/file.txt", pool).orElseThrow()) {
+            assertEquals(CONTENT.length, pooled.getContent().size());
+            assertArrayEquals(CONTENT, pooled.getContent().readAllBytes());
+        }
+        assertEquals(3, pool.pooledCount());
+    }
+
+    @Test
+    void reuseReleasedBuffers() throws IOException {
+        try (var content = PooledContent.allocate(pool)) {
+            content.append(ByteBuffer.wrap(CONTENT));
+            storage.store(new ToStore("pooled", "file.txt", content));
+        }
+        try (var pooled = storage.download("pooled/file.txt", pool).orElseThrow()) {
+            assertArrayEquals(CONTENT, pooled.getContent().readAllBytes());
+        }
+        assertEquals(3, pool.allocatedCount());
+    }
+}
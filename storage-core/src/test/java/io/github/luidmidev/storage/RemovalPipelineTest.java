@@ -0,0 +1,48 @@
+package io.github.luidmidev.storage;
+
+import io.github.luidmidev.storage.exceptions.FileNotFoundStorageException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static io.github.luidmidev.storage.TestStorage.CONTENT;
+import static org.junit.jupiter.api.Assertions.*;
+
+class RemovalPipelineTest {
+
+    private final TestStorage storage = new TestStorage();
+
+    @Test
+    void removeAfterStore() throws Exception {
+        var existing = storage.store(CONTENT, "batch-remove.txt");
+
+        var handle = storage.batchExecution(state -> {
+            state.store(CONTENT, "batch-new.txt", "batch");
+            state.remove(existing);
+        });
+        assertTrue(handle.await(Duration.ofSeconds(10)));
+
+        assertEquals(1, handle.total());
+        assertEquals(1, handle.removed());
+        assertEquals(0, handle.failed());
+        assertFalse(storage.exists(existing));
+        assertTrue(storage.exists("batch/batch-new.txt"));
+    }
+
+    @Test
+    void reportMissingFiles() throws Exception {
+        var existing = storage.store(CONTENT, "batch-remove.txt");
+
+        var handle = storage.batchExecution(state -> {
+            state.remove(existing);
+            state.remove("missing/batch.txt");
+        });
+        assertTrue(handle.await(Duration.ofSeconds(10)));
+
+        assertEquals(2, handle.total());
+        assertEquals(1, handle.removed());
+        assertEquals(1, handle.failed());
+        assertInstanceOf(FileNotFoundStorageException.class, handle.failures().get("missing/batch.txt"));
+        assertFalse(storage.exists(existing));
+    }
+}
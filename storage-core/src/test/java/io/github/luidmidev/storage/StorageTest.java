@@ -0,0 +1,132 @@
+package io.github.luidmidev.storage;
+
+import io.github.luidmidev.storage.exceptions.AlreadyFileExistsStorageException;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static io.github.luidmidev.storage.TestStorage.CONTENT;
+import static org.junit.jupiter.api.Assertions.*;
+
+class StorageTest {
+
+    private final TestStorage storage = new TestStorage();
+
+    @Test
+    void storeBatchInParallel() throws IOException {
+        storage.setParallelBatch(ParallelBatch.virtualThreads(4));
+        var toStores = IntStream.range(0, 10)
+                .mapToObj(i -> new ToStore("batch", "file-" + i + ".txt", CONTENT))
+                .toArray(ToStore[]::new);
+
+        storage.getTraking().start();
+        try {
+            storage.store(toStores);
+            assertEquals(10, storage.getTraking().getTracked().size());
+        } finally {
+            storage.getTraking().clear();
+        }
+        for (var toStore : toStores) assertTrue(storage.exists(toStore.getCompletePath()));
+    }
+
+    @Test
+    void storeBatchInParallelRollback() throws IOException {
+        storage.setParallelBatch(ParallelBatch.virtualThreads(4));
+        storage.store(CONTENT, "file-5.txt", "rollback");
+        var toStores = IntStream.range(0, 10)
+                .mapToObj(i -> new ToStore("rollback", "file-" + i + ".txt", CONTENT))
+                .toArray(ToStore[]::new);
+
+        assertThrows(AlreadyFileExistsStorageException.class, () -> storage.store(toStores));
+        for (var toStore : toStores) {
+            assertEquals(toStore.getFilename().equals("file-5.txt"), storage.exists(toStore.getCompletePath()));
+        }
+    }
+
+    @Test
+    void storeBatchInParallelRollbackOnInterrupt() throws Exception {
+        storage.setParallelBatch(ParallelBatch.virtualThreads(2));
+        var started = new CountDownLatch(2);
+        var release = new CountDownLatch(1);
+        storage.beforeStore(toStore -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                throw new InterruptedIOException();
+            }
+        });
+        var toStores = IntStream.range(0, 10)
+                .mapToObj(i -> new ToStore("interrupted", "file-" + i + ".txt", CONTENT))
+                .toArray(ToStore[]::new);
+
+        var caller = Thread.currentThread();
+        var interrupter = Thread.ofVirtual().start(() -> {
+            try {
+                started.await();
+            } catch (InterruptedException e) {
+                return;
+            }
+            caller.interrupt();
+            release.countDown();
+        });
+
+        try {
+            assertThrows(InterruptedIOException.class, () -> storage.store(toStores));
+            assertTrue(Thread.currentThread().isInterrupted());
+        } finally {
+            Thread.interrupted();
+            interrupter.join();
+        }
+        assertTrue(storage.files().isEmpty());
+    }
+
+    @Test
+    void storeBatchInParallelRollbackOnRejection() throws IOException {
+        var submitted = new AtomicInteger();
+        var running = new AtomicInteger();
+        Executor rejecting = command -> {
+            if (submitted.incrementAndGet() == 3) throw new RejectedExecutionException("Executor is saturated");
+            Thread.ofVirtual().start(command);
+        };
+        storage.setParallelBatch(ParallelBatch.of(rejecting, 4));
+        storage.beforeStore(toStore -> {
+            running.incrementAndGet();
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                throw new InterruptedIOException();
+            } finally {
+                running.decrementAndGet();
+            }
+        });
+        var toStores = IntStream.range(0, 10)
+                .mapToObj(i -> new ToStore("rejected", "file-" + i + ".txt", CONTENT))
+                .toArray(ToStore[]::new);
+
+        assertThrows(RejectedExecutionException.class, () -> storage.store(toStores));
+        assertEquals(0, running.get());
+        assertTrue(storage.files().isEmpty());
+    }
+
+    @Test
+    void storeBatchChecksExistenceOnce() throws IOException {
+        storage.store(IntStream.range(0, 20)
+                .mapToObj(i -> new ToStore("scan", "file-" + i + ".txt", CONTENT))
+                .toList());
+
+        var toStores = IntStream.range(15, 40)
+                .mapToObj(i -> new ToStore("scan", "file-" + i + ".txt", CONTENT))
+                .toArray(ToStore[]::new);
+
+        var exception = assertThrows(AlreadyFileExistsStorageException.class, () -> storage.store(toStores));
+        assertEquals("file-15.txt", exception.getFilename());
+        assertFalse(storage.exists("scan/file-39.txt"));
+    }
+}
@@ -0,0 +1,98 @@
+package io.github.luidmidev.storage;
+
+import io.github.luidmidev.storage.exceptions.AlreadyFileExistsStorageException;
+import io.github.luidmidev.storage.exceptions.FileNotFoundStorageException;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import static io.github.luidmidev.storage.StorageUtils.constructFileInfo;
+
+/**
+ * Almacen en memoria para las pruebas de los decoradores y del comportamiento común de {@link Storage}. Los archivos
+ * quedan expuestos en {@link #files()} para simular cambios hechos fuera del almacen.
+ */
+public class TestStorage extends Storage {
+
+    /**
+     * Contenido de los archivos almacenados en las pruebas
+     */
+    public static final byte[] CONTENT = "Hello from storage".getBytes(StandardCharsets.UTF_8);
+
+    private final ConcurrentHashMap<String, byte[]> files = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Map<String, String>> attributes = new ConcurrentHashMap<>();
+    private volatile ParallelBatch.Task<ToStore> beforeStore = toStore -> {
+    };
+
+    /**
+     * @return Contenido de los archivos almacenados por ruta completa
+     */
+    public ConcurrentHashMap<String, byte[]> files() {
+        return files;
+    }
+
+    /**
+     * @param beforeStore Operación ejecutada antes de almacenar cada archivo
+     */
+    public void beforeStore(ParallelBatch.Task<ToStore> beforeStore) {
+        this.beforeStore = beforeStore;
+    }
+
+    @Override
+    protected void internalStore(final ToStore toStore) throws IOException {
+        beforeStore.run(toStore);
+        byte[] content;
+        try (var in = toStore.getSource().openStream()) {
+            content = in.readAllBytes();
+        }
+        if (files.putIfAbsent(toStore.getCompletePath(), content) != null) throw new AlreadyFileExistsStorageException(toStore);
+        attributes.put(toStore.getCompletePath(), toStore.getAttributes());
+    }
+
+    @Override
+    protected Optional<Stored> internalDownload(final PathFile pathFile) {
+        var content = files.get(pathFile.getCompletePath());
+        if (content == null) return Optional.empty();
+        return Optional.of(Stored.builder().content(content.clone()).info(infoOf(pathFile, content)).build());
+    }
+
+    @Override
+    protected Optional<Stored.Info> internalInfo(final PathFile pathFile) {
+        var content = files.get(pathFile.getCompletePath());
+        if (content == null) return Optional.empty();
+        return Optional.of(infoOf(pathFile, content));
+    }
+
+    @Override
+    protected boolean internalExists(final PathFile pathFile) {
+        return files.containsKey(pathFile.getCompletePath());
+    }
+
+    @Override
+    protected Stream<Stored.Info> internalList(final String path) {
+        return files.entrySet().stream()
+                .map(file -> Map.entry(PathFile.of(file.getKey()), file.getValue()))
+                .filter(file -> StorageUtils.isUnderPath(file.getKey().getPath(), path))
+                .map(file -> infoOf(file.getKey(), file.getValue()));
+    }
+
+    @Override
+    public boolean supportsAttributes() {
+        return true;
+    }
+
+    @Override
+    protected void internalRemove(final PathFile pathFile) throws IOException {
+        if (files.remove(pathFile.getCompletePath()) == null) throw new FileNotFoundStorageException(pathFile);
+        attributes.remove(pathFile.getCompletePath());
+    }
+
+    private Stored.Info infoOf(PathFile pathFile, byte[] content) {
+        var stored = attributes.getOrDefault(pathFile.getCompletePath(), Map.of());
+        return constructFileInfo(pathFile.getFilename(), content.length, pathFile.getPath(), StorageUtils.guessContentType(pathFile.getFilename()), stored);
+    }
+}
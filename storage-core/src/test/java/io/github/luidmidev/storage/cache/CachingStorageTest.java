@@ -0,0 +1,48 @@
+package io.github.luidmidev.storage.cache;
+
+import io.github.luidmidev.storage.TestStorage;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import static io.github.luidmidev.storage.TestStorage.CONTENT;
+import static org.junit.jupiter.api.Assertions.*;
+
+class CachingStorageTest {
+
+    private final TestStorage backend = new TestStorage();
+    private final ContentCache cache = ContentCache.offHeap(1024);
+    private final CachingStorage caching = new CachingStorage(backend, cache);
+
+    @Test
+    void downloadFromCache() throws IOException {
+        var fullPath = caching.store(CONTENT, "cached.txt", "cache");
+
+        assertArrayEquals(CONTENT, caching.download(fullPath).orElseThrow().getContent());
+        backend.files().remove(fullPath);
+        assertArrayEquals(CONTENT, caching.download(fullPath).orElseThrow().getContent());
+        assertEquals(1, cache.missCount());
+    }
+
+    @Test
+    void rangeFromCache() throws IOException {
+        var fullPath = caching.store(CONTENT, "range.txt", "cache");
+        caching.download(fullPath);
+        backend.files().remove(fullPath);
+
+        assertArrayEquals(Arrays.copyOfRange(CONTENT, 6, 10), caching.download(fullPath, 6, 4).orElseThrow().getContent());
+        assertEquals(1, cache.missCount());
+    }
+
+    @Test
+    void invalidateOnRemove() throws IOException {
+        var fullPath = caching.store(CONTENT, "removed.txt", "cache");
+        caching.download(fullPath);
+        assertEquals(1, cache.size());
+
+        caching.remove(fullPath);
+        assertEquals(0, cache.size());
+        assertFalse(caching.exists(fullPath));
+    }
+}
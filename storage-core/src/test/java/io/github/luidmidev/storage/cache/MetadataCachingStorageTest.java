@@ -0,0 +1,50 @@
+package io.github.luidmidev.storage.cache;
+
+import io.github.luidmidev.storage.TestStorage;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import static io.github.luidmidev.storage.TestStorage.CONTENT;
+import static org.junit.jupiter.api.Assertions.*;
+
+class MetadataCachingStorageTest {
+
+    private final TestStorage backend = new TestStorage();
+    private final MetadataCache cache = new MetadataCache(16, Duration.ofMinutes(1), Duration.ofMinutes(1));
+    private final MetadataCachingStorage caching = new MetadataCachingStorage(backend, cache);
+
+    @Test
+    void cacheMissingFiles() throws IOException {
+        assertFalse(caching.exists("meta/file.txt"));
+        backend.files().put("meta/file.txt", CONTENT);
+        assertFalse(caching.exists("meta/file.txt"));
+    }
+
+    @Test
+    void invalidateMissingOnStore() throws IOException {
+        assertFalse(caching.exists("meta/file.txt"));
+
+        var fullPath = caching.store(CONTENT, "file.txt", "meta");
+        assertTrue(caching.exists(fullPath));
+    }
+
+    @Test
+    void infoFromCache() throws IOException {
+        var fullPath = caching.store(CONTENT, "file.txt", "meta");
+        assertEquals(CONTENT.length, caching.info(fullPath).orElseThrow().getFileSize());
+
+        backend.files().remove(fullPath);
+        assertTrue(caching.exists(fullPath));
+    }
+
+    @Test
+    void invalidateOnRemove() throws IOException {
+        var fullPath = caching.store(CONTENT, "file.txt", "meta");
+        caching.info(fullPath);
+
+        caching.remove(fullPath);
+        assertFalse(caching.exists(fullPath));
+    }
+}
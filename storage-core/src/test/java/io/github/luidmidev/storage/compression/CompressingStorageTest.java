@@ -0,0 +1,104 @@
+package io.github.luidmidev.storage.compression;
+
+import io.github.luidmidev.storage.ContentSource;
+import io.github.luidmidev.storage.PathFile;
+import io.github.luidmidev.storage.TestStorage;
+import io.github.luidmidev.storage.ToStore;
+import io.github.luidmidev.storage.dedup.DeduplicatingStorage;
+import io.github.luidmidev.storage.dedup.InMemoryDedupIndex;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.zip.InflaterInputStream;
+
+import static io.github.luidmidev.storage.TestStorage.CONTENT;
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompressingStorageTest {
+
+    private static final byte[] TEXT = "id,name\n1,storage\n".repeat(200).getBytes(StandardCharsets.UTF_8);
+
+    private final TestStorage backend = new TestStorage();
+    private final CompressingStorage compressing = new CompressingStorage(backend);
+
+    @Test
+    void compressByContentType() throws IOException {
+        var csv = compressing.store(new ByteArrayInputStream(TEXT), "data.csv", "compressed");
+        var image = compressing.store(CONTENT, "image.png", "compressed");
+
+        assertTrue(backend.files().get(csv).length < TEXT.length / 4);
+        assertArrayEquals(TEXT, new InflaterInputStream(new ByteArrayInputStream(backend.files().get(csv))).readAllBytes());
+        assertArrayEquals(CONTENT, backend.files().get(image));
+    }
+
+    @Test
+    void reportUncompressedSize() throws IOException {
+        var csv = compressing.store(new ByteArrayInputStream(TEXT), "data.csv", "compressed");
+        var sized = compressing.store(TEXT, "sized.csv", "compressed");
+        compressing.store(CONTENT, "image.png", "compressed");
+
+        assertEquals(Integer.toString(TEXT.length), backend.info(sized).orElseThrow().getAttributes().get(CompressingStorage.SIZE_ATTRIBUTE));
+        assertEquals(TEXT.length, compressing.info(csv).orElseThrow().getFileSize());
+        assertTrue(compressing.info(csv).orElseThrow().getAttributes().isEmpty());
+        try (var listed = compressing.list("compressed")) {
+            assertTrue(listed.allMatch(info -> info.getFileSize() == (info.getFilename().endsWith(".csv") ? TEXT.length : CONTENT.length)));
+        }
+    }
+
+    @Test
+    void readDecompressed() throws IOException {
+        var csv = compressing.store(new ByteArrayInputStream(TEXT), "data.csv", "compressed");
+        var sized = compressing.store(TEXT, "sized.csv", "compressed");
+
+        assertArrayEquals(TEXT, compressing.download(csv).orElseThrow().getContent());
+        assertArrayEquals(TEXT, compressing.download(sized).orElseThrow().getContent());
+        var out = new ByteArrayOutputStream();
+        assertEquals(TEXT.length, compressing.transferTo(csv, out));
+        assertArrayEquals(TEXT, out.toByteArray());
+    }
+
+    @Test
+    void readRanges() throws IOException {
+        var csv = compressing.store(new ByteArrayInputStream(TEXT), "data.csv", "compressed");
+        var image = compressing.store(CONTENT, "image.png", "compressed");
+
+        assertArrayEquals(Arrays.copyOfRange(TEXT, 1000, 1018), compressing.download(csv, 1000, 18).orElseThrow().getContent());
+        assertArrayEquals(Arrays.copyOfRange(CONTENT, 6, 10), compressing.download(image, 6, 4).orElseThrow().getContent());
+    }
+
+    @Test
+    void readUncompressedFiles() throws IOException {
+        var legacy = backend.store(TEXT, "legacy.csv", "compressed");
+        assertArrayEquals(TEXT, compressing.download(legacy).orElseThrow().getContent());
+
+        var magic = new byte[]{(byte) 0x89, 'S', 'T', 'Z', 1, 0, 0, 0, 0, 0, 0, 0, 0, 0};
+        var raw = backend.store(magic, "magic.csv", "compressed");
+        assertArrayEquals(magic, compressing.download(raw).orElseThrow().getContent());
+    }
+
+    @Test
+    void requiresAttributes() {
+        var dedup = new DeduplicatingStorage(new TestStorage(), new InMemoryDedupIndex());
+        assertThrows(IllegalArgumentException.class, () -> new CompressingStorage(dedup));
+        var attributed = new ToStore(PathFile.of("file.txt"), ContentSource.of(CONTENT), Map.of("owner", "storage"));
+        assertThrows(UnsupportedOperationException.class, () -> dedup.store(attributed));
+    }
+
+    @Test
+    void rejectsReservedAttributes() throws IOException {
+        var image = new ToStore(PathFile.of("compressed/image.png"), ContentSource.of(CONTENT), Map.of(CompressingStorage.CODEC_ATTRIBUTE, "1"));
+        var csv = new ToStore(PathFile.of("compressed/data.csv"), ContentSource.of(CONTENT), Map.of(CompressingStorage.SIZE_ATTRIBUTE, "1"));
+
+        assertThrows(IllegalArgumentException.class, () -> compressing.store(image));
+        assertThrows(IllegalArgumentException.class, () -> compressing.store(csv));
+        assertTrue(backend.files().isEmpty());
+
+        var owned = compressing.store(new ToStore(PathFile.of("compressed/owned.png"), ContentSource.of(CONTENT), Map.of("owner", "storage")));
+        assertEquals(Map.of("owner", "storage"), compressing.info(owned).orElseThrow().getAttributes());
+    }
+}
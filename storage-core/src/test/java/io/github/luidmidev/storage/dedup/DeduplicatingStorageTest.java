@@ -0,0 +1,82 @@
+package io.github.luidmidev.storage.dedup;
+
+import io.github.luidmidev.storage.TestStorage;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+
+import static io.github.luidmidev.storage.TestStorage.CONTENT;
+import static org.junit.jupiter.api.Assertions.*;
+
+class DeduplicatingStorageTest {
+
+    private final TestStorage backend = new TestStorage();
+
+    private final DeduplicatingStorage dedup = new DeduplicatingStorage(backend, new InMemoryDedupIndex());
+
+    @Test
+    void shareIdenticalContent() throws IOException {
+        dedup.store(CONTENT, "first.txt", "dedup");
+        var second = dedup.store(new ByteArrayInputStream(CONTENT), "second.txt", "other");
+
+        assertEquals(1, dedup.deduplicatedCount());
+        assertEquals(1, blobCount());
+        assertArrayEquals(CONTENT, dedup.download(second).orElseThrow().getContent());
+        assertEquals("second.txt", dedup.info(second).orElseThrow().getFilename());
+    }
+
+    @Test
+    void keepSharedBlobOnRemove() throws IOException {
+        var first = dedup.store(CONTENT, "first.txt", "dedup");
+        var second = dedup.store(CONTENT, "second.txt", "other");
+
+        dedup.remove(first);
+        assertFalse(dedup.exists(first));
+        assertArrayEquals(CONTENT, dedup.download(second).orElseThrow().getContent());
+        assertEquals(1, blobCount());
+    }
+
+    @Test
+    void removeUnreferencedBlob() throws IOException {
+        var first = dedup.store(CONTENT, "first.txt", "dedup");
+        var second = dedup.store(CONTENT, "second.txt", "other");
+
+        dedup.remove(first);
+        dedup.remove(second);
+        assertEquals(0, blobCount());
+    }
+
+    @Test
+    void listing() throws IOException {
+        dedup.store(CONTENT, "c.txt", "docs");
+        try (var listed = dedup.list()) {
+            assertEquals(List.of("docs/c.txt"), listed.map(info -> info.getPath() + "/" + info.getFilename()).toList());
+        }
+    }
+
+    @Test
+    void rebuildIndex() throws Exception {
+        var first = dedup.store(CONTENT, "first.txt", "");
+        var second = dedup.store(CONTENT, "second.txt", "docs/nested");
+        var removed = dedup.store(CONTENT, "removed.txt", "docs");
+        assertTrue(dedup.batchExecution(state -> state.remove(removed)).await(Duration.ofSeconds(10)));
+
+        var restarted = new DeduplicatingStorage(backend, new InMemoryDedupIndex());
+        assertEquals(2, restarted.rebuildIndex());
+        assertFalse(restarted.exists(removed));
+        assertArrayEquals(CONTENT, restarted.download(first).orElseThrow().getContent());
+        assertEquals(CONTENT.length, restarted.info(second).orElseThrow().getFileSize());
+
+        restarted.remove(first);
+        restarted.remove(second);
+        assertEquals(0, blobCount());
+        assertTrue(backend.files().isEmpty());
+    }
+
+    private long blobCount() {
+        return backend.files().keySet().stream().filter(key -> key.startsWith(DeduplicatingStorage.BLOB_ROOT + "/")).count();
+    }
+}
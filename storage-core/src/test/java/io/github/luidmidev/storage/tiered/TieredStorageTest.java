@@ -0,0 +1,123 @@
+package io.github.luidmidev.storage.tiered;
+
+import io.github.luidmidev.storage.TestStorage;
+import io.github.luidmidev.storage.exceptions.InvalidPathStorageException;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Set;
+
+import static io.github.luidmidev.storage.TestStorage.CONTENT;
+import static org.junit.jupiter.api.Assertions.*;
+
+class TieredStorageTest {
+
+    private final TestStorage hot = new TestStorage();
+    private final TestStorage remote = new TestStorage();
+
+    private TieredStorage tiered(long maxHotBytes) {
+        return new TieredStorage(hot, remote, TieredStorageOptions.builder()
+                .maxHotBytes(maxHotBytes)
+                .writeMode(TieredStorageOptions.WriteMode.WRITE_BACK)
+                .build());
+    }
+
+    @Test
+    void writeBackOnFlush() throws IOException {
+        try (var tiered = tiered(CONTENT.length * 2L)) {
+            var fullPath = tiered.store(CONTENT, "first.txt", "tiered");
+            tiered.flush();
+
+            assertArrayEquals(CONTENT, remote.download(fullPath).orElseThrow().getContent());
+            assertTrue(hot.exists(fullPath));
+        }
+    }
+
+    @Test
+    void demoteLeastRead() throws IOException {
+        try (var tiered = tiered(CONTENT.length * 2L)) {
+            var first = tiered.store(CONTENT, "first.txt", "tiered");
+            var second = tiered.store(CONTENT, "second.txt", "tiered");
+            tiered.flush();
+
+            tiered.download(first);
+            tiered.store(CONTENT, "third.txt", "tiered");
+            tiered.flush();
+
+            assertTrue(hot.exists(first));
+            assertFalse(hot.exists(second));
+            assertTrue(remote.exists(second));
+            assertEquals(1, tiered.demotionCount());
+        }
+    }
+
+    @Test
+    void demoteWithinBudget() throws IOException {
+        try (var tiered = tiered(CONTENT.length * 8L)) {
+            for (var i = 0; i < 100; i++) {
+                tiered.store(CONTENT, "file-" + i + ".txt", "tiered");
+                tiered.flush();
+            }
+
+            assertEquals(8, tiered.hotFileCount());
+            assertEquals(8, hot.files().size());
+            assertEquals(CONTENT.length * 8L, tiered.hotBytes());
+            assertEquals(92, tiered.demotionCount());
+        }
+    }
+
+    @Test
+    void promoteOnRead() throws IOException {
+        try (var tiered = tiered(CONTENT.length * 2L)) {
+            var fullPath = remote.store(CONTENT, "remote.txt", "tiered");
+
+            assertArrayEquals(CONTENT, tiered.download(fullPath).orElseThrow().getContent());
+            assertTrue(hot.exists(fullPath));
+            assertEquals(1, tiered.promotionCount());
+            assertEquals(CONTENT.length, tiered.hotBytes());
+        }
+    }
+
+    @Test
+    void removeFromBothTiers() throws IOException {
+        try (var tiered = tiered(CONTENT.length * 2L)) {
+            var fullPath = tiered.store(CONTENT, "removed.txt", "tiered");
+            tiered.flush();
+
+            tiered.remove(fullPath);
+            assertFalse(hot.exists(fullPath));
+            assertFalse(remote.exists(fullPath));
+            assertEquals(0, tiered.hotBytes());
+        }
+    }
+
+    @Test
+    void recoverHotTier() throws IOException {
+        var options = TieredStorageOptions.builder()
+                .maxHotBytes(CONTENT.length * 4L)
+                .writeMode(TieredStorageOptions.WriteMode.WRITE_BACK)
+                .build();
+
+        var crashed = new TieredStorage(hot, remote, options);
+        var uploaded = crashed.store(CONTENT, "uploaded.txt", "tiered");
+        crashed.flush();
+        remote.beforeStore(toStore -> {
+            throw new IOException("Remote tier is down");
+        });
+        var pending = crashed.store(CONTENT, "pending.txt", "tiered");
+        assertThrows(IOException.class, crashed::flush);
+        assertThrows(InvalidPathStorageException.class, () -> crashed.store(CONTENT, "file.txt", TieredStorage.PENDING_DIRECTORY));
+
+        remote.beforeStore(toStore -> {
+        });
+        try (var tiered = new TieredStorage(hot, remote, options)) {
+            assertEquals(2, tiered.hotFileCount());
+            assertEquals(CONTENT.length * 2L, tiered.hotBytes());
+            tiered.flush();
+
+            assertArrayEquals(CONTENT, remote.download(pending).orElseThrow().getContent());
+            assertTrue(remote.exists(uploaded));
+            assertEquals(Set.of(uploaded, pending), hot.files().keySet());
+        }
+    }
+}
@@ -0,0 +1,264 @@
+package io.github.luidmidev.storage.disk;
+
+import io.github.luidmidev.storage.ContentSource;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.Channels;
+import java.nio.channels.CompletionHandler;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.zip.Checksum;
+
+/**
+ * Operaciones de archivos con {@link AsynchronousFileChannel}. Las lecturas y escrituras se encadenan con manejadores
+ * de finalización, por lo que ningún hilo queda esperando al disco; las operaciones que solo existen de forma
+ * bloqueante, como abrir o publicar un archivo, se ejecutan en los hilos del ejecutor.
+ * <p>
+ * Las operaciones que exceden el límite de operaciones en curso esperan en una cola sin bloquear al hilo que las
+ * envía, y comienzan a medida que terminan las anteriores.
+ */
+@Slf4j
+final class AsyncDiskIO implements AutoCloseable {
+
+    @FunctionalInterface
+    interface IOCallable<T> {
+        T call() throws IOException;
+    }
+
+    /**
+     * @param channel Canal del archivo escrito, que debe cerrarse
+     * @param size    Cantidad de bytes escritos
+     */
+    record Written(AsynchronousFileChannel channel, long size) {
+    }
+
+    private static final int CHUNK_SIZE = 64 * 1024;
+    private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+
+    private final ExecutorService executor;
+    private final boolean ownsExecutor;
+    private final Semaphore permits;
+    private final ConcurrentLinkedQueue<Runnable> waiting = new ConcurrentLinkedQueue<>();
+
+    /**
+     * @param executor    Ejecutor de los canales y de las operaciones bloqueantes, si es nulo se crea uno propio
+     * @param threads     Cantidad de hilos del ejecutor propio
+     * @param maxInFlight Cantidad máxima de operaciones en curso
+     */
+    AsyncDiskIO(ExecutorService executor, int threads, int maxInFlight) {
+        if (threads <= 0) throw new IllegalArgumentException("Async I/O threads must be positive: " + threads);
+        if (maxInFlight <= 0) throw new IllegalArgumentException("Max async in-flight operations must be positive: " + maxInFlight);
+        this.ownsExecutor = executor == null;
+        this.executor = ownsExecutor ? Executors.newFixedThreadPool(threads, runnable -> {
+            var thread = new Thread(runnable, "disk-async-io-" + THREAD_COUNTER.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }) : executor;
+        this.permits = new Semaphore(maxInFlight);
+    }
+
+    /**
+     * Inicia la operación cuando hay lugar entre las operaciones en curso
+     *
+     * @param operation Inicia la operación y retorna su resultado
+     * @return Resultado de la operación
+     */
+    <T> CompletableFuture<T> submit(Supplier<CompletableFuture<T>> operation) {
+        var result = new CompletableFuture<T>();
+        waiting.add(() -> {
+            CompletableFuture<T> started;
+            try {
+                started = operation.get();
+            } catch (RuntimeException e) {
+                started = CompletableFuture.failedFuture(e);
+            }
+            started.whenComplete((value, error) -> {
+                permits.release();
+                startWaiting();
+                if (error == null) result.complete(value);
+                else result.completeExceptionally(error);
+            });
+        });
+        startWaiting();
+        return result;
+    }
+
+    /**
+     * Un hilo agrega a la cola antes de tomar un permiso y otro libera su permiso antes de revisar la cola, por lo que
+     * al menos uno de los dos inicia la operación en espera
+     */
+    private void startWaiting() {
+        while (!waiting.isEmpty() && permits.tryAcquire()) {
+            var next = waiting.poll();
+            if (next == null) {
+                permits.release();
+                continue;
+            }
+            next.run();
+        }
+    }
+
+    /**
+     * Ejecuta una operación bloqueante en el ejecutor
+     */
+    <T> CompletableFuture<T> supply(IOCallable<T> task) {
+        var result = new CompletableFuture<T>();
+        executor.execute(() -> {
+            try {
+                result.complete(task.call());
+            } catch (IOException | RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Lee el contenido completo de un archivo
+     *
+     * @param file    Archivo a leer
+     * @param maxSize Tamaño máximo del archivo
+     * @return Contenido del archivo
+     */
+    CompletableFuture<byte[]> read(Path file, long maxSize) {
+        return supply(() -> AsynchronousFileChannel.open(file, Set.of(StandardOpenOption.READ), executor))
+                .thenCompose(channel -> {
+                    var read = new CompletableFuture<byte[]>();
+                    try {
+                        var size = channel.size();
+                        if (size > maxSize) throw new IOException("File too large to read into memory (" + size + " bytes): " + file);
+                        var buffer = ByteBuffer.allocate((int) size);
+                        readFully(channel, buffer, read);
+                    } catch (IOException e) {
+                        read.completeExceptionally(e);
+                    }
+                    return read.whenComplete((content, error) -> closeQuietly(channel));
+                });
+    }
+
+    /**
+     * Abre un archivo y escribe el contenido. Los orígenes con el contenido en memoria se escriben directamente; el
+     * resto se lee en bloques en los hilos del ejecutor, y cada bloque se escribe mientras no se lee el siguiente.
+     *
+     * @param file     Archivo a escribir, debe existir
+     * @param source   Contenido a escribir
+     * @param checksum Checksum que se actualiza con el contenido escrito, puede ser nulo
+     * @return Archivo escrito; si la escritura falla el canal se cierra
+     */
+    CompletableFuture<Written> write(Path file, ContentSource source, Checksum checksum) {
+        return supply(() -> AsynchronousFileChannel.open(file, Set.of(StandardOpenOption.WRITE), executor))
+                .thenCompose(channel -> {
+                    var written = switch (source) {
+                        case ContentSource.Bytes(var content) -> write(channel, checksummed(ByteBuffer.wrap(content), checksum), 0);
+                        case ContentSource.Buffer(var content) -> write(channel, checksummed(content.duplicate(), checksum), 0);
+                        default -> supply(() -> Channels.newChannel(source.openStream()))
+                                .thenCompose(in -> transfer(channel, in, ByteBuffer.allocate(CHUNK_SIZE), checksum, 0)
+                                        .whenComplete((position, error) -> closeQuietly(in)));
+                    };
+                    return written.handle((position, error) -> {
+                        if (error == null) return new Written(channel, position);
+                        closeQuietly(channel);
+                        throw completion(error);
+                    });
+                });
+    }
+
+    private CompletableFuture<Long> transfer(AsynchronousFileChannel channel, ReadableByteChannel in, ByteBuffer chunk, Checksum checksum, long position) {
+        return supply(() -> {
+            chunk.clear();
+            var read = 0;
+            while (chunk.hasRemaining() && read != -1) read = in.read(chunk);
+            return checksummed(chunk.flip(), checksum).remaining();
+        }).thenCompose(filled -> filled == 0
+                ? CompletableFuture.completedFuture(position)
+                : write(channel, chunk, position).thenCompose(next -> transfer(channel, in, chunk, checksum, next)));
+    }
+
+    private static ByteBuffer checksummed(ByteBuffer buffer, Checksum checksum) {
+        if (checksum != null) checksum.update(buffer.duplicate());
+        return buffer;
+    }
+
+    /**
+     * @return Posición siguiente al contenido escrito
+     */
+    private static CompletableFuture<Long> write(AsynchronousFileChannel channel, ByteBuffer buffer, long position) {
+        var written = new CompletableFuture<Long>();
+        if (!buffer.hasRemaining()) return CompletableFuture.completedFuture(position);
+        channel.write(buffer, position, position, new CompletionHandler<>() {
+            @Override
+            public void completed(Integer count, Long start) {
+                var next = start + count;
+                if (buffer.hasRemaining()) channel.write(buffer, next, next, this);
+                else written.complete(next);
+            }
+
+            @Override
+            public void failed(Throwable error, Long start) {
+                written.completeExceptionally(error);
+            }
+        });
+        return written;
+    }
+
+    /**
+     * Si el archivo se acorta durante la lectura se entrega el contenido leído
+     */
+    private static void readFully(AsynchronousFileChannel channel, ByteBuffer buffer, CompletableFuture<byte[]> read) {
+        if (!buffer.hasRemaining()) {
+            read.complete(buffer.array());
+            return;
+        }
+        channel.read(buffer, 0, null, new CompletionHandler<>() {
+            @Override
+            public void completed(Integer count, Object attachment) {
+                if (count == -1) read.complete(Arrays.copyOf(buffer.array(), buffer.position()));
+                else if (!buffer.hasRemaining()) read.complete(buffer.array());
+                else channel.read(buffer, buffer.position(), null, this);
+            }
+
+            @Override
+            public void failed(Throwable error, Object attachment) {
+                read.completeExceptionally(error);
+            }
+        });
+    }
+
+    /**
+     * @return Error para relanzar dentro de una etapa de {@link CompletableFuture}, sin envolverlo dos veces
+     */
+    static CompletionException completion(Throwable error) {
+        return error instanceof CompletionException completion ? completion : new CompletionException(error);
+    }
+
+    static void closeQuietly(Closeable closeable) {
+        try {
+            closeable.close();
+        } catch (IOException e) {
+            log.debug("Error closing {}", closeable, e);
+        }
+    }
+
+    /**
+     * Detiene el ejecutor propio después de completar las operaciones en curso
+     */
+    @Override
+    public void close() {
+        if (ownsExecutor) executor.close();
+    }
+}
@@ -0,0 +1,122 @@
+package io.github.luidmidev.storage.disk;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.UserDefinedFileAttributeView;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Operaciones de archivos compartidas por el almacen en disco y sus migraciones
+ */
+@Slf4j
+final class DiskFiles {
+
+    private static final String ATTRIBUTE_PREFIX = "storage.";
+
+    private DiskFiles() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * Mueve un archivo de forma atómica sin reemplazar el destino. Un renombrado atómico reemplaza el destino en la
+     * mayoría de los sistemas, por lo que se crea un enlace duro, que falla si el destino existe, y luego se elimina el
+     * origen. En sistemas de archivos sin enlaces duros se verifica el destino antes de renombrar.
+     *
+     * @param source Archivo a mover
+     * @param target Destino, su directorio debe existir
+     * @throws FileAlreadyExistsException Si el destino ya existe
+     * @throws NoSuchFileException        Si el origen no existe
+     */
+    static void moveNoReplace(Path source, Path target) throws IOException {
+        try {
+            Files.createLink(target, source);
+        } catch (UnsupportedOperationException | FileSystemException e) {
+            if (e instanceof FileAlreadyExistsException || e instanceof NoSuchFileException) throw e;
+            if (Files.exists(target)) throw new FileAlreadyExistsException(target.toString());
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+            return;
+        }
+        Files.deleteIfExists(source);
+    }
+
+    /**
+     * Publica un archivo en su destino creando los directorios necesarios. Si una migración elimina el directorio
+     * recién creado, se crea de nuevo.
+     *
+     * @throws FileAlreadyExistsException Si el destino ya existe
+     */
+    static void publish(Path source, Path target) throws IOException {
+        Files.createDirectories(target.getParent());
+        try {
+            moveNoReplace(source, target);
+        } catch (NoSuchFileException e) {
+            if (!Files.exists(source)) throw e;
+            Files.createDirectories(target.getParent());
+            moveNoReplace(source, target);
+        }
+    }
+
+    /**
+     * @return Si el sistema de archivos del directorio admite atributos extendidos de usuario
+     */
+    static boolean supportsAttributes(Path directory) throws IOException {
+        return Files.getFileStore(directory).supportsFileAttributeView(UserDefinedFileAttributeView.class);
+    }
+
+    /**
+     * Guarda los atributos de un archivo como atributos extendidos de usuario con el prefijo
+     * {@value #ATTRIBUTE_PREFIX}. El sistema de archivos limita su tamaño, normalmente a unos pocos kilobytes.
+     */
+    static void writeAttributes(Path file, Map<String, String> attributes) throws IOException {
+        if (attributes.isEmpty()) return;
+        var view = Files.getFileAttributeView(file, UserDefinedFileAttributeView.class);
+        for (var attribute : attributes.entrySet()) {
+            view.write(ATTRIBUTE_PREFIX + attribute.getKey(), StandardCharsets.UTF_8.encode(attribute.getValue()));
+        }
+    }
+
+    /**
+     * @return Atributos del archivo guardados con {@link #writeAttributes(Path, Map)}
+     */
+    static Map<String, String> readAttributes(Path file) throws IOException {
+        var view = Files.getFileAttributeView(file, UserDefinedFileAttributeView.class);
+        Map<String, String> attributes = null;
+        for (var name : view.list()) {
+            if (!name.startsWith(ATTRIBUTE_PREFIX)) continue;
+            var value = ByteBuffer.allocate(view.size(name));
+            view.read(name, value);
+            if (attributes == null) attributes = new HashMap<>();
+            attributes.put(name.substring(ATTRIBUTE_PREFIX.length()), StandardCharsets.UTF_8.decode(value.flip()).toString());
+        }
+        return attributes == null ? Map.of() : Map.copyOf(attributes);
+    }
+
+    /**
+     * Persiste las entradas de un directorio, necesario para que un archivo recién publicado sobreviva a una caída.
+     * Algunos sistemas, como Windows, no permiten abrir directorios; en ellos se omite.
+     */
+    static void syncDirectory(Path directory) throws IOException {
+        FileChannel channel;
+        try {
+            channel = FileChannel.open(directory, StandardOpenOption.READ);
+        } catch (IOException | UnsupportedOperationException e) {
+            log.trace("Directory sync not supported for {}", directory, e);
+            return;
+        }
+        try (channel) {
+            channel.force(true);
+        }
+    }
+}
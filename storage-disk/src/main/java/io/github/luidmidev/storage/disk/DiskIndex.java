@@ -0,0 +1,376 @@
+package io.github.luidmidev.storage.disk;
+
+import io.github.luidmidev.storage.StorageUtils;
+import io.github.luidmidev.storage.Stored;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import static io.github.luidmidev.storage.StorageUtils.constructFileInfo;
+
+/**
+ * Índice persistente de los archivos de un {@link DiskStorage}, que permite responder {@code info}, {@code exists} y
+ * {@code list} desde memoria sin consultar el sistema de archivos.
+ * <p>
+ * Cada cambio se agrega a un registro y, cada cierta cantidad de cambios, el índice completo se escribe en una
+ * instantánea y el registro se vacía. Al abrirse se carga la instantánea y se aplican los cambios del registro. El
+ * registro no se sincroniza con el disco en cada cambio: solo se confía en él si el almacen se cerró correctamente, lo
+ * que se marca con un archivo al cerrar; si no, el índice se reconstruye recorriendo los archivos. Un bloqueo de
+ * archivo impide que dos almacenes usen el mismo índice.
+ * <p>
+ * Con el índice habilitado el directorio del almacen solo debe modificarse a través del almacen.
+ */
+@Slf4j
+public final class DiskIndex implements Closeable {
+
+    /**
+     * Archivo indexado
+     *
+     * @param path        Ruta del archivo
+     * @param filename    Nombre del archivo
+     * @param size        Tamaño del archivo
+     * @param contentType Tipo de contenido
+     * @param checksum    CRC32C del contenido, {@link #NO_CHECKSUM} si el archivo se indexó al recorrer el directorio
+     * @param storedAt    Fecha de almacenamiento en milisegundos desde la época
+     * @param attributes  Atributos guardados con el archivo
+     */
+    public record Entry(String path, String filename, long size, String contentType, long checksum, long storedAt,
+                        Map<String, String> attributes) {
+
+        public String completePath() {
+            return StorageUtils.factoryPathFile(path, filename);
+        }
+
+        public Stored.Info info() {
+            return constructFileInfo(filename, size, path, contentType, attributes);
+        }
+    }
+
+    /**
+     * Recorre los archivos del almacen para reconstruir el índice
+     */
+    @FunctionalInterface
+    interface Scanner {
+        Stream<Entry> scan() throws IOException;
+    }
+
+    public static final long NO_CHECKSUM = -1;
+
+    private static final int MAGIC = 0x44534958;
+    private static final byte VERSION = 2;
+    private static final byte PUT = 1;
+    private static final byte REMOVE = 2;
+    private static final String SNAPSHOT_FILE = "snapshot";
+    private static final String LOG_FILE = "log";
+    private static final String LOCK_FILE = "lock";
+    private static final String CLEAN_FILE = "clean";
+    private static final Set<String> FILES = Set.of(SNAPSHOT_FILE, SNAPSHOT_FILE + ".tmp", LOG_FILE, LOCK_FILE, CLEAN_FILE);
+
+    private final Path directory;
+    private final int snapshotInterval;
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final FileChannel lockChannel;
+    private final FileLock lock;
+
+    private FileChannel logChannel;
+    private DataOutputStream logStream;
+    private int changes;
+    private boolean closed;
+
+    private DiskIndex(Path directory, int snapshotInterval, FileChannel lockChannel, FileLock lock) {
+        this.directory = directory;
+        this.snapshotInterval = snapshotInterval;
+        this.lockChannel = lockChannel;
+        this.lock = lock;
+    }
+
+    /**
+     * @return Si el nombre corresponde a uno de los archivos que el índice guarda en su directorio
+     */
+    static boolean isIndexFile(String name) {
+        return FILES.contains(name);
+    }
+
+    /**
+     * Abre el índice de un almacen, cargándolo si el almacen se cerró correctamente o reconstruyéndolo en otro caso
+     *
+     * @param directory        Directorio del índice
+     * @param snapshotInterval Cantidad de cambios tras la cual se escribe una instantánea
+     * @param scanner          Recorre los archivos del almacen
+     * @throws IllegalStateException Si otro almacen usa el índice
+     */
+    static DiskIndex open(Path directory, int snapshotInterval, Scanner scanner) throws IOException {
+        if (snapshotInterval <= 0) throw new IllegalArgumentException("Index snapshot interval must be positive: " + snapshotInterval);
+        Files.createDirectories(directory);
+
+        var lockChannel = FileChannel.open(directory.resolve(LOCK_FILE), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        FileLock lock;
+        try {
+            lock = lockChannel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            lock = null;
+        }
+        if (lock == null) {
+            lockChannel.close();
+            throw new IllegalStateException("Index " + directory + " is in use by another storage");
+        }
+
+        var index = new DiskIndex(directory, snapshotInterval, lockChannel, lock);
+        try {
+            index.load(scanner);
+        } catch (IOException | RuntimeException e) {
+            index.release();
+            throw e;
+        }
+        return index;
+    }
+
+    private void load(Scanner scanner) throws IOException {
+        var clean = directory.resolve(CLEAN_FILE);
+        var loaded = false;
+        if (Files.exists(clean)) {
+            try {
+                readSnapshot();
+                replayLog();
+                loaded = true;
+                log.debug("Loaded index {} with {} files", directory, entries.size());
+            } catch (IOException | RuntimeException e) {
+                log.warn("Index {} is corrupted, rebuilding it", directory, e);
+                entries.clear();
+            }
+            // A partir de aquí el registro deja de ser confiable hasta el próximo cierre correcto
+            Files.delete(clean);
+            DiskFiles.syncDirectory(directory);
+        }
+
+        if (!loaded) {
+            try (var scanned = scanner.scan()) {
+                scanned.forEach(entry -> entries.put(entry.completePath(), entry));
+            }
+            log.info("Rebuilt index {} with {} files", directory, entries.size());
+        }
+
+        openLog(loaded);
+        if (!loaded) snapshot();
+    }
+
+    /**
+     * @param completePath Ruta completa del archivo
+     * @return Archivo indexado, vacío si no existe
+     */
+    public Optional<Entry> find(String completePath) {
+        return Optional.ofNullable(entries.get(completePath));
+    }
+
+    public boolean contains(String completePath) {
+        return entries.containsKey(completePath);
+    }
+
+    /**
+     * @return Cantidad de archivos indexados
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * @param path Ruta normalizada, vacía para todos los archivos
+     * @return Archivos bajo la ruta, incluidas sus subrutas
+     */
+    Stream<Entry> list(String path) {
+        return entries.values().stream().filter(entry -> StorageUtils.isUnderPath(entry.path(), path));
+    }
+
+    synchronized void put(Entry entry) throws IOException {
+        ensureOpen();
+        entries.put(entry.completePath(), entry);
+        logStream.writeByte(PUT);
+        writeEntry(logStream, entry);
+        changed();
+    }
+
+    synchronized void remove(String completePath) throws IOException {
+        ensureOpen();
+        if (entries.remove(completePath) == null) return;
+        logStream.writeByte(REMOVE);
+        logStream.writeUTF(completePath);
+        changed();
+    }
+
+    private void changed() throws IOException {
+        if (++changes >= snapshotInterval) snapshot();
+    }
+
+    /**
+     * Escribe el índice completo en una instantánea que reemplaza a la anterior de forma atómica y vacía el registro.
+     * Los cambios esperan a que termine, las consultas no.
+     */
+    private void snapshot() throws IOException {
+        var temp = directory.resolve(SNAPSHOT_FILE + ".tmp");
+        var snapshot = entries.values().toArray(Entry[]::new);
+        try (var channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            var out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+            writeHeader(out);
+            out.writeInt(snapshot.length);
+            for (var entry : snapshot) writeEntry(out, entry);
+            out.flush();
+            channel.force(true);
+        }
+        Files.move(temp, directory.resolve(SNAPSHOT_FILE), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        logStream.flush();
+        logChannel.truncate(0);
+        writeHeader(logStream);
+        changes = 0;
+        log.debug("Wrote snapshot of index {} with {} files", directory, snapshot.length);
+    }
+
+    /**
+     * Persiste el registro y marca el índice como cerrado correctamente
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) return;
+        closed = true;
+        try {
+            logStream.flush();
+            logChannel.force(true);
+            logChannel.close();
+            Files.createFile(directory.resolve(CLEAN_FILE));
+            DiskFiles.syncDirectory(directory);
+        } finally {
+            release();
+        }
+    }
+
+    private void release() throws IOException {
+        try {
+            if (lock.isValid()) lock.release();
+        } finally {
+            lockChannel.close();
+        }
+    }
+
+    /**
+     * Se verifica antes de modificar el disco, para no dejar archivos fuera del índice
+     *
+     * @throws IllegalStateException Si el índice está cerrado
+     */
+    void ensureOpen() {
+        if (closed) throw new IllegalStateException("Index " + directory + " is closed");
+    }
+
+    private void openLog(boolean keep) throws IOException {
+        var file = directory.resolve(LOG_FILE);
+        logChannel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        if (!keep) logChannel.truncate(0);
+        logStream = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(logChannel)));
+        if (logChannel.size() == 0) writeHeader(logStream);
+    }
+
+    private void readSnapshot() throws IOException {
+        var file = directory.resolve(SNAPSHOT_FILE);
+        if (!Files.exists(file)) return;
+        try (var in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            readHeader(in, file);
+            var count = in.readInt();
+            var canonical = new HashMap<String, String>();
+            for (var i = 0; i < count; i++) {
+                var entry = readEntry(in, canonical);
+                entries.put(entry.completePath(), entry);
+            }
+        }
+    }
+
+    private void replayLog() throws IOException {
+        var file = directory.resolve(LOG_FILE);
+        try (var in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (Files.size(file) == 0) return;
+            readHeader(in, file);
+            var canonical = new HashMap<String, String>();
+            while (true) {
+                int operation;
+                try {
+                    operation = in.readByte();
+                } catch (EOFException e) {
+                    return;
+                }
+                switch (operation) {
+                    case PUT -> {
+                        var entry = readEntry(in, canonical);
+                        entries.put(entry.completePath(), entry);
+                    }
+                    case REMOVE -> entries.remove(in.readUTF());
+                    default -> throw new IOException("Unknown index operation " + operation + " in " + file);
+                }
+                changes++;
+            }
+        } catch (NoSuchFileException e) {
+            log.debug("Index {} has no log", directory);
+        }
+    }
+
+    private static void writeHeader(DataOutputStream out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+    }
+
+    private static void readHeader(DataInputStream in, Path file) throws IOException {
+        if (in.readInt() != MAGIC) throw new IOException("Not an index file: " + file);
+        var version = in.readByte();
+        if (version != VERSION) throw new IOException("Unsupported index version " + version + " in " + file);
+    }
+
+    private static void writeEntry(DataOutputStream out, Entry entry) throws IOException {
+        out.writeUTF(entry.path());
+        out.writeUTF(entry.filename());
+        out.writeLong(entry.size());
+        out.writeUTF(entry.contentType());
+        out.writeLong(entry.checksum());
+        out.writeLong(entry.storedAt());
+        out.writeShort(entry.attributes().size());
+        for (var attribute : entry.attributes().entrySet()) {
+            out.writeUTF(attribute.getKey());
+            out.writeUTF(attribute.getValue());
+        }
+    }
+
+    /**
+     * Las rutas y los tipos de contenido se repiten entre muchos archivos, se conserva una sola instancia de cada uno
+     */
+    private static Entry readEntry(DataInputStream in, HashMap<String, String> canonical) throws IOException {
+        var path = canonical.computeIfAbsent(in.readUTF(), value -> value);
+        var filename = in.readUTF();
+        var size = in.readLong();
+        var contentType = canonical.computeIfAbsent(in.readUTF(), value -> value);
+        var checksum = in.readLong();
+        var storedAt = in.readLong();
+        var count = in.readUnsignedShort();
+        if (count == 0) return new Entry(path, filename, size, contentType, checksum, storedAt, Map.of());
+
+        var attributes = new HashMap<String, String>();
+        for (var i = 0; i < count; i++) attributes.put(canonical.computeIfAbsent(in.readUTF(), value -> value), in.readUTF());
+        return new Entry(path, filename, size, contentType, checksum, storedAt, Map.copyOf(attributes));
+    }
+}
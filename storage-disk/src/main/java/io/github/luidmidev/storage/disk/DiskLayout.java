@@ -0,0 +1,180 @@
+package io.github.luidmidev.storage.disk;
+
+import io.github.luidmidev.storage.PathFile;
+
+import java.nio.file.Path;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Distribución de los archivos de un {@link DiskStorage} en directorios. Las rutas lógicas de los archivos no cambian
+ * con la distribución, solo su ubicación en disco.
+ */
+public sealed interface DiskLayout permits DiskLayout.Direct, DiskLayout.Sharded {
+
+    /**
+     * Directorio reservado bajo la raíz del almacen para los archivos de la distribución fragmentada
+     */
+    String SHARDS_DIRECTORY = ".shards";
+
+    /**
+     * Directorio reservado bajo la raíz del almacen para los archivos que aún se están escribiendo
+     */
+    String TEMP_DIRECTORY = ".tmp";
+
+    /**
+     * Directorio reservado bajo la raíz del almacen para el índice persistente de los archivos
+     */
+    String INDEX_DIRECTORY = ".index";
+
+    /**
+     * @param root     Raíz del almacen
+     * @param pathFile Ruta lógica del archivo
+     * @return Ubicación del archivo en disco
+     */
+    Path resolve(Path root, PathFile pathFile);
+
+    /**
+     * Obtiene la ruta lógica de un archivo en disco, se usa para recorrer y migrar los archivos de una distribución
+     *
+     * @param root Raíz del almacen
+     * @param file Archivo bajo la raíz
+     * @return Ruta lógica, vacío si el archivo no pertenece a esta distribución
+     */
+    Optional<PathFile> logical(Path root, Path file);
+
+    /**
+     * @param root Raíz del almacen
+     * @param path Ruta lógica normalizada, vacía para la raíz
+     * @return Directorio que contiene todos los archivos de la distribución bajo la ruta lógica
+     */
+    Path directoryOf(Path root, String path);
+
+    /**
+     * @return Distribución en la que la ruta lógica es la ruta en disco
+     */
+    static DiskLayout direct() {
+        return Direct.INSTANCE;
+    }
+
+    /**
+     * Distribución que reparte los archivos en {@code 256^levels} directorios según el hash de su ruta completa, bajo
+     * {@value #SHARDS_DIRECTORY}. Dentro de cada fragmento se conserva la ruta lógica, así ningún directorio acumula
+     * todos los archivos de una misma ruta.
+     *
+     * @param levels Niveles de directorios, de 1 a 4
+     * @return Distribución fragmentada
+     */
+    static DiskLayout sharded(int levels) {
+        return new Sharded(levels);
+    }
+
+    final class Direct implements DiskLayout {
+
+        private static final Direct INSTANCE = new Direct();
+
+        private Direct() {
+        }
+
+        @Override
+        public Path resolve(Path root, PathFile pathFile) {
+            return root.resolve(pathFile.getCompletePath());
+        }
+
+        @Override
+        public Optional<PathFile> logical(Path root, Path file) {
+            var relative = root.relativize(file);
+            if (relative.getNameCount() == 0) return Optional.empty();
+            var first = relative.getName(0).toString();
+            if (first.equals(SHARDS_DIRECTORY) || first.equals(TEMP_DIRECTORY) || first.equals(INDEX_DIRECTORY)) return Optional.empty();
+            return DiskLayout.logicalOf(relative, 0);
+        }
+
+        @Override
+        public Path directoryOf(Path root, String path) {
+            return path.isEmpty() ? root : root.resolve(path);
+        }
+
+        @Override
+        public String toString() {
+            return "direct";
+        }
+    }
+
+    record Sharded(int levels) implements DiskLayout {
+
+        private static final String[] HEX = new String[256];
+
+        static {
+            for (var i = 0; i < HEX.length; i++) HEX[i] = String.format("%02x", i);
+        }
+
+        public Sharded {
+            if (levels < 1 || levels > 4) throw new IllegalArgumentException("Shard levels must be between 1 and 4: " + levels);
+        }
+
+        /**
+         * @return Si el nombre corresponde a un directorio de fragmento, dos dígitos hexadecimales en minúsculas
+         */
+        static boolean isShardName(String name) {
+            return name.length() == 2 && HexFormat.isHexDigit(name.charAt(0)) && HexFormat.isHexDigit(name.charAt(1))
+                    && name.equals(name.toLowerCase(Locale.ROOT));
+        }
+
+        @Override
+        public Path resolve(Path root, PathFile pathFile) {
+            var completePath = pathFile.getCompletePath();
+            var hash = hash(completePath);
+            var directory = root.resolve(SHARDS_DIRECTORY);
+            for (var level = 0; level < levels; level++) {
+                directory = directory.resolve(HEX[(hash >>> (level * 8)) & 0xFF]);
+            }
+            return directory.resolve(completePath);
+        }
+
+        @Override
+        public Optional<PathFile> logical(Path root, Path file) {
+            var relative = root.relativize(file);
+            if (relative.getNameCount() <= levels + 1 || !relative.getName(0).toString().equals(SHARDS_DIRECTORY)) return Optional.empty();
+            return DiskLayout.logicalOf(relative, levels + 1);
+        }
+
+        /**
+         * Los archivos de una ruta se reparten entre todos los fragmentos
+         */
+        @Override
+        public Path directoryOf(Path root, String path) {
+            return root.resolve(SHARDS_DIRECTORY);
+        }
+
+        /**
+         * FNV-1a de 32 bits con una mezcla final, estable entre ejecuciones y plataformas
+         */
+        private static int hash(String value) {
+            var hash = 0x811c9dc5;
+            for (var i = 0; i < value.length(); i++) {
+                hash ^= value.charAt(i);
+                hash *= 0x01000193;
+            }
+            hash ^= hash >>> 16;
+            hash *= 0x85ebca6b;
+            hash ^= hash >>> 13;
+            return hash;
+        }
+    }
+
+    private static Optional<PathFile> logicalOf(Path relative, int skip) {
+        var count = relative.getNameCount();
+        var path = new StringBuilder();
+        for (var i = skip; i < count - 1; i++) {
+            if (!path.isEmpty()) path.append('/');
+            path.append(relative.getName(i));
+        }
+        try {
+            return Optional.of(new PathFile(path.toString(), relative.getName(count - 1).toString()));
+        } catch (RuntimeException e) {
+            return Optional.empty();
+        }
+    }
+}
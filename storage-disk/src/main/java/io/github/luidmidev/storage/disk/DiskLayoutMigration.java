@@ -0,0 +1,134 @@
+package io.github.luidmidev.storage.disk;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Comparator;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Mueve los archivos de un directorio de una {@link DiskLayout} a otra. Cada archivo se mueve con un renombrado
+ * atómico dentro del mismo sistema de archivos, por lo que la migración puede interrumpirse y reanudarse, y puede
+ * ejecutarse con el almacen en uso si este se configuró con la distribución anterior como
+ * {@link DiskStorageOptions#getLegacyLayout() distribución heredada}.
+ */
+@Slf4j
+public final class DiskLayoutMigration {
+
+    private DiskLayoutMigration() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * Recorre solo el directorio de la distribución de origen, sin entrar en los directorios reservados, y mueve cada
+     * archivo al encontrarlo sin acumular la lista de archivos en memoria
+     *
+     * @param root Raíz del almacen
+     * @param from Distribución actual de los archivos
+     * @param to   Distribución de destino
+     * @return Cantidad de archivos movidos
+     * @throws IOException Si ocurre un error al recorrer o mover los archivos
+     */
+    public static long migrate(Path root, DiskLayout from, DiskLayout to) throws IOException {
+        if (from.equals(to)) return 0;
+
+        var source = from.directoryOf(root, "");
+        if (!Files.isDirectory(source)) return 0;
+
+        var reserved = Set.of(
+                root.resolve(DiskLayout.SHARDS_DIRECTORY),
+                root.resolve(DiskLayout.TEMP_DIRECTORY),
+                root.resolve(DiskLayout.INDEX_DIRECTORY)
+        );
+        var moved = new AtomicLong();
+        Files.walkFileTree(source, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path directory, BasicFileAttributes attributes) {
+                return !directory.equals(source) && reserved.contains(directory) ? FileVisitResult.SKIP_SUBTREE : FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) throws IOException {
+                if (attributes.isRegularFile() && migrate(root, file, from, to)) moved.incrementAndGet();
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException e) throws IOException {
+                if (e instanceof NoSuchFileException) return FileVisitResult.CONTINUE;
+                throw e;
+            }
+        });
+
+        removeEmptyDirectories(root, from);
+        log.info("Migrated {} files in {} from {} to {} layout", moved.get(), root, from, to);
+        return moved.get();
+    }
+
+    /**
+     * Los archivos que ya están en su ubicación de destino no se mueven, el recorrido puede encontrar los archivos
+     * recién movidos cuando ambas distribuciones comparten directorio
+     *
+     * @return Si el archivo se movió
+     */
+    private static boolean migrate(Path root, Path file, DiskLayout from, DiskLayout to) throws IOException {
+        var current = to.logical(root, file);
+        if (current.isPresent() && to.resolve(root, current.get()).equals(file)) return false;
+
+        var logical = from.logical(root, file);
+        if (logical.isEmpty()) return false;
+        var target = to.resolve(root, logical.get());
+        return !target.equals(file) && move(file, target);
+    }
+
+    /**
+     * @return Falso si otro proceso ya movió el archivo o si el destino ya existe
+     */
+    static boolean move(Path file, Path target) throws IOException {
+        Files.createDirectories(target.getParent());
+        try {
+            DiskFiles.moveNoReplace(file, target);
+            return true;
+        } catch (NoSuchFileException e) {
+            return false;
+        } catch (FileAlreadyExistsException e) {
+            log.warn("Skipping migration of {}, {} already exists", file, target);
+            return false;
+        }
+    }
+
+    /**
+     * Elimina los directorios vacíos de la distribución de origen, sin tocar los de la distribución de destino
+     */
+    private static void removeEmptyDirectories(Path root, DiskLayout from) throws IOException {
+        var shards = root.resolve(DiskLayout.SHARDS_DIRECTORY);
+        var temp = root.resolve(DiskLayout.TEMP_DIRECTORY);
+        var index = root.resolve(DiskLayout.INDEX_DIRECTORY);
+        var fromSharded = from instanceof DiskLayout.Sharded;
+        try (var walk = Files.walk(root)) {
+            walk.filter(Files::isDirectory)
+                    .filter(directory -> !directory.equals(root) && !directory.equals(shards) && !directory.startsWith(temp) && !directory.startsWith(index))
+                    .filter(directory -> directory.startsWith(shards) == fromSharded)
+                    .sorted(Comparator.reverseOrder())
+                    .forEach(directory -> {
+                        try {
+                            Files.deleteIfExists(directory);
+                        } catch (DirectoryNotEmptyException e) {
+                            // El directorio conserva archivos de otra distribución o recién almacenados
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+        }
+    }
+}
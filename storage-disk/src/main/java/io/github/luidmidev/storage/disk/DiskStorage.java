@@ -5,32 +5,111 @@ import io.github.luidmidev.storage.exceptions.AlreadyFileExistsStorageException;
 import io.github.luidmidev.storage.exceptions.FileNotFoundStorageException;
 import lombok.extern.slf4j.Slf4j;
 
-import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.FileAlreadyExistsException;
 import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+import java.util.zip.Checksum;
 
 import static io.github.luidmidev.storage.StorageUtils.constructFileInfo;
+import static io.github.luidmidev.storage.StorageUtils.guessContentType;
 import static java.lang.System.getProperty;
 
 @Slf4j
-public class DiskStorage extends Storage {
+public class DiskStorage extends Storage implements AutoCloseable {
 
-    private final String storagePath;
+    private final Path root;
+    private final MappedFileCache mappedFileCache;
+    private final DiskLayout layout;
+    private final DiskLayout legacyLayout;
+    private final Path tempDirectory;
+    private final DiskStorageOptions.Durability durability;
+    private final GroupCommitter committer;
+    private final ExecutorService asyncIoExecutor;
+    private final int asyncIoThreads;
+    private final int maxAsyncInFlight;
+    private final boolean attributesSupported;
+    private final DiskIndex index;
+    private AsyncDiskIO asyncIo;
+    private boolean closed;
     private static final String USER_DIR_PROPERTY = "{user.dir}";
     private static final String DEFAULT_STORAGE_PATH = USER_DIR_PROPERTY + "/uploads";
+    private static final long MAX_DOWNLOAD_SIZE = Integer.MAX_VALUE - 8;
+    private static final int DIRECTORY_SCAN_THRESHOLD = 16;
+    private static final Duration STALE_TEMP_AGE = Duration.ofHours(1);
+    private static final String TEMP_PREFIX = "store-";
+    private static final String TEMP_SUFFIX = ".tmp";
 
     public DiskStorage() {
         this(DEFAULT_STORAGE_PATH);
     }
 
     public DiskStorage(String storagePath) {
-        this.storagePath = reolveStoragePath(storagePath);
-        log.debug("Storage path {}", this.storagePath);
-        createDirIfNotExists(this.storagePath);
+        this(storagePath, DiskStorageOptions.defaults());
+    }
+
+    public DiskStorage(String storagePath, DiskStorageOptions options) {
+        if (options.getLayout().equals(options.getLegacyLayout())) throw new IllegalArgumentException("Legacy layout must differ from the layout");
+        this.root = Paths.get(reolveStoragePath(storagePath));
+        this.mappedFileCache = options.getMappedFileCache();
+        this.layout = options.getLayout();
+        this.legacyLayout = options.getLegacyLayout();
+        this.tempDirectory = root.resolve(DiskLayout.TEMP_DIRECTORY);
+        this.durability = options.getDurability();
+        this.committer = durability == DiskStorageOptions.Durability.GROUP_COMMIT
+                ? new GroupCommitter(options.getGroupCommitWindow(), options.getGroupCommitMaxBatch())
+                : null;
+        this.asyncIoExecutor = options.getAsyncIoExecutor();
+        this.asyncIoThreads = options.getAsyncIoThreads();
+        this.maxAsyncInFlight = options.getMaxAsyncInFlight();
+        log.debug("Storage path {}", this.root);
+        createDirIfNotExists(this.root);
+        checkReservedDirectories();
+        createDirIfNotExists(this.tempDirectory);
+        removeStaleTempFiles();
+        this.attributesSupported = attributesSupported(root);
+        this.index = options.isIndexed() ? openIndex(options.getIndexSnapshotInterval()) : null;
+    }
+
+    private static boolean attributesSupported(Path root) {
+        try {
+            return DiskFiles.supportsAttributes(root);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not inspect the file store of " + root, e);
+        }
+    }
+
+    private DiskIndex openIndex(int snapshotInterval) {
+        try {
+            return DiskIndex.open(root.resolve(DiskLayout.INDEX_DIRECTORY), snapshotInterval, this::scan);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open the index of " + root, e);
+        }
     }
 
     private static String reolveStoragePath(String path) {
@@ -46,20 +125,238 @@ public class DiskStorage extends Storage {
         return path.endsWith("/") || path.endsWith("\\") ? path.substring(0, path.length() - 1) : path;
     }
 
+    /**
+     * El contenido se escribe en un archivo temporal que se publica en su destino de forma atómica, sin reemplazar un
+     * archivo existente, por lo que una caída o un error durante la escritura nunca deja un archivo incompleto. La
+     * sincronización con el disco depende de {@link DiskStorageOptions#getDurability()}.
+     */
     @Override
     protected void internalStore(final ToStore toStore) throws IOException {
 
-        var path = toStore.getPath();
+        notReserved(toStore);
         var completePath = toStore.getCompletePath();
+        var file = layout.resolve(root, toStore);
+        if (index != null) index.ensureOpen();
+        if (mappedFileCache != null) mappedFileCache.invalidate(file);
+        if (stored(toStore, file)) throw new AlreadyFileExistsStorageException(toStore);
+
+        var checksum = index == null ? null : new CRC32C();
+        var temp = Files.createTempFile(tempDirectory, TEMP_PREFIX, TEMP_SUFFIX);
+        try {
+            long written;
+            try (var channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                written = toStore.getSource().transferTo(checksum == null ? channel : checksumming(channel, checksum));
+                log.debug("Written {} bytes on {}", written, completePath);
+                DiskFiles.writeAttributes(temp, toStore.getAttributes());
+                switch (durability) {
+                    case NONE -> {
+                    }
+                    case PER_FILE -> channel.force(true);
+                    case GROUP_COMMIT -> {
+                        Files.createDirectories(file.getParent());
+                        committer.commit(channel, temp, file);
+                    }
+                }
+            }
+            if (durability != DiskStorageOptions.Durability.GROUP_COMMIT) publish(temp, file);
+            indexStored(toStore, written, checksum);
+        } catch (FileAlreadyExistsException e) {
+            throw new AlreadyFileExistsStorageException(toStore);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Almacena un archivo sin bloquear al hilo que lo invoca. El contenido se escribe con un
+     * {@link AsynchronousFileChannel} y se publica con las mismas garantías que {@link #store(ToStore)}. Los orígenes
+     * que no están en memoria se leen en los hilos del ejecutor asíncrono.
+     * <p>
+     * El almacenamiento no se registra en el seguimiento de {@link StoreTracking} del hilo que lo invoca.
+     *
+     * @param toStore Archivo a almacenar
+     * @return Ruta completa del archivo almacenado; falla con {@link AlreadyFileExistsStorageException} si el archivo
+     * ya existe
+     * @throws IllegalStateException Si el almacen está cerrado
+     * @see DiskStorageOptions#getMaxAsyncInFlight()
+     */
+    public CompletableFuture<String> storeAsync(final ToStore toStore) {
+        notReserved(toStore);
+        var io = asyncIo();
+        var file = layout.resolve(root, toStore);
+        var checksum = index == null ? null : new CRC32C();
+        return io.submit(() -> io.supply(() -> requireContent(toStore))
+                .thenCompose(checked -> io.supply(() -> {
+                            if (index != null) index.ensureOpen();
+                            if (mappedFileCache != null) mappedFileCache.invalidate(file);
+                            if (stored(checked, file)) throw new AlreadyFileExistsStorageException(checked);
+                            return Files.createTempFile(tempDirectory, TEMP_PREFIX, TEMP_SUFFIX);
+                        })
+                        .thenCompose(temp -> io.write(temp, checked.getSource(), checksum)
+                                .thenCompose(written -> publishAsync(io, written.channel(), temp, file, checked.getAttributes())
+                                        .whenComplete((ignored, error) -> AsyncDiskIO.closeQuietly(written.channel()))
+                                        .thenCompose(ignored -> io.supply(() -> {
+                                            indexStored(checked, written.size(), checksum);
+                                            return null;
+                                        })))
+                                .whenComplete((ignored, error) -> deleteQuietly(temp))))
+                .handle((ignored, error) -> {
+                    if (error == null) return toStore.getCompletePath();
+                    var cause = error instanceof CompletionException ? error.getCause() : error;
+                    if (cause instanceof FileAlreadyExistsException) throw new AlreadyFileExistsStorageException(toStore);
+                    throw AsyncDiskIO.completion(cause);
+                }));
+    }
+
+    /**
+     * Descarga un archivo sin bloquear al hilo que lo invoca, el contenido se lee con un
+     * {@link AsynchronousFileChannel}
+     *
+     * @param fullPath Ruta completa del archivo
+     * @return Archivo descargado, vacío si no existe
+     * @throws IllegalStateException Si el almacen está cerrado
+     * @see #downloadAsync(PathFile)
+     */
+    public CompletableFuture<Optional<Stored>> downloadAsync(String fullPath) {
+        return downloadAsync(PathFile.of(fullPath));
+    }
+
+    /**
+     * Descarga un archivo sin bloquear al hilo que lo invoca, el contenido se lee con un
+     * {@link AsynchronousFileChannel}
+     *
+     * @param pathFile Objeto que contiene el nombre y ruta del archivo
+     * @return Archivo descargado, vacío si no existe
+     * @throws IllegalStateException Si el almacen está cerrado
+     * @see DiskStorageOptions#getMaxAsyncInFlight()
+     */
+    public CompletableFuture<Optional<Stored>> downloadAsync(final PathFile pathFile) {
+        var io = asyncIo();
+        return io.submit(() -> io.supply(() -> locate(pathFile))
+                .thenCompose(file -> file.isEmpty()
+                        ? CompletableFuture.completedFuture(Optional.empty())
+                        : io.read(file.get(), MAX_DOWNLOAD_SIZE)
+                        .thenCompose(bytes -> io.supply(() -> Optional.of(stored(bytes, pathFile, file.get()))))));
+    }
+
+    /**
+     * Detiene el ejecutor de las operaciones asíncronas si lo creó el almacen, después de completar las operaciones
+     * en curso, y cierra el índice. Sin índice las operaciones síncronas pueden seguir usándose; con índice el almacen
+     * ya no puede modificarse.
+     */
+    @Override
+    public void close() {
+        AsyncDiskIO io;
+        synchronized (this) {
+            closed = true;
+            io = asyncIo;
+        }
+        if (io != null) io.close();
+        if (index == null) return;
+        try {
+            index.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not close the index of " + root, e);
+        }
+    }
+
+    private synchronized AsyncDiskIO asyncIo() {
+        if (closed) throw new IllegalStateException("Storage is closed");
+        if (asyncIo == null) asyncIo = new AsyncDiskIO(asyncIoExecutor, asyncIoThreads, maxAsyncInFlight);
+        return asyncIo;
+    }
+
+    /**
+     * Publica un archivo temporal ya escrito y cerrado, y con {@link DiskStorageOptions.Durability#PER_FILE}
+     * sincroniza su directorio
+     */
+    private void publish(Path temp, Path file) throws IOException {
+        DiskFiles.publish(temp, file);
+        if (durability == DiskStorageOptions.Durability.PER_FILE) DiskFiles.syncDirectory(file.getParent());
+    }
+
+    private CompletableFuture<Void> publishAsync(AsyncDiskIO io, AsynchronousFileChannel channel, Path temp, Path file, Map<String, String> attributes) {
+        if (durability == DiskStorageOptions.Durability.GROUP_COMMIT) {
+            return io.supply(() -> {
+                        DiskFiles.writeAttributes(temp, attributes);
+                        return Files.createDirectories(file.getParent());
+                    })
+                    .thenCompose(ignored -> committer.commitAsync(() -> channel.force(true), temp, file));
+        }
+        return io.supply(() -> {
+            DiskFiles.writeAttributes(temp, attributes);
+            if (durability == DiskStorageOptions.Durability.PER_FILE) channel.force(true);
+            channel.close();
+            publish(temp, file);
+            return null;
+        });
+    }
+
+    /**
+     * @return Si el archivo ya está almacenado, según el índice si está habilitado
+     */
+    private boolean stored(PathFile pathFile, Path file) {
+        return index == null ? Files.exists(file) : index.contains(pathFile.getCompletePath());
+    }
+
+    private void indexStored(ToStore toStore, long size, Checksum checksum) throws IOException {
+        if (index == null) return;
+        var filename = toStore.getFilename();
+        index.put(new DiskIndex.Entry(toStore.getPath(), filename, size, guessContentType(filename), checksum.getValue(),
+                System.currentTimeMillis(), toStore.getAttributes()));
+    }
+
+    @Override
+    public boolean supportsAttributes() {
+        return attributesSupported;
+    }
 
-        createDirIfNotExists(storagePath + "/" + path);
-        var file = new File(storagePath + "/" + completePath);
-        var created = file.createNewFile();
+    /**
+     * @return Atributos guardados con el archivo, vacío si el sistema de archivos no los admite
+     */
+    private Map<String, String> attributesOf(Path file) throws IOException {
+        return attributesSupported ? DiskFiles.readAttributes(file) : Map.of();
+    }
 
-        if (!created) throw new AlreadyFileExistsStorageException(toStore);
+    private Stored.Info infoOf(PathFile pathFile, long size, Path file) throws IOException {
+        var filename = pathFile.getFilename();
+        return constructFileInfo(filename, size, pathFile.getPath(), guessContentType(filename), attributesOf(file));
+    }
+
+    private Stored stored(byte[] content, PathFile pathFile, Path file) throws IOException {
+        return Stored.builder().content(content).info(infoOf(pathFile, content.length, file)).build();
+    }
+
+    /**
+     * @return Canal que actualiza el checksum con el contenido escrito en el canal de destino
+     */
+    private static WritableByteChannel checksumming(WritableByteChannel channel, Checksum checksum) {
+        return new WritableByteChannel() {
+            @Override
+            public int write(ByteBuffer source) throws IOException {
+                var start = source.position();
+                var count = channel.write(source);
+                checksum.update(source.duplicate().position(start).limit(start + count));
+                return count;
+            }
+
+            @Override
+            public boolean isOpen() {
+                return channel.isOpen();
+            }
+
+            @Override
+            public void close() throws IOException {
+                channel.close();
+            }
+        };
+    }
 
-        try (var fos = new FileOutputStream(file)) {
-            fos.write(toStore.getContent());
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not remove temporary file {}", file, e);
         }
     }
 
@@ -67,53 +364,342 @@ public class DiskStorage extends Storage {
     protected Optional<Stored> internalDownload(final PathFile pathFile) throws IOException {
 
         var completePath = pathFile.getCompletePath();
-        var filename = pathFile.getFilename();
-        var path = pathFile.getPath();
 
-        var fileOptional = getFile(completePath);
+        var fileOptional = locate(pathFile);
         if (fileOptional.isEmpty()) return Optional.empty();
         var file = fileOptional.get();
-        var bytes = new byte[(int) file.length()];
-        try (var fis = new FileInputStream(file)) {
-            var read = fis.read(bytes);
-            if (read != file.length()) throw new IOException("File not read correctly: " + read + " of " + file.length() + " bytes on " + completePath);
-            return Optional.of(StorageUtils.constructStoredFile(bytes, filename, path));
+        var size = Files.size(file);
+        if (size > MAX_DOWNLOAD_SIZE) {
+            throw new IOException("File too large to download into memory (" + size + " bytes), use openStream for " + completePath);
+        }
+        var mapped = mapped(file);
+        if (mapped.isPresent()) {
+            var bytes = new byte[mapped.get().remaining()];
+            mapped.get().get(bytes);
+            return Optional.of(stored(bytes, pathFile, file));
         }
+        return Optional.of(stored(Files.readAllBytes(file), pathFile, file));
     }
 
+    @Override
+    protected Optional<StoredStream> internalOpenStream(final PathFile pathFile) throws IOException {
+
+        var fileOptional = locate(pathFile);
+        if (fileOptional.isEmpty()) return Optional.empty();
+        var file = fileOptional.get();
+
+        var mapped = mapped(file);
+        if (mapped.isPresent()) {
+            var info = infoOf(pathFile, mapped.get().capacity(), file);
+            return Optional.of(StoredStream.ofStream(info, () -> new ByteBufferInputStream(mapped.get())));
+        }
+
+        var info = infoOf(pathFile, Files.size(file), file);
+        return Optional.of(StoredStream.ofChannel(info, () -> FileChannel.open(file, StandardOpenOption.READ)));
+    }
+
+    @Override
+    protected Optional<StoredStream> internalOpenStream(final PathFile pathFile, final ByteRange range) throws IOException {
+
+        var fileOptional = locate(pathFile);
+        if (fileOptional.isEmpty()) return Optional.empty();
+        var file = fileOptional.get();
+
+        var mapped = mapped(file);
+        if (mapped.isPresent()) {
+            var info = infoOf(pathFile, mapped.get().capacity(), file);
+            var clamped = range.clamp(info.getFileSize());
+            var slice = mapped.get().slice((int) clamped.offset(), (int) clamped.length());
+            return Optional.of(StoredStream.ofStream(info, clamped, () -> new ByteBufferInputStream(slice)));
+        }
+
+        var info = infoOf(pathFile, Files.size(file), file);
+        var clamped = range.clamp(info.getFileSize());
+        return Optional.of(StoredStream.ofStream(info, clamped, () -> {
+            var channel = FileChannel.open(file, StandardOpenOption.READ).position(clamped.offset());
+            return new BoundedInputStream(Channels.newInputStream(channel), clamped.length());
+        }));
+    }
+
+
+    /**
+     * Transfiere el archivo con {@link FileChannel#transferTo}, que el sistema operativo resuelve sin copiar el
+     * contenido a la memoria de la JVM cuando el destino es un socket o un archivo
+     */
+    @Override
+    protected long internalTransferTo(final PathFile pathFile, final WritableByteChannel target) throws IOException {
+
+        var fileOptional = locate(pathFile);
+        if (fileOptional.isEmpty()) throw new FileNotFoundStorageException(pathFile);
+
+        try (var channel = FileChannel.open(fileOptional.get(), StandardOpenOption.READ)) {
+            return ContentSource.transfer(channel, target);
+        }
+    }
 
     @Override
     protected Optional<Stored.Info> internalInfo(final PathFile pathFile) throws IOException {
+        notReserved(pathFile);
+        if (index != null) return index.find(pathFile.getCompletePath()).map(DiskIndex.Entry::info);
 
-        var completePath = pathFile.getCompletePath();
-        var filename = pathFile.getFilename();
-        var path = pathFile.getPath();
+        var file = locate(pathFile);
+        if (file.isEmpty()) return Optional.empty();
+        return Optional.of(infoOf(pathFile, Files.size(file.get()), file.get()));
+    }
 
-        var pathObject = Paths.get(storagePath + "/" + completePath);
-        if (!Files.exists(pathObject)) return Optional.empty();
-        return Optional.of(constructFileInfo(filename, Files.size(pathObject), path));
+    @Override
+    protected boolean internalExists(final PathFile pathFile) throws IOException {
+        notReserved(pathFile);
+        if (index != null) return index.contains(pathFile.getCompletePath());
+        return locate(pathFile).isPresent();
     }
 
+    /**
+     * Los archivos se agrupan por directorio en disco. Cuando se verifican muchos archivos de un mismo directorio se
+     * recorre el directorio una sola vez; en otro caso se consulta cada archivo, ya que recorrer un directorio muy
+     * grande es más costoso que unas pocas consultas individuales. Con el índice habilitado no se consulta el disco.
+     */
     @Override
-    protected boolean internalExists(final PathFile pathFile) {
-        return getFile(pathFile.getCompletePath()).isPresent();
+    protected Set<String> internalExistsAll(final Collection<? extends PathFile> pathFiles) throws IOException {
+        pathFiles.forEach(DiskStorage::notReserved);
+        var existing = new HashSet<String>();
+        if (index != null || legacyLayout != null) {
+            for (var pathFile : pathFiles) {
+                if (internalExists(pathFile)) existing.add(pathFile.getCompletePath());
+            }
+            return existing;
+        }
+
+        var byDirectory = pathFiles.stream().collect(Collectors.groupingBy(pathFile -> layout.resolve(root, pathFile).getParent()));
+
+        for (var entry : byDirectory.entrySet()) {
+            var files = entry.getValue();
+            if (files.size() < DIRECTORY_SCAN_THRESHOLD) {
+                for (var pathFile : files) {
+                    if (internalExists(pathFile)) existing.add(pathFile.getCompletePath());
+                }
+                continue;
+            }
+
+            var directory = entry.getKey();
+            if (!Files.isDirectory(directory)) continue;
+            var names = new HashSet<String>();
+            try (var stream = Files.newDirectoryStream(directory)) {
+                for (var child : stream) names.add(child.getFileName().toString());
+            }
+            for (var pathFile : files) {
+                if (names.contains(pathFile.getFilename())) existing.add(pathFile.getCompletePath());
+            }
+        }
+        return existing;
+    }
+
+    /**
+     * Recorre el directorio de la ruta con {@link Files#walk}, que abre los directorios a medida que se consume el
+     * flujo. Con la distribución fragmentada se recorren todos los fragmentos y se descartan los archivos de otras
+     * rutas. Durante una migración en línea también se recorre la distribución heredada, y un archivo que se mueve
+     * durante el listado puede aparecer dos veces. Con el índice habilitado el listado se obtiene del índice.
+     */
+    @Override
+    protected Stream<Stored.Info> internalList(final String path) throws IOException {
+        notReserved(path);
+        if (index != null) return index.list(path).map(DiskIndex.Entry::info);
+        return walk(path).map(found -> {
+            try {
+                return infoOf(found.pathFile(), found.attributes().size(), found.file());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /**
+     * Recorre todos los archivos para reconstruir el índice, sin checksum ya que calcularlo requiere leer su contenido
+     */
+    private Stream<DiskIndex.Entry> scan() throws IOException {
+        return walk("").map(found -> {
+            var filename = found.pathFile().getFilename();
+            var attributes = found.attributes();
+            try {
+                return new DiskIndex.Entry(found.pathFile().getPath(), filename, attributes.size(), guessContentType(filename),
+                        DiskIndex.NO_CHECKSUM, attributes.lastModifiedTime().toMillis(), attributesOf(found.file()));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private record Found(PathFile pathFile, Path file, BasicFileAttributes attributes) {
+    }
+
+    private Stream<Found> walk(String path) throws IOException {
+        var found = walk(layout, path);
+        if (legacyLayout == null) return found;
+        return Stream.concat(found, walk(legacyLayout, path));
+    }
+
+    private Stream<Found> walk(DiskLayout from, String path) throws IOException {
+        var directory = from.directoryOf(root, path);
+        if (!Files.isDirectory(directory)) return Stream.empty();
+
+        return Files.walk(directory)
+                .flatMap(file -> from.logical(root, file)
+                        .filter(pathFile -> StorageUtils.isUnderPath(pathFile.getPath(), path))
+                        .flatMap(pathFile -> found(pathFile, file))
+                        .stream());
+    }
+
+    /**
+     * @return Archivo encontrado, vacío si no es un archivo regular o si se eliminó durante el recorrido
+     */
+    private static Optional<Found> found(PathFile pathFile, Path file) {
+        try {
+            var attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            if (!attributes.isRegularFile()) return Optional.empty();
+            return Optional.of(new Found(pathFile, file, attributes));
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 
     @Override
     protected void internalRemove(final PathFile pathFile) throws IOException {
-        var file = getFile(pathFile.getCompletePath());
+        var file = locate(pathFile);
         if (file.isEmpty()) throw new FileNotFoundStorageException(pathFile);
+        if (index != null) index.ensureOpen();
+
+        if (mappedFileCache != null) mappedFileCache.invalidate(file.get());
+        Files.delete(file.get());
+        if (index != null) index.remove(pathFile.getCompletePath());
+    }
 
-        Files.delete(file.get().toPath());
+    /**
+     * Mueve a la distribución actual todos los archivos que siguen en la distribución heredada. Puede ejecutarse con
+     * el almacen en uso; al terminar, la distribución heredada puede quitarse de las opciones.
+     *
+     * @return Cantidad de archivos movidos
+     * @throws IOException           Si ocurre un error al recorrer o mover los archivos
+     * @throws IllegalStateException Si el almacen no se configuró con una distribución heredada
+     */
+    public long migrateLegacyLayout() throws IOException {
+        if (legacyLayout == null) throw new IllegalStateException("No legacy layout configured");
+        return DiskLayoutMigration.migrate(root, legacyLayout, layout);
     }
 
-    private Optional<File> getFile(String completePath) {
-        var file = new File(storagePath + "/" + completePath);
-        return file.exists() ? Optional.of(file) : Optional.empty();
+    /**
+     * Obtiene una vista de solo lectura del archivo mapeado en memoria, las lecturas repetidas del mismo archivo
+     * comparten el mapeo sin copiar su contenido al heap
+     *
+     * @param fullPath Ruta completa del archivo
+     * @return Vista del contenido del archivo, vacío si no existe o si su tamaño excede el límite del cache
+     * @throws IOException           Si ocurre un error al mapear el archivo
+     * @throws IllegalStateException Si el almacen no se configuró con un {@link MappedFileCache}
+     */
+    public Optional<ByteBuffer> map(String fullPath) throws IOException {
+        if (mappedFileCache == null) throw new IllegalStateException("Mapped reads are not enabled");
+        var file = locate(PathFile.of(fullPath));
+        if (file.isEmpty()) return Optional.empty();
+        return mapped(file.get());
+    }
+
+    /**
+     * Obtiene los datos del archivo registrados en el índice, incluido el checksum de su contenido
+     *
+     * @param fullPath Ruta completa del archivo
+     * @return Archivo indexado, vacío si no existe
+     * @throws IllegalStateException Si el almacen no se configuró con {@link DiskStorageOptions#isIndexed()}
+     */
+    public Optional<DiskIndex.Entry> indexed(String fullPath) {
+        if (index == null) throw new IllegalStateException("Index is not enabled");
+        return index.find(PathFile.of(fullPath).getCompletePath());
+    }
+
+    private Optional<ByteBuffer> mapped(Path file) throws IOException {
+        return mappedFileCache == null ? Optional.empty() : mappedFileCache.get(file);
+    }
+
+    /**
+     * Ubica un archivo en disco. Durante una migración en línea, un archivo que sigue en la distribución heredada se
+     * mueve a la distribución actual al accederlo. Con el índice habilitado, un archivo que no está en el índice no se
+     * busca en disco.
+     */
+    private Optional<Path> locate(PathFile pathFile) throws IOException {
+        notReserved(pathFile);
+        if (index != null && !index.contains(pathFile.getCompletePath())) return Optional.empty();
+        var file = layout.resolve(root, pathFile);
+        if (Files.exists(file)) return Optional.of(file);
+        if (legacyLayout == null) return Optional.empty();
+
+        var legacy = legacyLayout.resolve(root, pathFile);
+        if (!Files.exists(legacy)) return Optional.empty();
+        DiskLayoutMigration.move(legacy, file);
+        return Files.exists(file) ? Optional.of(file) : Optional.empty();
+    }
+
+    /**
+     * Rechaza las rutas dentro de los directorios reservados bajo la raíz, en los que el almacen guarda sus temporales,
+     * su índice y los fragmentos de la distribución fragmentada
+     */
+    private static void notReserved(PathFile pathFile) {
+        notReserved(pathFile.getPath());
+    }
+
+    private static void notReserved(String path) {
+        StorageAssertions.notReservedPath(path, DiskLayout.TEMP_DIRECTORY, DiskLayout.INDEX_DIRECTORY, DiskLayout.SHARDS_DIRECTORY);
+    }
+
+    /**
+     * Verifica que los directorios reservados que ya existen bajo la raíz solo contengan archivos del almacen, para no
+     * tomar ni eliminar archivos de un directorio del usuario con el mismo nombre
+     *
+     * @throws IllegalStateException Si un directorio reservado contiene archivos que no creó el almacen
+     */
+    private void checkReservedDirectories() {
+        checkReservedDirectory(DiskLayout.TEMP_DIRECTORY, entry -> Files.isRegularFile(entry) && isTempFile(entry.getFileName().toString()));
+        checkReservedDirectory(DiskLayout.INDEX_DIRECTORY, entry -> Files.isRegularFile(entry) && DiskIndex.isIndexFile(entry.getFileName().toString()));
+        checkReservedDirectory(DiskLayout.SHARDS_DIRECTORY, entry -> Files.isDirectory(entry) && DiskLayout.Sharded.isShardName(entry.getFileName().toString()));
+    }
+
+    private void checkReservedDirectory(String name, Predicate<Path> owned) {
+        var directory = root.resolve(name);
+        if (!Files.exists(directory, LinkOption.NOFOLLOW_LINKS)) return;
+        if (!Files.isDirectory(directory, LinkOption.NOFOLLOW_LINKS)) {
+            throw new IllegalStateException("The reserved path " + directory + " exists and is not a directory of the storage");
+        }
+        try (var stream = Files.newDirectoryStream(directory)) {
+            for (var entry : stream) {
+                if (!owned.test(entry)) {
+                    throw new IllegalStateException("The reserved directory " + directory + " contains files not created by the storage: " + entry.getFileName());
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not inspect the reserved directory " + directory, e);
+        }
+    }
+
+    private static boolean isTempFile(String name) {
+        return name.startsWith(TEMP_PREFIX) && name.endsWith(TEMP_SUFFIX);
+    }
+
+    /**
+     * Elimina los temporales que quedaron de escrituras interrumpidas por una caída. Solo se eliminan los antiguos, ya
+     * que otra instancia sobre el mismo directorio puede estar escribiendo.
+     */
+    private void removeStaleTempFiles() {
+        var threshold = Instant.now().minus(STALE_TEMP_AGE);
+        try (var stream = Files.newDirectoryStream(tempDirectory)) {
+            for (var temp : stream) {
+                if (Files.getLastModifiedTime(temp).toInstant().isBefore(threshold)) Files.deleteIfExists(temp);
+            }
+        } catch (IOException e) {
+            log.warn("Could not remove stale temporary files from {}", tempDirectory, e);
+        }
     }
 
-    private void createDirIfNotExists(String path) {
-        var dirs = new File(path);
+    private static void createDirIfNotExists(Path path) {
+        var dirs = path.toFile();
         if (!dirs.exists()) {
             var created = dirs.mkdirs();
             if (!created) throw new IllegalStateException("Path not created: " + path);
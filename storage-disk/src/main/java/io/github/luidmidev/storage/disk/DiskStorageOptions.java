@@ -0,0 +1,105 @@
+package io.github.luidmidev.storage.disk;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Opciones de configuración de un {@link DiskStorage}
+ */
+@Getter
+@Builder
+public class DiskStorageOptions {
+
+    /**
+     * Garantía de persistencia de un archivo cuando termina su almacenamiento. En todos los casos el archivo se
+     * escribe en un temporal y se publica de forma atómica, por lo que nunca se observa un archivo incompleto.
+     */
+    public enum Durability {
+        /**
+         * No sincroniza con el disco, una caída del sistema puede perder los archivos almacenados recientemente
+         */
+        NONE,
+        /**
+         * Sincroniza el contenido y el directorio de cada archivo antes de terminar su almacenamiento
+         */
+        PER_FILE,
+        /**
+         * Reúne los archivos almacenados de forma concurrente durante {@link #groupCommitWindow} y los sincroniza
+         * juntos, con la misma garantía que {@link #PER_FILE} a cambio de una latencia algo mayor por archivo
+         */
+        GROUP_COMMIT
+    }
+
+    /**
+     * Cache de archivos mapeados en memoria, si es nulo las lecturas se realizan con canales de archivo
+     */
+    private final MappedFileCache mappedFileCache;
+
+    /**
+     * Distribución de los archivos en directorios
+     */
+    @Builder.Default
+    private final DiskLayout layout = DiskLayout.direct();
+
+    /**
+     * Distribución anterior de los archivos durante una migración en línea, si es nula no hay migración en curso.
+     * Los archivos que aún están en la distribución anterior se mueven a la actual al accederlos o con
+     * {@link DiskStorage#migrateLegacyLayout()}.
+     */
+    private final DiskLayout legacyLayout;
+
+    @Builder.Default
+    private final Durability durability = Durability.NONE;
+
+    /**
+     * Tiempo que se esperan otros archivos para sincronizarlos juntos con {@link Durability#GROUP_COMMIT}
+     */
+    @Builder.Default
+    private final Duration groupCommitWindow = Duration.ofMillis(2);
+
+    /**
+     * Cantidad máxima de archivos sincronizados juntos con {@link Durability#GROUP_COMMIT}
+     */
+    @Builder.Default
+    private final int groupCommitMaxBatch = 256;
+
+    /**
+     * Ejecutor de las operaciones asíncronas de {@link DiskStorage}, en el que se completan las lecturas y escrituras
+     * de sus canales asíncronos. Si es nulo se crea, al usar la primera operación asíncrona, un ejecutor de
+     * {@link #asyncIoThreads} hilos que se detiene con {@link DiskStorage#close()}.
+     */
+    private final ExecutorService asyncIoExecutor;
+
+    /**
+     * Cantidad de hilos del ejecutor de las operaciones asíncronas creado por el almacen
+     */
+    @Builder.Default
+    private final int asyncIoThreads = 4;
+
+    /**
+     * Cantidad máxima de operaciones asíncronas en curso, las demás esperan en una cola sin ocupar hilos
+     */
+    @Builder.Default
+    private final int maxAsyncInFlight = 256;
+
+    /**
+     * Mantiene un {@link DiskIndex} con el tamaño, tipo de contenido, checksum y fecha de cada archivo, de modo que
+     * {@code info}, {@code exists} y {@code list} se responden desde memoria. Con el índice habilitado los archivos se
+     * escriben calculando su checksum, sin transferencias directas entre archivos, y el almacen debe cerrarse con
+     * {@link DiskStorage#close()} para no reconstruir el índice al volver a abrirlo.
+     */
+    private final boolean indexed;
+
+    /**
+     * Cantidad de cambios del índice tras la cual se escribe una instantánea y se vacía su registro
+     */
+    @Builder.Default
+    private final int indexSnapshotInterval = 10_000;
+
+    public static DiskStorageOptions defaults() {
+        return builder().build();
+    }
+}
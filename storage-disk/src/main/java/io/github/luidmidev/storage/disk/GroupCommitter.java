@@ -0,0 +1,182 @@
+package io.github.luidmidev.storage.disk;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publica archivos en grupos: espera una ventana de tiempo para reunir los archivos escritos de forma concurrente,
+ * persiste el contenido de todos, los publica y persiste una sola vez cada directorio afectado. Los sistemas de
+ * archivos con journal agrupan en una misma transacción las sincronizaciones emitidas juntas, por lo que el costo por
+ * archivo es mucho menor que sincronizar cada archivo por separado.
+ */
+@Slf4j
+final class GroupCommitter {
+
+    /**
+     * Persiste el contenido de un archivo pendiente
+     */
+    @FunctionalInterface
+    interface DataSync {
+        void sync() throws IOException;
+    }
+
+    private record Pending(DataSync data, Path temp, Path target, CompletableFuture<Void> published) {
+    }
+
+    /**
+     * Tiempo sin archivos pendientes tras el cual el hilo de publicación termina, se inicia de nuevo al recibir otro
+     */
+    private static final long IDLE_TIMEOUT_SECONDS = 30;
+
+    private final long windowNanos;
+    private final int maxBatch;
+    private final LinkedBlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+    private boolean running;
+
+    GroupCommitter(Duration window, int maxBatch) {
+        if (window.isNegative()) throw new IllegalArgumentException("Group commit window must not be negative: " + window);
+        if (maxBatch <= 0) throw new IllegalArgumentException("Group commit max batch must be positive: " + maxBatch);
+        this.windowNanos = window.toNanos();
+        this.maxBatch = maxBatch;
+    }
+
+    /**
+     * Espera a que el contenido del archivo temporal se persista y se publique en su destino. El canal debe
+     * permanecer abierto hasta que el método retorne.
+     *
+     * @throws FileAlreadyExistsException Si el destino ya existe
+     * @throws IOException                Si no se pudo persistir o publicar el archivo
+     */
+    void commit(FileChannel channel, Path temp, Path target) throws IOException {
+        try {
+            commitAsync(() -> channel.force(true), temp, target).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted waiting for group commit of " + target);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) throw io;
+            throw new IOException("Group commit failed for " + target, e.getCause());
+        }
+    }
+
+    /**
+     * Agrega un archivo al próximo grupo sin esperar a que se publique
+     *
+     * @param data   Persiste el contenido del archivo temporal, el archivo debe permanecer abierto hasta que termine
+     *               el resultado
+     * @param temp   Archivo temporal
+     * @param target Destino del archivo
+     * @return Resultado de la publicación, falla con {@link FileAlreadyExistsException} si el destino ya existe
+     */
+    CompletableFuture<Void> commitAsync(DataSync data, Path temp, Path target) {
+        var pending = new Pending(data, temp, target, new CompletableFuture<>());
+        enqueue(pending);
+        return pending.published();
+    }
+
+    private synchronized void enqueue(Pending pending) {
+        queue.add(pending);
+        if (running) return;
+        running = true;
+        Thread.ofPlatform().daemon().name("disk-group-commit").start(this::run);
+    }
+
+    private void run() {
+        var batch = new ArrayList<Pending>();
+        while (true) {
+            try {
+                var first = queue.poll(IDLE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+                if (first == null) {
+                    synchronized (this) {
+                        if (!queue.isEmpty()) continue;
+                        running = false;
+                        return;
+                    }
+                }
+                batch.add(first);
+                var deadline = System.nanoTime() + windowNanos;
+                while (batch.size() < maxBatch) {
+                    var next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (next == null) break;
+                    batch.add(next);
+                }
+                commit(batch);
+            } catch (InterruptedException e) {
+                synchronized (this) {
+                    running = false;
+                }
+                for (var pending : batch) pending.published().completeExceptionally(e);
+                return;
+            } catch (RuntimeException e) {
+                log.error("Unexpected group commit failure", e);
+                for (var pending : batch) pending.published().completeExceptionally(e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void commit(List<Pending> batch) {
+        var synced = new ArrayList<Pending>(batch.size());
+        for (var pending : batch) {
+            try {
+                pending.data().sync();
+                synced.add(pending);
+            } catch (IOException e) {
+                pending.published().completeExceptionally(e);
+            }
+        }
+
+        var directories = new LinkedHashSet<Path>();
+        var published = new ArrayList<Pending>(synced.size());
+        for (var pending : synced) {
+            try {
+                DiskFiles.publish(pending.temp(), pending.target());
+                directories.add(pending.target().getParent());
+                published.add(pending);
+            } catch (IOException e) {
+                pending.published().completeExceptionally(e);
+            }
+        }
+
+        var failedDirectories = new HashMap<Path, IOException>();
+        for (var directory : directories) {
+            try {
+                DiskFiles.syncDirectory(directory);
+            } catch (IOException e) {
+                failedDirectories.put(directory, e);
+            }
+        }
+
+        for (var pending : published) {
+            var failure = failedDirectories.get(pending.target().getParent());
+            if (failure == null) {
+                pending.published().complete(null);
+                continue;
+            }
+            // Un archivo que no se pudo persistir no debe quedar visible si el almacenamiento se informa como fallido
+            try {
+                Files.deleteIfExists(pending.target());
+            } catch (IOException e) {
+                failure.addSuppressed(e);
+            }
+            pending.published().completeExceptionally(failure);
+        }
+        log.trace("Group committed {} of {} files", published.size(), batch.size());
+    }
+}
@@ -0,0 +1,115 @@
+package io.github.luidmidev.storage.disk;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Optional;
+
+/**
+ * Cache acotado de archivos mapeados en memoria en modo solo lectura. Las lecturas comparten las páginas del sistema
+ * operativo sin copiar el contenido al heap.
+ * <p>
+ * Un {@link MappedByteBuffer} no puede liberarse de forma explícita sin arriesgar lecturas sobre memoria inválida,
+ * por lo que al desalojar o invalidar una entrada solo se descarta la referencia del cache y el mapeo se libera cuando
+ * el recolector de basura reclama la última vista entregada.
+ */
+@Slf4j
+public final class MappedFileCache {
+
+    private final int maxFiles;
+    private final long maxBytes;
+    private final LinkedHashMap<Path, MappedByteBuffer> mappings = new LinkedHashMap<>(16, 0.75f, true);
+    private long mappedBytes;
+    private long generation;
+
+    /**
+     * @param maxFiles Cantidad máxima de archivos mapeados
+     * @param maxBytes Cantidad máxima de bytes mapeados, los archivos más grandes no se mapean
+     */
+    public MappedFileCache(int maxFiles, long maxBytes) {
+        if (maxFiles <= 0) throw new IllegalArgumentException("Max files must be positive: " + maxFiles);
+        if (maxBytes <= 0) throw new IllegalArgumentException("Max bytes must be positive: " + maxBytes);
+        this.maxFiles = maxFiles;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Obtiene una vista de solo lectura del archivo mapeado, mapeándolo si aún no está en el cache
+     *
+     * @param file Archivo a mapear
+     * @return Vista del contenido con su posición en cero, vacío si el archivo no puede mapearse por su tamaño
+     * @throws IOException Si ocurre un error al mapear el archivo
+     */
+    public Optional<ByteBuffer> get(Path file) throws IOException {
+        long generation;
+        synchronized (this) {
+            var mapping = mappings.get(file);
+            if (mapping != null) return Optional.of(mapping.duplicate());
+            generation = this.generation;
+        }
+
+        try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            var size = channel.size();
+            if (size > maxBytes || size > Integer.MAX_VALUE) return Optional.empty();
+            var mapping = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            put(file, mapping, generation);
+            return Optional.of(mapping.duplicate());
+        }
+    }
+
+    /**
+     * Descarta el mapeo de un archivo, debe invocarse cuando el archivo se elimina o reemplaza
+     *
+     * @param file Archivo mapeado
+     */
+    public synchronized void invalidate(Path file) {
+        generation++;
+        var removed = mappings.remove(file);
+        if (removed != null) mappedBytes -= removed.capacity();
+    }
+
+    /**
+     * Descarta todos los mapeos del cache
+     */
+    public synchronized void clear() {
+        generation++;
+        mappings.clear();
+        mappedBytes = 0;
+    }
+
+    public synchronized int size() {
+        return mappings.size();
+    }
+
+    public synchronized long mappedBytes() {
+        return mappedBytes;
+    }
+
+    /**
+     * Si hubo una invalidación mientras se mapeaba el archivo, el mapeo puede corresponder a un archivo eliminado o
+     * reemplazado y no se guarda
+     *
+     * @param generation Generación capturada antes de mapear el archivo
+     */
+    private synchronized void put(Path file, MappedByteBuffer mapping, long generation) {
+        if (this.generation != generation) return;
+        var previous = mappings.put(file, mapping);
+        if (previous != null) mappedBytes -= previous.capacity();
+        mappedBytes += mapping.capacity();
+
+        var iterator = mappings.entrySet().iterator();
+        while ((mappings.size() > maxFiles || mappedBytes > maxBytes) && iterator.hasNext()) {
+            var eldest = iterator.next();
+            if (eldest.getKey().equals(file)) continue;
+            mappedBytes -= eldest.getValue().capacity();
+            iterator.remove();
+            log.debug("Evicted mapped file {}", eldest.getKey());
+        }
+    }
+}
@@ -0,0 +1,420 @@
+package io.github.luidmidev.storage.disk;
+
+import io.github.luidmidev.storage.ContentSource;
+import io.github.luidmidev.storage.PathFile;
+import io.github.luidmidev.storage.ToStore;
+import io.github.luidmidev.storage.exceptions.AlreadyFileExistsStorageException;
+import io.github.luidmidev.storage.exceptions.FileNotFoundStorageException;
+import io.github.luidmidev.storage.exceptions.InvalidPathStorageException;
+import io.github.luidmidev.storage.exceptions.InvalidRangeStorageException;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.stream.IntStream;
+import java.util.zip.CRC32C;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+@Slf4j
+class DiskStorageTest {
+
+    private static final byte[] CONTENT = "Hello from disk storage".getBytes(StandardCharsets.UTF_8);
+
+    @TempDir
+    Path root;
+
+    private DiskStorage storage;
+
+    @BeforeEach
+    void setUp() {
+        storage = new DiskStorage(root.toString());
+    }
+
+    @Test
+    void storeFromStream() throws IOException {
+        var fullPath = storage.store(new ByteArrayInputStream(CONTENT), "stream.txt", "test_dir/");
+
+        assertEquals("test_dir/stream.txt", fullPath);
+        assertArrayEquals(CONTENT, Files.readAllBytes(root.resolve(fullPath)));
+    }
+
+    @Test
+    void storeFromPath() throws IOException {
+        var source = Files.write(root.resolve("source.txt"), CONTENT);
+
+        var fullPath = storage.store(new ToStore("copies", "copy.txt", source));
+
+        assertArrayEquals(CONTENT, Files.readAllBytes(root.resolve(fullPath)));
+    }
+
+    @Test
+    void storeDuplicated() throws IOException {
+        storage.store(CONTENT, "duplicated.txt");
+
+        assertThrows(AlreadyFileExistsStorageException.class, () -> storage.store(CONTENT, "duplicated.txt"));
+        assertArrayEquals(CONTENT, Files.readAllBytes(root.resolve("duplicated.txt")));
+    }
+
+    @Test
+    void download() throws IOException {
+        var fullPath = storage.store(CONTENT, "download.txt", "test_dir");
+        var downloaded = storage.download(fullPath);
+
+        assertTrue(downloaded.isPresent());
+        log.info("Downloaded file with info {}", downloaded.get().getInfo());
+        assertArrayEquals(CONTENT, downloaded.get().getContent());
+        assertEquals(CONTENT.length, downloaded.get().getInfo().getFileSize());
+    }
+
+    @Test
+    void openStream() throws IOException {
+        var fullPath = storage.store(CONTENT, "open.txt", "test_dir");
+        var opened = storage.openStream(fullPath);
+
+        assertTrue(opened.isPresent());
+        try (var stored = opened.get()) {
+            assertEquals(CONTENT.length, stored.getInfo().getFileSize());
+            assertArrayEquals(CONTENT, stored.readAllBytes());
+        }
+        assertTrue(storage.openStream("missing.txt").isEmpty());
+    }
+
+    @Test
+    void downloadRange() throws IOException {
+        var fullPath = storage.store(CONTENT, "range.txt");
+
+        var range = storage.download(fullPath, 6, 4);
+        assertTrue(range.isPresent());
+        assertEquals("from", new String(range.get().getContent(), StandardCharsets.UTF_8));
+        assertEquals(CONTENT.length, range.get().getInfo().getFileSize());
+
+        var tail = storage.download(fullPath, CONTENT.length - 7, Long.MAX_VALUE);
+        assertEquals("storage", new String(tail.orElseThrow().getContent(), StandardCharsets.UTF_8));
+
+        assertThrows(InvalidRangeStorageException.class, () -> storage.download(fullPath, CONTENT.length + 1, 1));
+    }
+
+    @Test
+    void transferToChannel() throws IOException {
+        var fullPath = storage.store(CONTENT, "transfer.txt");
+        var target = root.resolve("transferred.txt");
+
+        try (var channel = FileChannel.open(target, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            assertEquals(CONTENT.length, storage.transferTo(fullPath, channel));
+        }
+        assertArrayEquals(CONTENT, Files.readAllBytes(target));
+        assertThrows(FileNotFoundStorageException.class, () -> storage.transferTo("missing.txt", new ByteArrayOutputStream()));
+    }
+
+    @Test
+    void transferToStalledChannel() throws IOException {
+        var fullPath = storage.store(CONTENT, "stalled.txt");
+        var stalled = new WritableByteChannel() {
+            @Override
+            public int write(ByteBuffer src) {
+                return 0;
+            }
+
+            @Override
+            public boolean isOpen() {
+                return true;
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> assertThrows(RuntimeException.class, () -> storage.transferTo(fullPath, stalled)));
+    }
+
+    @Test
+    void storeEmptyContent() throws IOException {
+        assertThrows(IllegalArgumentException.class, () -> storage.store(InputStream.nullInputStream(), "empty.txt"));
+        try (var async = new DiskStorage(root.toString())) {
+            var error = assertThrows(CompletionException.class, () -> async.storeAsync(new ToStore("", "empty.txt", InputStream.nullInputStream())).join());
+            assertInstanceOf(IllegalArgumentException.class, error.getCause());
+        }
+        assertFalse(storage.exists("empty.txt"));
+    }
+
+    @Test
+    void mappedReads() throws IOException {
+        var cache = new MappedFileCache(1, 1024);
+        var mappedStorage = new DiskStorage(root.toString(), DiskStorageOptions.builder().mappedFileCache(cache).build());
+        var first = mappedStorage.store(CONTENT, "first.txt");
+        var second = mappedStorage.store(CONTENT, "second.txt");
+
+        assertArrayEquals(CONTENT, mappedStorage.download(first).orElseThrow().getContent());
+        assertEquals("from", new String(mappedStorage.download(first, 6, 4).orElseThrow().getContent(), StandardCharsets.UTF_8));
+        var mapped = mappedStorage.map(second).orElseThrow();
+        assertEquals(CONTENT.length, mapped.remaining());
+        assertEquals(1, cache.size());
+
+        mappedStorage.remove(second);
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void storeBatchChecksExistenceOnce() throws IOException {
+        storage.store(IntStream.range(0, 20)
+                .mapToObj(i -> new ToStore("scan", "file-" + i + ".txt", CONTENT))
+                .toList());
+
+        var toStores = IntStream.range(15, 40)
+                .mapToObj(i -> new ToStore("scan", "file-" + i + ".txt", CONTENT))
+                .toArray(ToStore[]::new);
+
+        var exception = assertThrows(AlreadyFileExistsStorageException.class, () -> storage.store(toStores));
+        assertEquals("file-15.txt", exception.getFilename());
+        assertFalse(storage.exists("scan/file-39.txt"));
+    }
+
+    @Test
+    void shardedLayout() throws IOException {
+        var legacy = storage.store(CONTENT, "legacy.txt", "uploads");
+        var untouched = storage.store(CONTENT, "untouched.txt", "uploads");
+
+        var sharded = new DiskStorage(root.toString(), DiskStorageOptions.builder()
+                .layout(DiskLayout.sharded(2))
+                .legacyLayout(DiskLayout.direct())
+                .build());
+        var stored = sharded.store(CONTENT, "new.txt", "uploads");
+        assertFalse(Files.exists(root.resolve(stored)));
+        assertArrayEquals(CONTENT, sharded.download(stored).orElseThrow().getContent());
+
+        assertArrayEquals(CONTENT, sharded.download(legacy).orElseThrow().getContent());
+        assertFalse(Files.exists(root.resolve(legacy)));
+        assertThrows(AlreadyFileExistsStorageException.class, () -> sharded.store(CONTENT, "untouched.txt", "uploads"));
+
+        assertEquals(0, sharded.migrateLegacyLayout());
+        assertFalse(Files.exists(root.resolve("uploads")));
+        assertTrue(sharded.exists(untouched));
+
+        assertEquals(3, DiskLayoutMigration.migrate(root, DiskLayout.sharded(2), DiskLayout.direct()));
+        assertArrayEquals(CONTENT, Files.readAllBytes(root.resolve(stored)));
+        try (var shards = Files.list(root.resolve(DiskLayout.SHARDS_DIRECTORY))) {
+            assertEquals(0, shards.count());
+        }
+    }
+
+    @Test
+    void migrateBetweenShardLevels() throws IOException {
+        var before = new DiskStorage(root.toString(), DiskStorageOptions.builder()
+                .layout(DiskLayout.sharded(1))
+                .build());
+        var stored = IntStream.range(0, 50)
+                .mapToObj(i -> {
+                    try {
+                        return before.store(CONTENT, "file-" + i + ".txt", "uploads/nested");
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                })
+                .toList();
+
+        assertEquals(50, DiskLayoutMigration.migrate(root, DiskLayout.sharded(1), DiskLayout.sharded(2)));
+        assertEquals(0, DiskLayoutMigration.migrate(root, DiskLayout.sharded(1), DiskLayout.sharded(2)));
+
+        var after = new DiskStorage(root.toString(), DiskStorageOptions.builder()
+                .layout(DiskLayout.sharded(2))
+                .build());
+        for (var fullPath : stored) assertArrayEquals(CONTENT, after.download(fullPath).orElseThrow().getContent());
+    }
+
+    @Test
+    void durableWrites() throws IOException {
+        var durable = new DiskStorage(root.toString(), DiskStorageOptions.builder()
+                .durability(DiskStorageOptions.Durability.GROUP_COMMIT)
+                .groupCommitWindow(Duration.ofMillis(5))
+                .build());
+
+        var stored = IntStream.range(0, 32).parallel()
+                .mapToObj(i -> {
+                    try {
+                        return durable.store(("durable " + i).getBytes(StandardCharsets.UTF_8), "file-" + i + ".txt", "durable");
+                    } catch (IOException e) {
+                        throw new IllegalStateException(e);
+                    }
+                })
+                .toList();
+        for (var i = 0; i < stored.size(); i++) {
+            assertEquals("durable " + i, new String(durable.download(stored.get(i)).orElseThrow().getContent(), StandardCharsets.UTF_8));
+        }
+        assertThrows(AlreadyFileExistsStorageException.class, () -> durable.store(CONTENT, "file-0.txt", "durable"));
+
+        var perFile = new DiskStorage(root.toString(), DiskStorageOptions.builder()
+                .durability(DiskStorageOptions.Durability.PER_FILE)
+                .build());
+        var fullPath = perFile.store(CONTENT, "per-file.txt", "durable");
+        assertArrayEquals(CONTENT, Files.readAllBytes(root.resolve(fullPath)));
+        assertThrows(AlreadyFileExistsStorageException.class, () -> perFile.store(CONTENT, "per-file.txt", "durable"));
+
+        try (var temps = Files.list(root.resolve(DiskLayout.TEMP_DIRECTORY))) {
+            assertEquals(0, temps.count());
+        }
+    }
+
+    @Test
+    void asynchronousIo() {
+        try (var async = new DiskStorage(root.toString(), DiskStorageOptions.builder()
+                .durability(DiskStorageOptions.Durability.GROUP_COMMIT)
+                .asyncIoThreads(2)
+                .maxAsyncInFlight(3)
+                .build())) {
+
+            var large = new byte[200_000];
+            Arrays.fill(large, (byte) 7);
+            var stored = IntStream.range(0, 20)
+                    .mapToObj(i -> async.storeAsync(new ToStore("async", "file-" + i + ".bin", i % 2 == 0
+                            ? ContentSource.of(large)
+                            : ContentSource.of(new ByteArrayInputStream(large)))))
+                    .toList();
+            for (var future : stored) {
+                assertArrayEquals(large, async.downloadAsync(future.join()).join().orElseThrow().getContent());
+            }
+
+            var duplicated = async.storeAsync(new ToStore("async", "file-0.bin", CONTENT));
+            var error = assertThrows(CompletionException.class, duplicated::join);
+            assertInstanceOf(AlreadyFileExistsStorageException.class, error.getCause());
+            assertTrue(async.downloadAsync("async/missing.bin").join().isEmpty());
+
+            async.close();
+            assertThrows(IllegalStateException.class, () -> async.downloadAsync("async/file-0.bin"));
+        }
+    }
+
+    @Test
+    void listing() throws IOException {
+        storage.store(CONTENT, "a.txt", "docs");
+        storage.store(CONTENT, "b.txt", "docs/nested");
+        storage.store(CONTENT, "c.txt", "docs-other");
+        storage.store(CONTENT, "root.txt");
+
+        try (var listed = storage.list("/docs/")) {
+            var paths = listed.map(info -> info.getPath() + "/" + info.getFilename()).sorted().toList();
+            assertEquals(List.of("docs/a.txt", "docs/nested/b.txt"), paths);
+        }
+        try (var listed = storage.list()) {
+            assertEquals(4, listed.peek(info -> assertEquals(CONTENT.length, info.getFileSize())).count());
+        }
+
+        var sharded = new DiskStorage(root.resolve("sharded").toString(), DiskStorageOptions.builder().layout(DiskLayout.sharded(1)).build());
+        sharded.store(CONTENT, "a.txt", "docs");
+        sharded.store(CONTENT, "b.txt", "other");
+        try (var listed = sharded.list("docs")) {
+            assertEquals(List.of("a.txt"), listed.map(info -> info.getFilename()).toList());
+        }
+        assertThrows(InvalidPathStorageException.class, () -> storage.list("docs//nested"));
+    }
+
+    @Test
+    void persistentIndex() throws IOException {
+        var options = DiskStorageOptions.builder().indexed(true).indexSnapshotInterval(3).build();
+        var indexed = new DiskStorage(root.toString(), options);
+        for (var i = 0; i < 5; i++) indexed.store(CONTENT, "file-" + i + ".txt", "docs");
+        indexed.store(new ToStore("docs", "buffered.txt", ContentSource.of(ByteBuffer.wrap(CONTENT))));
+        indexed.storeAsync(new ToStore("docs", "streamed.txt", ContentSource.of(new ByteArrayInputStream(CONTENT)))).join();
+        indexed.remove("docs/file-0.txt");
+
+        var entry = indexed.indexed("docs/file-1.txt").orElseThrow();
+        var crc = new CRC32C();
+        crc.update(CONTENT);
+        assertEquals(crc.getValue(), entry.checksum());
+        assertEquals(crc.getValue(), indexed.indexed("docs/streamed.txt").orElseThrow().checksum());
+        assertEquals(CONTENT.length, indexed.info("docs/file-1.txt").orElseThrow().getFileSize());
+        assertEquals("text/plain", indexed.info("docs/file-1.txt").orElseThrow().getContentType());
+        assertFalse(indexed.exists("docs/file-0.txt"));
+        assertThrows(IllegalStateException.class, () -> new DiskStorage(root.toString(), options));
+        indexed.close();
+        assertThrows(IllegalStateException.class, () -> indexed.store(CONTENT, "late.txt", "docs"));
+
+        try (var reopened = new DiskStorage(root.toString(), options)) {
+            assertTrue(reopened.exists("docs/file-4.txt"));
+            assertFalse(reopened.exists("docs/file-0.txt"));
+            assertEquals(crc.getValue(), reopened.indexed("docs/file-4.txt").orElseThrow().checksum());
+            try (var listed = reopened.list("docs")) {
+                assertEquals(6, listed.count());
+            }
+        }
+
+        // Sin cierre correcto el índice se reconstruye desde los archivos, sin checksum
+        Files.delete(root.resolve(DiskLayout.INDEX_DIRECTORY).resolve("clean"));
+        Files.write(root.resolve("docs").resolve("external.txt"), CONTENT);
+        try (var rebuilt = new DiskStorage(root.toString(), options)) {
+            assertTrue(rebuilt.exists("docs/external.txt"));
+            assertEquals(DiskIndex.NO_CHECKSUM, rebuilt.indexed("docs/file-1.txt").orElseThrow().checksum());
+            assertArrayEquals(CONTENT, rebuilt.download("docs/file-1.txt").orElseThrow().getContent());
+            try (var listed = rebuilt.list()) {
+                assertEquals(7, listed.count());
+            }
+        }
+    }
+
+    @Test
+    void attributes() throws IOException {
+        assumeTrue(storage.supportsAttributes(), "File system without user attributes");
+        var attributes = Map.of("owner", "disk");
+        storage.store(new ToStore(PathFile.of("docs/plain.txt"), ContentSource.of(CONTENT), attributes));
+        storage.storeAsync(new ToStore(PathFile.of("docs/async.txt"), ContentSource.of(CONTENT), attributes)).join();
+
+        assertEquals(attributes, storage.info("docs/plain.txt").orElseThrow().getAttributes());
+        assertEquals(attributes, storage.download("docs/async.txt").orElseThrow().getInfo().getAttributes());
+        try (var opened = storage.openStream("docs/plain.txt").orElseThrow()) {
+            assertEquals(attributes, opened.getInfo().getAttributes());
+        }
+        try (var listed = storage.list("docs")) {
+            assertTrue(listed.allMatch(info -> info.getAttributes().equals(attributes)));
+        }
+
+        var options = DiskStorageOptions.builder().indexed(true).build();
+        try (var indexed = new DiskStorage(root.toString(), options)) {
+            assertEquals(attributes, indexed.info("docs/plain.txt").orElseThrow().getAttributes());
+            indexed.store(new ToStore(PathFile.of("docs/indexed.txt"), ContentSource.of(CONTENT), attributes));
+        }
+        try (var reopened = new DiskStorage(root.toString(), options)) {
+            assertEquals(attributes, reopened.info("docs/indexed.txt").orElseThrow().getAttributes());
+        }
+    }
+
+    @Test
+    void reservedDirectories() throws IOException {
+        assertThrows(InvalidPathStorageException.class, () -> storage.store(CONTENT, "user.txt", ".tmp"));
+        assertThrows(InvalidPathStorageException.class, () -> storage.info(".index/lock"));
+        assertThrows(InvalidPathStorageException.class, () -> storage.list(".shards"));
+
+        var other = root.resolve("other");
+        Files.createDirectories(other.resolve(".tmp"));
+        Files.write(other.resolve(".tmp").resolve("user.txt"), CONTENT);
+        assertThrows(IllegalStateException.class, () -> new DiskStorage(other.toString()));
+        assertArrayEquals(CONTENT, Files.readAllBytes(other.resolve(".tmp").resolve("user.txt")));
+    }
+
+    @Test
+    void remove() throws IOException {
+        var fullPath = storage.store(CONTENT, "remove.txt");
+        storage.remove(fullPath);
+
+        assertFalse(storage.exists(fullPath));
+    }
+}
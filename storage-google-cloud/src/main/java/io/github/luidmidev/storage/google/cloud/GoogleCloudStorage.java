@@ -1,16 +1,33 @@
 package io.github.luidmidev.storage.google.cloud;
 
 import com.google.cloud.storage.Blob;
+import com.google.cloud.storage.BlobId;
+import com.google.cloud.storage.BlobInfo;
 import com.google.cloud.storage.Bucket;
+import com.google.cloud.storage.Storage.BlobListOption;
+import io.github.luidmidev.storage.ByteRange;
+import io.github.luidmidev.storage.ContentSource;
 import io.github.luidmidev.storage.PathFile;
 import io.github.luidmidev.storage.Storage;
 import io.github.luidmidev.storage.Stored;
+import io.github.luidmidev.storage.StoredStream;
 import io.github.luidmidev.storage.ToStore;
 import io.github.luidmidev.storage.exceptions.FileNotFoundStorageException;
+import io.github.luidmidev.storage.exceptions.PartialRemovalStorageException;
+import io.github.luidmidev.storage.exceptions.StorageException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import static io.github.luidmidev.storage.StorageUtils.*;
 
@@ -18,13 +35,30 @@ import static io.github.luidmidev.storage.StorageUtils.*;
 @RequiredArgsConstructor
 public class GoogleCloudStorage extends Storage {
 
+    private static final int MAX_BATCH_SIZE = 100;
+    private static final int LIST_PAGE_SIZE = 1000;
+
     private final Bucket bucket;
 
     @Override
-    protected void internalStore(final ToStore toStore) {
+    protected void internalStore(final ToStore toStore) throws IOException {
         var contentType = guessContentType(toStore.getFilename());
-        var blob = bucket.create(toStore.getCompletePath(), toStore.getContent(), contentType);
-        log.debug("Stored blob: {}", blob.getName());
+        var blobName = toStore.getCompletePath();
+        var blobInfo = BlobInfo.newBuilder(bucket.getName(), blobName)
+                .setContentType(contentType)
+                .setMetadata(toStore.getAttributes().isEmpty() ? null : toStore.getAttributes())
+                .build();
+
+        if (toStore.getSource() instanceof ContentSource.Bytes(var content)) {
+            var blob = bucket.getStorage().create(blobInfo, content);
+            log.debug("Stored blob: {}", blob.getName());
+            return;
+        }
+
+        try (var writer = bucket.getStorage().writer(blobInfo)) {
+            var written = toStore.getSource().transferTo(writer);
+            log.debug("Stored blob: {} with {} bytes", blobName, written);
+        }
     }
 
     @Override
@@ -44,10 +78,52 @@ public class GoogleCloudStorage extends Storage {
                 blob.getSize(),
                 filename,
                 path,
-                blob.getContentType()
+                blob.getContentType(),
+                attributesOf(blob)
         ));
     }
 
+    @Override
+    protected Optional<StoredStream> internalOpenStream(final PathFile pathFile) {
+
+        var blob = getBlob(pathFile.getCompletePath());
+        if (blob == null || !blob.exists()) {
+            return Optional.empty();
+        }
+
+        var info = constructFileInfo(
+                pathFile.getFilename(),
+                blob.getSize(),
+                pathFile.getPath(),
+                blob.getContentType(),
+                attributesOf(blob)
+        );
+        return Optional.of(StoredStream.ofChannel(info, blob::reader));
+    }
+
+    @Override
+    protected Optional<StoredStream> internalOpenStream(final PathFile pathFile, final ByteRange range) {
+
+        var blob = getBlob(pathFile.getCompletePath());
+        if (blob == null || !blob.exists()) {
+            return Optional.empty();
+        }
+
+        var info = constructFileInfo(
+                pathFile.getFilename(),
+                blob.getSize(),
+                pathFile.getPath(),
+                blob.getContentType(),
+                attributesOf(blob)
+        );
+        var clamped = range.clamp(blob.getSize());
+        return Optional.of(StoredStream.ofChannel(info, clamped, () -> {
+            var reader = blob.reader();
+            reader.seek(clamped.offset());
+            return reader.limit(clamped.end());
+        }));
+    }
+
     @Override
     protected Optional<Stored.Info> internalInfo(final PathFile pathFile) {
 
@@ -63,7 +139,8 @@ public class GoogleCloudStorage extends Storage {
                 filename,
                 blob.getSize(),
                 path,
-                blob.getContentType()
+                blob.getContentType(),
+                attributesOf(blob)
         ));
     }
 
@@ -73,6 +150,71 @@ public class GoogleCloudStorage extends Storage {
         return blob != null && blob.exists();
     }
 
+    /**
+     * Los blobs se consultan con solicitudes por lotes, cada lote admite hasta {@value #MAX_BATCH_SIZE} operaciones.
+     * El lote retorna nulo para los blobs que no existen, por lo que no se consulta cada blob encontrado.
+     */
+    @Override
+    protected Set<String> internalExistsAll(final Collection<? extends PathFile> pathFiles) {
+        var names = pathFiles.stream().map(PathFile::getCompletePath).distinct().toList();
+        var existing = new HashSet<String>();
+        for (var from = 0; from < names.size(); from += MAX_BATCH_SIZE) {
+            var chunk = names.subList(from, Math.min(from + MAX_BATCH_SIZE, names.size()));
+            for (var blob : bucket.get(chunk)) {
+                if (blob != null) existing.add(blob.getName());
+            }
+        }
+        return existing;
+    }
+
+    /**
+     * Los blobs se listan por prefijo en páginas de hasta {@value #LIST_PAGE_SIZE} blobs, la siguiente página se
+     * solicita con su token al terminar de consumir la anterior
+     */
+    @Override
+    protected Stream<Stored.Info> internalList(final String path) {
+        var page = path.isEmpty()
+                ? bucket.list(BlobListOption.pageSize(LIST_PAGE_SIZE))
+                : bucket.list(BlobListOption.prefix(path + "/"), BlobListOption.pageSize(LIST_PAGE_SIZE));
+
+        return StreamSupport.stream(page.iterateAll().spliterator(), false)
+                .flatMap(blob -> infoOf(blob).stream());
+    }
+
+    /**
+     * @return Información del blob, vacío si su nombre no es una ruta válida, como los marcadores de directorio
+     */
+    private static Optional<Stored.Info> infoOf(Blob blob) {
+        try {
+            var pathFile = PathFile.of(blob.getName());
+            return Optional.of(constructFileInfo(pathFile.getFilename(), blob.getSize(), pathFile.getPath(), blob.getContentType(), attributesOf(blob)));
+        } catch (StorageException e) {
+            log.debug("Skipping blob with invalid name {}", blob.getName());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * @return Atributos del archivo guardados en los metadatos personalizados del blob, sin los valores nulos
+     */
+    private static Map<String, String> attributesOf(Blob blob) {
+        var metadata = blob.getMetadata();
+        if (metadata == null || metadata.isEmpty()) return Map.of();
+        var attributes = new HashMap<String, String>();
+        metadata.forEach((key, value) -> {
+            if (value != null) attributes.put(key, value);
+        });
+        return Map.copyOf(attributes);
+    }
+
+    /**
+     * Los atributos se guardan en los metadatos personalizados del blob
+     */
+    @Override
+    public boolean supportsAttributes() {
+        return true;
+    }
+
     @Override
     protected void internalRemove(final PathFile pathFile) {
         var blob = getBlob(pathFile.getCompletePath());
@@ -82,6 +224,27 @@ public class GoogleCloudStorage extends Storage {
         blob.delete();
     }
 
+    /**
+     * Los blobs se eliminan con solicitudes por lotes de hasta {@value #MAX_BATCH_SIZE} operaciones, los blobs que no
+     * existen se reportan como fallidos
+     */
+    @Override
+    protected void internalRemoveAll(final Collection<? extends PathFile> pathFiles) {
+        var requested = pathFiles.stream().toList();
+        var failures = new LinkedHashMap<String, Exception>();
+        for (var from = 0; from < requested.size(); from += MAX_BATCH_SIZE) {
+            var chunk = requested.subList(from, Math.min(from + MAX_BATCH_SIZE, requested.size()));
+            var blobIds = chunk.stream().map(pathFile -> BlobId.of(bucket.getName(), pathFile.getCompletePath())).toList();
+            var deleted = bucket.getStorage().delete(blobIds);
+            for (var i = 0; i < chunk.size(); i++) {
+                if (Boolean.TRUE.equals(deleted.get(i))) continue;
+                var pathFile = chunk.get(i);
+                failures.put(pathFile.getCompletePath(), new FileNotFoundStorageException(pathFile));
+            }
+        }
+        if (!failures.isEmpty()) throw new PartialRemovalStorageException(failures);
+    }
+
     private Blob getBlob(String blobName) {
         return bucket.get(blobName);
     }
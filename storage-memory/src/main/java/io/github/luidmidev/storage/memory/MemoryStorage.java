@@ -0,0 +1,356 @@
+package io.github.luidmidev.storage.memory;
+
+import io.github.luidmidev.storage.*;
+import io.github.luidmidev.storage.exceptions.AlreadyFileExistsStorageException;
+import io.github.luidmidev.storage.exceptions.FileNotFoundStorageException;
+import io.github.luidmidev.storage.exceptions.InsufficientCapacityStorageException;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import static io.github.luidmidev.storage.StorageUtils.constructFileInfo;
+import static io.github.luidmidev.storage.StorageUtils.guessContentType;
+
+/**
+ * Almacen que conserva el contenido de los archivos en memoria, indexado por su ruta completa en un mapa concurrente.
+ * Las lecturas no toman bloqueos y comparten el contenido almacenado sin copiarlo, salvo {@code download} que entrega
+ * una copia. El almacenamiento es atómico: si dos hilos almacenan la misma ruta solo uno lo logra.
+ * <p>
+ * Con la política {@link MemoryStorageOptions.EvictionPolicy#EVICT} los archivos se desalojan con el algoritmo del
+ * reloj, una aproximación al desalojo por uso menos reciente que no requiere reordenar una lista en cada lectura: cada
+ * lectura marca el archivo y el desalojo da una segunda oportunidad a los archivos marcados.
+ */
+@Slf4j
+public class MemoryStorage extends Storage {
+
+    private static final long MAX_FILE_SIZE = Integer.MAX_VALUE - 8;
+
+    /**
+     * Cantidad mínima de posiciones de archivos eliminados en la cola de desalojo antes de depurarla
+     */
+    private static final int MIN_REMOVED_SLOTS = 1024;
+
+    /**
+     * Posición de un archivo en la cola de desalojo, se marca al leer el archivo y al eliminarlo
+     */
+    private static final class Slot {
+        private final String key;
+        private volatile boolean referenced;
+        private volatile boolean removed;
+
+        private Slot(String key) {
+            this.key = key;
+        }
+    }
+
+    private record Entry(Stored.Info info, ByteBuffer content, Slot slot) {
+
+        private int size() {
+            return content.capacity();
+        }
+
+        private ByteBuffer read() {
+            slot.referenced = true;
+            return content.duplicate();
+        }
+    }
+
+    private final ConcurrentHashMap<String, Entry> files = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Slot> clock = new ConcurrentLinkedQueue<>();
+    private final AtomicLong usedBytes = new AtomicLong();
+    private final AtomicInteger fileCount = new AtomicInteger();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicInteger removedSlots = new AtomicInteger();
+    private final AtomicBoolean purging = new AtomicBoolean();
+    private final MemoryStorageOptions options;
+
+    public MemoryStorage() {
+        this(MemoryStorageOptions.defaults());
+    }
+
+    public MemoryStorage(MemoryStorageOptions options) {
+        if (options.getMaxBytes() <= 0) throw new IllegalArgumentException("Max bytes must be positive: " + options.getMaxBytes());
+        if (options.getMaxFiles() <= 0) throw new IllegalArgumentException("Max files must be positive: " + options.getMaxFiles());
+        this.options = options;
+    }
+
+    @Override
+    protected void internalStore(final ToStore toStore) throws IOException {
+        var key = toStore.getCompletePath();
+        if (files.containsKey(key)) throw new AlreadyFileExistsStorageException(toStore);
+
+        var content = read(toStore.getSource()).asReadOnlyBuffer();
+        var size = content.capacity();
+        var info = constructFileInfo(toStore.getFilename(), size, toStore.getPath(), guessContentType(toStore.getFilename()), toStore.getAttributes());
+        var entry = new Entry(info, content, new Slot(key));
+
+        reserve(toStore, size);
+        if (files.putIfAbsent(key, entry) != null) {
+            release(size);
+            throw new AlreadyFileExistsStorageException(toStore);
+        }
+        log.debug("Stored {} bytes on {}", size, key);
+
+        if (options.getEvictionPolicy() == MemoryStorageOptions.EvictionPolicy.EVICT) {
+            clock.offer(entry.slot());
+            evict(entry.slot());
+        }
+    }
+
+    @Override
+    protected Optional<Stored> internalDownload(final PathFile pathFile) {
+        var entry = files.get(pathFile.getCompletePath());
+        if (entry == null) return Optional.empty();
+
+        var content = entry.read();
+        var bytes = new byte[content.remaining()];
+        content.get(bytes);
+        return Optional.of(Stored.builder().content(bytes).info(entry.info().toBuilder().build()).build());
+    }
+
+    @Override
+    protected Optional<StoredStream> internalOpenStream(final PathFile pathFile) {
+        var entry = files.get(pathFile.getCompletePath());
+        if (entry == null) return Optional.empty();
+
+        var content = entry.read();
+        return Optional.of(StoredStream.ofStream(entry.info().toBuilder().build(), () -> new ByteBufferInputStream(content)));
+    }
+
+    @Override
+    protected Optional<StoredStream> internalOpenStream(final PathFile pathFile, final ByteRange range) {
+        var entry = files.get(pathFile.getCompletePath());
+        if (entry == null) return Optional.empty();
+
+        var clamped = range.clamp(entry.size());
+        var slice = entry.read().slice((int) clamped.offset(), (int) clamped.length());
+        return Optional.of(StoredStream.ofStream(entry.info().toBuilder().build(), clamped, () -> new ByteBufferInputStream(slice)));
+    }
+
+    @Override
+    protected long internalTransferTo(final PathFile pathFile, final WritableByteChannel target) throws IOException {
+        var entry = files.get(pathFile.getCompletePath());
+        if (entry == null) throw new FileNotFoundStorageException(pathFile);
+
+        var content = entry.read();
+        long written = 0;
+        while (content.hasRemaining()) written += target.write(content);
+        return written;
+    }
+
+    @Override
+    protected Optional<Stored.Info> internalInfo(final PathFile pathFile) {
+        var entry = files.get(pathFile.getCompletePath());
+        return entry == null ? Optional.empty() : Optional.of(entry.info().toBuilder().build());
+    }
+
+    @Override
+    public boolean supportsAttributes() {
+        return true;
+    }
+
+    @Override
+    protected boolean internalExists(final PathFile pathFile) {
+        return files.containsKey(pathFile.getCompletePath());
+    }
+
+    @Override
+    protected Set<String> internalExistsAll(final Collection<? extends PathFile> pathFiles) {
+        var existing = new HashSet<String>();
+        for (var pathFile : pathFiles) {
+            if (files.containsKey(pathFile.getCompletePath())) existing.add(pathFile.getCompletePath());
+        }
+        return existing;
+    }
+
+    /**
+     * El recorrido del mapa no copia sus entradas y refleja los cambios concurrentes
+     */
+    @Override
+    protected Stream<Stored.Info> internalList(final String path) {
+        return files.values().stream()
+                .filter(entry -> StorageUtils.isUnderPath(entry.info().getPath(), path))
+                .map(entry -> entry.info().toBuilder().build());
+    }
+
+    @Override
+    protected void internalRemove(final PathFile pathFile) {
+        var removed = files.remove(pathFile.getCompletePath());
+        if (removed == null) throw new FileNotFoundStorageException(pathFile);
+        release(removed.size());
+
+        if (options.getEvictionPolicy() == MemoryStorageOptions.EvictionPolicy.EVICT) {
+            removed.slot().removed = true;
+            removedSlots.incrementAndGet();
+            purgeRemovedSlots();
+        }
+    }
+
+    /**
+     * @return Cantidad de posiciones en la cola de desalojo, incluidas las de archivos eliminados aún no depuradas
+     */
+    int clockSize() {
+        return clock.size();
+    }
+
+    /**
+     * @return Cantidad de bytes almacenados
+     */
+    public long usedBytes() {
+        return usedBytes.get();
+    }
+
+    /**
+     * @return Cantidad de archivos almacenados
+     */
+    public int fileCount() {
+        return fileCount.get();
+    }
+
+    /**
+     * @return Cantidad total de archivos desalojados
+     */
+    public long evictionCount() {
+        return evictions.get();
+    }
+
+    /**
+     * Lee el contenido en un buffer propio. Fuera del heap el contenido de tamaño conocido se escribe directamente en
+     * el buffer directo, sin pasar por un arreglo intermedio.
+     */
+    private ByteBuffer read(ContentSource source) throws IOException {
+        var size = source.size();
+        if (size > MAX_FILE_SIZE) throw new IOException("File too large to store in memory (" + size + " bytes)");
+
+        if (options.isOffHeap() && size != ContentSource.UNKNOWN_SIZE) {
+            var buffer = ByteBuffer.allocateDirect((int) size);
+            source.transferTo(new FixedBufferChannel(buffer));
+            if (buffer.hasRemaining()) throw new IOException("Content ended after " + buffer.position() + " of " + size + " bytes");
+            return buffer.flip();
+        }
+
+        // El contenido en memoria de un ToStore pertenece a quien lo creó, por lo que se copia
+        var bytes = source instanceof ContentSource.Bytes(var content) ? content.clone() : source.readAllBytes();
+        if (!options.isOffHeap()) return ByteBuffer.wrap(bytes);
+        return ByteBuffer.allocateDirect(bytes.length).put(bytes).flip();
+    }
+
+    private void reserve(PathFile pathFile, int size) {
+        var maxBytes = options.getMaxBytes();
+        if (size > maxBytes) throw new InsufficientCapacityStorageException(pathFile, size, maxBytes);
+
+        if (options.getEvictionPolicy() == MemoryStorageOptions.EvictionPolicy.EVICT) {
+            usedBytes.addAndGet(size);
+            fileCount.incrementAndGet();
+            return;
+        }
+
+        long used;
+        do {
+            used = usedBytes.get();
+            if (used + size > maxBytes) throw new InsufficientCapacityStorageException(pathFile, size, maxBytes - used);
+        } while (!usedBytes.compareAndSet(used, used + size));
+
+        int count;
+        do {
+            count = fileCount.get();
+            if (count >= options.getMaxFiles()) {
+                usedBytes.addAndGet(-size);
+                throw new InsufficientCapacityStorageException(pathFile, size, 0);
+            }
+        } while (!fileCount.compareAndSet(count, count + 1));
+    }
+
+    private void release(int size) {
+        usedBytes.addAndGet(-size);
+        fileCount.decrementAndGet();
+    }
+
+    private boolean overCapacity() {
+        return usedBytes.get() > options.getMaxBytes() || fileCount.get() > options.getMaxFiles();
+    }
+
+    /**
+     * Desaloja archivos hasta volver a la capacidad del almacen. Los archivos marcados se desmarcan y vuelven al final
+     * de la cola; el archivo recién almacenado nunca se desaloja, por lo que si se recorre la cola completa sin
+     * encontrar otro archivo el desalojo termina.
+     */
+    private void evict(Slot inserted) {
+        var insertedSeen = 0;
+        while (overCapacity()) {
+            var slot = clock.poll();
+            if (slot == null) return;
+
+            if (slot.removed) continue;
+            var entry = files.get(slot.key);
+            if (entry == null || entry.slot() != slot) continue;
+
+            if (slot == inserted) {
+                clock.offer(slot);
+                if (++insertedSeen > 1) return;
+                continue;
+            }
+            if (slot.referenced) {
+                slot.referenced = false;
+                clock.offer(slot);
+                continue;
+            }
+            if (files.remove(slot.key, entry)) {
+                release(entry.size());
+                evictions.incrementAndGet();
+                log.debug("Evicted {} from memory storage", slot.key);
+            }
+        }
+    }
+
+    /**
+     * Quita de la cola de desalojo las posiciones de los archivos eliminados cuando superan a los archivos almacenados,
+     * para que almacenar y eliminar archivos sin alcanzar la capacidad no haga crecer la cola. El recorrido es lineal,
+     * pero solo se realiza tras una cantidad de eliminaciones proporcional al tamaño de la cola.
+     */
+    private void purgeRemovedSlots() {
+        if (removedSlots.get() <= Math.max(MIN_REMOVED_SLOTS, fileCount.get())) return;
+        if (!purging.compareAndSet(false, true)) return;
+        try {
+            removedSlots.set(0);
+            clock.removeIf(slot -> slot.removed);
+        } finally {
+            purging.set(false);
+        }
+    }
+
+    /**
+     * Canal que escribe en un buffer de tamaño fijo y falla si el contenido excede su capacidad
+     */
+    private record FixedBufferChannel(ByteBuffer buffer) implements WritableByteChannel {
+
+        @Override
+        public int write(ByteBuffer src) throws IOException {
+            var count = src.remaining();
+            if (count > buffer.remaining()) throw new IOException("Content exceeds its declared size of " + buffer.capacity() + " bytes");
+            buffer.put(src);
+            return count;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
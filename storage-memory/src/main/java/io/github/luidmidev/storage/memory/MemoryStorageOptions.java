@@ -0,0 +1,51 @@
+package io.github.luidmidev.storage.memory;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Opciones de configuración de un {@link MemoryStorage}
+ */
+@Getter
+@Builder
+public class MemoryStorageOptions {
+
+    /**
+     * Política aplicada cuando un archivo nuevo excede la capacidad del almacen
+     */
+    public enum EvictionPolicy {
+        /**
+         * Rechaza el archivo nuevo, adecuada cuando el almacen es la única copia de los archivos
+         */
+        REJECT,
+        /**
+         * Desaloja los archivos usados menos recientemente, adecuada cuando el almacen es un nivel de acceso rápido
+         * sobre otro almacen
+         */
+        EVICT
+    }
+
+    /**
+     * Cantidad máxima de bytes almacenados
+     */
+    @Builder.Default
+    private final long maxBytes = Long.MAX_VALUE;
+
+    /**
+     * Cantidad máxima de archivos almacenados
+     */
+    @Builder.Default
+    private final int maxFiles = Integer.MAX_VALUE;
+
+    /**
+     * Si el contenido se almacena en buffers directos fuera del heap
+     */
+    private final boolean offHeap;
+
+    @Builder.Default
+    private final EvictionPolicy evictionPolicy = EvictionPolicy.REJECT;
+
+    public static MemoryStorageOptions defaults() {
+        return builder().build();
+    }
+}
@@ -0,0 +1,117 @@
+package io.github.luidmidev.storage.memory;
+
+import io.github.luidmidev.storage.ToStore;
+import io.github.luidmidev.storage.exceptions.AlreadyFileExistsStorageException;
+import io.github.luidmidev.storage.exceptions.InsufficientCapacityStorageException;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MemoryStorageTest {
+
+    private static final byte[] CONTENT = "Hello from memory storage".getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    void storeAndRead() throws IOException {
+        var storage = new MemoryStorage();
+        var fullPath = storage.store(new ByteArrayInputStream(CONTENT), "file.txt", "memory");
+
+        assertArrayEquals(CONTENT, storage.download(fullPath).orElseThrow().getContent());
+        assertArrayEquals(Arrays.copyOfRange(CONTENT, 6, 10), storage.download(fullPath, 6, 4).orElseThrow().getContent());
+        assertEquals(CONTENT.length, storage.info(fullPath).orElseThrow().getFileSize());
+
+        var out = new ByteArrayOutputStream();
+        assertEquals(CONTENT.length, storage.transferTo(fullPath, Channels.newChannel(out)));
+        assertArrayEquals(CONTENT, out.toByteArray());
+
+        storage.remove(fullPath);
+        assertFalse(storage.exists(fullPath));
+        assertEquals(0, storage.usedBytes());
+    }
+
+    @Test
+    void offHeapCopiesContent() throws IOException {
+        var storage = new MemoryStorage(MemoryStorageOptions.builder().offHeap(true).build());
+        var content = CONTENT.clone();
+        var fullPath = storage.store(content, "file.txt");
+        content[0] = 0;
+
+        assertArrayEquals(CONTENT, storage.download(fullPath).orElseThrow().getContent());
+    }
+
+    @Test
+    void concurrentStoreOfSamePath() throws Exception {
+        var storage = new MemoryStorage();
+        Callable<Boolean> store = () -> {
+            try {
+                storage.store(new ToStore("race", "file.txt", CONTENT));
+                return true;
+            } catch (AlreadyFileExistsStorageException e) {
+                return false;
+            }
+        };
+
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            var results = executor.invokeAll(IntStream.range(0, 32).mapToObj(i -> store).toList());
+            var stored = 0;
+            for (var result : results) if (result.get()) stored++;
+            assertEquals(1, stored);
+        }
+        assertEquals(1, storage.fileCount());
+    }
+
+    @Test
+    void rejectWhenFull() throws IOException {
+        var storage = new MemoryStorage(MemoryStorageOptions.builder().maxBytes(CONTENT.length * 2L).build());
+        storage.store(CONTENT, "a.txt");
+        storage.store(CONTENT, "b.txt");
+
+        assertThrows(InsufficientCapacityStorageException.class, () -> storage.store(CONTENT, "c.txt"));
+        assertEquals(2, storage.fileCount());
+    }
+
+    @Test
+    void evictLeastRecentlyUsed() throws IOException {
+        var storage = new MemoryStorage(MemoryStorageOptions.builder()
+                .maxFiles(2)
+                .evictionPolicy(MemoryStorageOptions.EvictionPolicy.EVICT)
+                .build());
+        storage.store(CONTENT, "a.txt");
+        storage.store(CONTENT, "b.txt");
+        storage.download("a.txt");
+        storage.store(CONTENT, "c.txt");
+
+        assertTrue(storage.exists("a.txt"));
+        assertFalse(storage.exists("b.txt"));
+        assertTrue(storage.exists("c.txt"));
+        assertEquals(1, storage.evictionCount());
+    }
+
+    @Test
+    void removedFilesLeaveEvictionQueue() throws IOException {
+        var storage = new MemoryStorage(MemoryStorageOptions.builder()
+                .maxFiles(100)
+                .evictionPolicy(MemoryStorageOptions.EvictionPolicy.EVICT)
+                .build());
+        storage.store(CONTENT, "kept.txt");
+        for (var i = 0; i < 10_000; i++) {
+            var fullPath = storage.store(CONTENT, "file-" + i + ".txt", "churn");
+            storage.remove(fullPath);
+        }
+
+        assertEquals(1, storage.fileCount());
+        assertTrue(storage.clockSize() <= 2048, "Eviction queue holds " + storage.clockSize() + " slots");
+        assertEquals(0, storage.evictionCount());
+        assertTrue(storage.exists("kept.txt"));
+    }
+}
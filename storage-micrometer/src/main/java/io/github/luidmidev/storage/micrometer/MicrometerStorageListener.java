@@ -0,0 +1,110 @@
+package io.github.luidmidev.storage.micrometer;
+
+import io.github.luidmidev.storage.RemovalPipeline;
+import io.github.luidmidev.storage.metrics.StorageEvent;
+import io.github.luidmidev.storage.metrics.StorageListener;
+import io.github.luidmidev.storage.metrics.StorageOperation;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Publica en un {@link MeterRegistry} las operaciones registradas por un
+ * {@link io.github.luidmidev.storage.metrics.InstrumentedStorage}:
+ * <ul>
+ *     <li>{@code storage.operations}: histograma de la duración de las operaciones, por resultado</li>
+ *     <li>{@code storage.operations.active}: operaciones en curso</li>
+ *     <li>{@code storage.bytes}: bytes escritos o leídos por operación</li>
+ *     <li>{@code storage.files.failed}: archivos cuya operación falló</li>
+ * </ul>
+ * Todas las métricas llevan las etiquetas {@code storage}, {@code operation} y {@code prefix}, esta última vacía salvo
+ * que el almacen instrumentado configure cómo obtener el prefijo.
+ */
+public class MicrometerStorageListener implements StorageListener {
+
+    private record Key(String storage, StorageOperation operation, String prefix) {
+
+        private Tags tags() {
+            return Tags.of("storage", storage, "operation", operation.name().toLowerCase(), "prefix", prefix);
+        }
+    }
+
+    private final MeterRegistry registry;
+    private final ConcurrentHashMap<Key, AtomicInteger> active = new ConcurrentHashMap<>();
+
+    public MicrometerStorageListener(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public void started(String storage, StorageOperation operation, String prefix) {
+        active(new Key(storage, operation, prefix)).incrementAndGet();
+    }
+
+    @Override
+    public void completed(StorageEvent event) {
+        var key = new Key(event.storage(), event.operation(), event.prefix());
+        active(key).decrementAndGet();
+
+        var tags = key.tags();
+        Timer.builder("storage.operations")
+                .tags(tags)
+                .tag("outcome", event.succeeded() ? "success" : "error")
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(event.durationNanos(), TimeUnit.NANOSECONDS);
+
+        if (event.bytes() != StorageEvent.UNKNOWN_BYTES) {
+            DistributionSummary.builder("storage.bytes")
+                    .tags(tags)
+                    .baseUnit("bytes")
+                    .register(registry)
+                    .record(event.bytes());
+        }
+
+        if (event.failedFiles() > 0) {
+            Counter.builder("storage.files.failed")
+                    .tags(tags)
+                    .register(registry)
+                    .increment(event.failedFiles());
+        }
+    }
+
+    private AtomicInteger active(Key key) {
+        return active.computeIfAbsent(key, created -> {
+            var count = new AtomicInteger();
+            Gauge.builder("storage.operations.active", count, AtomicInteger::get)
+                    .tags(created.tags())
+                    .register(registry);
+            return count;
+        });
+    }
+
+    /**
+     * Publica el estado de las eliminaciones asíncronas de un almacen
+     *
+     * @param pipeline Ejecutor de las eliminaciones del almacen
+     * @param registry Registro de métricas
+     * @param storage  Nombre del almacen
+     */
+    public static void bindRemovalPipeline(RemovalPipeline pipeline, MeterRegistry registry, String storage) {
+        var tags = Tags.of("storage", storage);
+        Gauge.builder("storage.removal.pending", pipeline, RemovalPipeline::pendingCount)
+                .tags(tags)
+                .register(registry);
+        FunctionCounter.builder("storage.removal.removed", pipeline, RemovalPipeline::removedCount)
+                .tags(tags)
+                .register(registry);
+        FunctionCounter.builder("storage.removal.failed", pipeline, RemovalPipeline::failedCount)
+                .tags(tags)
+                .register(registry);
+    }
+}
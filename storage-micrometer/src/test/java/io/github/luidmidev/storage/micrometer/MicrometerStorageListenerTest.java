@@ -0,0 +1,59 @@
+package io.github.luidmidev.storage.micrometer;
+
+import io.github.luidmidev.storage.memory.MemoryStorage;
+import io.github.luidmidev.storage.metrics.InstrumentedStorage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MicrometerStorageListenerTest {
+
+    private static final byte[] CONTENT = "Hello from instrumented storage".getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    void recordOperations() throws Exception {
+        var registry = new SimpleMeterRegistry();
+        var storage = InstrumentedStorage.builder(new MemoryStorage())
+                .name("memory")
+                .prefix(InstrumentedStorage::firstSegment)
+                .listener(new MicrometerStorageListener(registry))
+                .build();
+        MicrometerStorageListener.bindRemovalPipeline(storage.getRemovalPipeline(), registry, "memory");
+
+        var fullPath = storage.store(new ByteArrayInputStream(CONTENT), "file.txt", "docs");
+        storage.download(fullPath);
+        assertThrows(Exception.class, () -> storage.remove("docs/missing.txt"));
+        var handle = storage.batchExecution(state -> state.remove(fullPath));
+        assertTrue(handle.await(Duration.ofSeconds(10)));
+
+        var stores = registry.get("storage.operations").tags("storage", "memory", "operation", "store", "prefix", "docs", "outcome", "success").timer();
+        assertEquals(1, stores.count());
+        assertEquals(CONTENT.length, registry.get("storage.bytes").tags("operation", "store").summary().totalAmount());
+        assertEquals(CONTENT.length, registry.get("storage.bytes").tags("operation", "download").summary().totalAmount());
+        assertEquals(1, registry.get("storage.operations").tags("operation", "remove", "outcome", "error").timer().count());
+        assertEquals(0, registry.get("storage.operations.active").tags("operation", "store").gauge().value());
+        assertEquals(1, registry.get("storage.removal.removed").functionCounter().count());
+    }
+
+    @Test
+    void noPrefixByDefault() throws Exception {
+        var registry = new SimpleMeterRegistry();
+        var storage = InstrumentedStorage.builder(new MemoryStorage())
+                .name("memory")
+                .listener(new MicrometerStorageListener(registry))
+                .build();
+
+        storage.store(new ByteArrayInputStream(CONTENT), "file.txt", "users/1");
+        storage.store(new ByteArrayInputStream(CONTENT), "file.txt", "users/2");
+
+        var stores = registry.get("storage.operations").tags("operation", "store").timers();
+        assertEquals(1, stores.size());
+        assertEquals(InstrumentedStorage.NO_PREFIX, stores.iterator().next().getId().getTag("prefix"));
+        assertEquals(2, stores.iterator().next().count());
+    }
+}
@@ -0,0 +1,41 @@
+package io.github.luidmidev.storage.springframework.data.jpa;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Convierte los atributos de un archivo en una cadena con el formato {@code clave=valor&clave=valor}, con las claves
+ * y los valores codificados como en un formulario URL. Los archivos sin atributos se guardan como nulos.
+ */
+@Converter
+public class FileAttributesConverter implements AttributeConverter<Map<String, String>, String> {
+
+    @Override
+    public String convertToDatabaseColumn(Map<String, String> attributes) {
+        if (attributes == null || attributes.isEmpty()) return null;
+        return new TreeMap<>(attributes).entrySet().stream()
+                .map(entry -> URLEncoder.encode(entry.getKey(), UTF_8) + "=" + URLEncoder.encode(entry.getValue(), UTF_8))
+                .collect(Collectors.joining("&"));
+    }
+
+    @Override
+    public Map<String, String> convertToEntityAttribute(String column) {
+        if (column == null || column.isEmpty()) return Map.of();
+        var attributes = new HashMap<String, String>();
+        for (var pair : column.split("&")) {
+            var separator = pair.indexOf('=');
+            if (separator < 0) continue;
+            attributes.put(URLDecoder.decode(pair.substring(0, separator), UTF_8), URLDecoder.decode(pair.substring(separator + 1), UTF_8));
+        }
+        return Map.copyOf(attributes);
+    }
+}
@@ -6,7 +6,9 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.sql.Blob;
 import java.time.LocalDateTime;
+import java.util.Map;
 import java.util.UUID;
 
 @Entity
@@ -30,13 +32,24 @@ public class FileStored {
     @Column(name = "original_file_name", nullable = false)
     private String originalFileName;
 
+    /**
+     * Ruta del directorio del archivo, sin el nombre del archivo
+     */
     @Column(nullable = false)
     private String path;
 
     @Column(nullable = false)
     private LocalDateTime uploadedAt;
 
+    /**
+     * Atributos del archivo, como los que registra un almacen que comprime su contenido
+     */
+    @Builder.Default
+    @Convert(converter = FileAttributesConverter.class)
+    @Column(length = 4096)
+    private Map<String, String> attributes = Map.of();
+
     @Lob
     @Column(columnDefinition = "LONGBLOB")
-    private byte[] content;
+    private Blob content;
 }
\ No newline at end of file
@@ -1,7 +1,12 @@
 package io.github.luidmidev.storage.springframework.data.jpa;
 
+import java.util.Map;
+import java.util.UUID;
+
 public interface FileStoredProjection {
 
+    UUID getId();
+
     Long getContentLength();
 
     String getContentType();
@@ -9,4 +14,6 @@ public interface FileStoredProjection {
     String getOriginalFileName();
 
     String getPath();
+
+    Map<String, String> getAttributes();
 }
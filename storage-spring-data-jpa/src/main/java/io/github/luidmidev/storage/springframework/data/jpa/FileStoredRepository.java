@@ -1,8 +1,15 @@
 package io.github.luidmidev.storage.springframework.data.jpa;
 
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -14,6 +21,78 @@ public interface FileStoredRepository extends JpaRepository<FileStored, UUID> {
 
     boolean existsByOriginalFileNameAndPath(String originalFileName, String path);
 
-    void deleteByOriginalFileNameAndPath(String filename, String path);
+    List<FileStoredProjection> findProjectedByOriginalFileNameInAndPathIn(Collection<String> originalFileNames, Collection<String> paths);
+
+    /**
+     * Página de los archivos ordenados por ruta y nombre que siguen al último archivo de la página anterior. La
+     * paginación por clave evita recorrer las filas de las páginas anteriores como lo haría un desplazamiento.
+     *
+     * @param lastPath     Ruta del último archivo de la página anterior, vacía para la primera página
+     * @param lastFilename Nombre del último archivo de la página anterior, vacío para la primera página
+     * @param limit        Tamaño de la página
+     */
+    @Query("""
+            select f.id as id, f.contentLength as contentLength, f.contentType as contentType,
+                   f.originalFileName as originalFileName, f.path as path, f.attributes as attributes
+            from FileStored f
+            where f.path > :lastPath or (f.path = :lastPath and f.originalFileName > :lastFilename)
+            order by f.path, f.originalFileName
+            """)
+    List<FileStoredProjection> findProjectedPage(String lastPath, String lastFilename, Limit limit);
+
+    /**
+     * Página de los archivos bajo una ruta, incluidas sus subrutas. Las subrutas se buscan con {@code LIKE} y un
+     * prefijo escapado, que no depende del orden de la intercalación de la columna y aprovecha su índice.
+     *
+     * @param path          Ruta bajo la que se listan los archivos
+     * @param subpathPrefix Patrón de las subrutas, la ruta escapada con {@code \} seguida de {@code /%}
+     * @see #findProjectedPage(String, String, Limit)
+     */
+    @Query("""
+            select f.id as id, f.contentLength as contentLength, f.contentType as contentType,
+                   f.originalFileName as originalFileName, f.path as path, f.attributes as attributes
+            from FileStored f
+            where (f.path = :path or f.path like :subpathPrefix escape '\\')
+              and (f.path > :lastPath or (f.path = :lastPath and f.originalFileName > :lastFilename))
+            order by f.path, f.originalFileName
+            """)
+    List<FileStoredProjection> findProjectedPageUnderPath(
+            String path,
+            String subpathPrefix,
+            String lastPath,
+            String lastFilename,
+            Limit limit
+    );
+
+    /**
+     * @return Cantidad de archivos eliminados
+     */
+    @Transactional
+    long deleteByOriginalFileNameAndPath(String filename, String path);
+
+    /**
+     * Lee el contenido de un archivo dentro de una transacción de solo lectura, el {@link java.sql.Blob} del archivo
+     * solo es válido mientras se ejecuta el lector
+     *
+     * @param originalFileName Nombre del archivo
+     * @param path             Ruta del archivo
+     * @param reader           Lector del archivo
+     * @return Resultado del lector o vacío si el archivo no existe
+     */
+    @Transactional(readOnly = true)
+    default <T> Optional<T> readByOriginalFileNameAndPath(String originalFileName, String path, FileStoredReader<T> reader) throws IOException {
+        var file = findByOriginalFileNameAndPath(originalFileName, path);
+        if (file.isEmpty()) return Optional.empty();
+        try {
+            return Optional.of(reader.read(file.get()));
+        } catch (SQLException e) {
+            throw new IOException("Error reading content of " + path, e);
+        }
+    }
+
+    @FunctionalInterface
+    interface FileStoredReader<T> {
+        T read(FileStored file) throws SQLException, IOException;
+    }
 
 }
\ No newline at end of file
@@ -1,36 +1,101 @@
 package io.github.luidmidev.storage.springframework.data.jpa;
 
+import io.github.luidmidev.storage.ByteRange;
+import io.github.luidmidev.storage.ContentSource;
 import io.github.luidmidev.storage.PathFile;
 import io.github.luidmidev.storage.Stored;
 import io.github.luidmidev.storage.Storage;
+import io.github.luidmidev.storage.StoredStream;
 import io.github.luidmidev.storage.ToStore;
-import lombok.RequiredArgsConstructor;
+import io.github.luidmidev.storage.exceptions.FileNotFoundStorageException;
+import io.github.luidmidev.storage.exceptions.PartialRemovalStorageException;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.jdbc.BlobProxy;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
 
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.sql.SQLException;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static io.github.luidmidev.storage.StorageUtils.*;
 
 @Slf4j
-@RequiredArgsConstructor
 public final class JpaStorage extends Storage {
 
+    private static final int LIST_PAGE_SIZE = 500;
+
     private final FileStoredRepository repository;
+    private final PlatformTransactionManager transactionManager;
+
+    public JpaStorage(FileStoredRepository repository) {
+        this(repository, null);
+    }
+
+    /**
+     * @param repository         Repositorio de archivos
+     * @param transactionManager Gestor de transacciones utilizado para leer el contenido de los archivos como flujo,
+     *                           si es nulo {@link #openStream(String)} descarga el archivo completo en memoria
+     */
+    public JpaStorage(FileStoredRepository repository, PlatformTransactionManager transactionManager) {
+        this.repository = repository;
+        this.transactionManager = transactionManager;
+    }
 
     @Override
-    protected void internalStore(final ToStore toStore) {
+    protected void internalStore(final ToStore toStore) throws IOException {
+
+        var source = toStore.getSource();
+
+        if (source.size() != ContentSource.UNKNOWN_SIZE) {
+            try (var content = source.openStream()) {
+                save(toStore, content, source.size());
+            }
+            return;
+        }
+
+        // El driver JDBC necesita conocer el tamaño del Blob, se vuelca el flujo a un archivo temporal
+        var spool = Files.createTempFile("jpa-storage-", ".tmp");
+        try {
+            try (var out = Files.newOutputStream(spool)) {
+                source.transferTo(out);
+            }
+            try (var content = Files.newInputStream(spool)) {
+                save(toStore, content, Files.size(spool));
+            }
+        } finally {
+            Files.deleteIfExists(spool);
+        }
+    }
+
+    private void save(final ToStore toStore, InputStream content, long contentLength) {
 
         var filename = toStore.getFilename();
-        var content = toStore.getContent();
 
         var dbFile = FileStored.builder()
-                .content(content)
+                .content(BlobProxy.generateProxy(content, contentLength))
                 .contentType(guessContentType(filename))
-                .contentLength((long) content.length)
+                .contentLength(contentLength)
                 .originalFileName(filename)
-                .path(toStore.getCompletePath())
+                .path(toStore.getPath())
                 .uploadedAt(LocalDateTime.now())
+                .attributes(toStore.getAttributes())
                 .build();
 
         var saved = repository.save(dbFile);
@@ -38,22 +103,68 @@ public final class JpaStorage extends Storage {
     }
 
     @Override
-    protected Optional<Stored> internalDownload(final PathFile pathFile) {
-
-        var dbFileOptional = repository.findByOriginalFileNameAndPath(pathFile.getFilename(), pathFile.getPath());
-        if (dbFileOptional.isEmpty()) return Optional.empty();
-
-        var dbFile = dbFileOptional.get();
-
-        return Optional.of(constructStoredFile(
-                dbFile.getContent(),
+    protected Optional<Stored> internalDownload(final PathFile pathFile) throws IOException {
+        return repository.readByOriginalFileNameAndPath(pathFile.getFilename(), pathFile.getPath(), dbFile -> constructStoredFile(
+                dbFile.getContent().getBytes(1, Math.toIntExact(dbFile.getContentLength())),
                 dbFile.getContentLength(),
                 dbFile.getOriginalFileName(),
                 dbFile.getPath(),
-                dbFile.getContentType()
+                dbFile.getContentType(),
+                attributesOf(dbFile.getAttributes())
         ));
     }
 
+    /**
+     * El {@link java.sql.Blob} solo puede leerse dentro de una transacción, por lo que el flujo mantiene abierta una
+     * transacción de solo lectura hasta que se cierra. El flujo debe abrirse y cerrarse en el mismo hilo.
+     */
+    @Override
+    protected Optional<StoredStream> internalOpenStream(final PathFile pathFile) throws IOException {
+
+        if (transactionManager == null) return super.internalOpenStream(pathFile);
+
+        var info = internalInfo(pathFile);
+        if (info.isEmpty()) return Optional.empty();
+
+        return Optional.of(StoredStream.ofStream(info.get(), () -> openContent(pathFile, null)));
+    }
+
+    @Override
+    protected Optional<StoredStream> internalOpenStream(final PathFile pathFile, final ByteRange range) throws IOException {
+
+        if (transactionManager == null) return super.internalOpenStream(pathFile, range);
+
+        var info = internalInfo(pathFile);
+        if (info.isEmpty()) return Optional.empty();
+        var clamped = range.clamp(info.get().getFileSize());
+
+        return Optional.of(StoredStream.ofStream(info.get(), clamped, () -> openContent(pathFile, clamped)));
+    }
+
+    private InputStream openContent(final PathFile pathFile, final ByteRange range) throws IOException {
+
+        var definition = new DefaultTransactionDefinition();
+        definition.setReadOnly(true);
+        var status = transactionManager.getTransaction(definition);
+
+        try {
+            var dbFile = repository.findByOriginalFileNameAndPath(pathFile.getFilename(), pathFile.getPath())
+                    .orElseThrow(() -> new FileNotFoundStorageException(pathFile));
+            var blob = dbFile.getContent();
+            // Algunos drivers rechazan rangos vacíos, por lo que se entrega un flujo vacío sin consultar el Blob
+            var content = range == null ? blob.getBinaryStream()
+                    : range.length() == 0 ? InputStream.nullInputStream()
+                    : blob.getBinaryStream(range.offset() + 1, range.length());
+            return new TransactionalInputStream(content, status);
+        } catch (SQLException e) {
+            transactionManager.rollback(status);
+            throw new IOException("Error opening content of " + pathFile.getCompletePath(), e);
+        } catch (RuntimeException e) {
+            transactionManager.rollback(status);
+            throw e;
+        }
+    }
+
     @Override
     protected Optional<Stored.Info> internalInfo(final PathFile pathFile) {
 
@@ -66,17 +177,140 @@ public final class JpaStorage extends Storage {
                 dbFileInfo.getOriginalFileName(),
                 dbFileInfo.getContentLength(),
                 dbFileInfo.getPath(),
-                dbFileInfo.getContentType()
+                dbFileInfo.getContentType(),
+                attributesOf(dbFileInfo.getAttributes())
         ));
     }
 
+    /**
+     * @return Atributos del archivo, vacíos para las filas guardadas antes de existir la columna
+     */
+    private static Map<String, String> attributesOf(Map<String, String> attributes) {
+        return attributes == null ? Map.of() : attributes;
+    }
+
+    /**
+     * Los atributos se guardan en la columna {@code attributes} de {@link FileStored}
+     */
+    @Override
+    public boolean supportsAttributes() {
+        return true;
+    }
+
     @Override
     protected boolean internalExists(final PathFile pathFile) {
         return repository.existsByOriginalFileNameAndPath(pathFile.getFilename(), pathFile.getPath());
     }
 
+    /**
+     * Los archivos se consultan con una sola consulta {@code IN} por nombre y ruta, y se descartan las combinaciones
+     * de nombre y ruta que no fueron solicitadas
+     */
+    @Override
+    protected Set<String> internalExistsAll(final Collection<? extends PathFile> pathFiles) {
+        if (pathFiles.isEmpty()) return Set.of();
+
+        var requested = pathFiles.stream().map(PathFile::getCompletePath).collect(Collectors.toSet());
+        var filenames = pathFiles.stream().map(PathFile::getFilename).collect(Collectors.toSet());
+        var paths = pathFiles.stream().map(PathFile::getPath).collect(Collectors.toSet());
+
+        var existing = new HashSet<String>();
+        for (var dbFileInfo : repository.findProjectedByOriginalFileNameInAndPathIn(filenames, paths)) {
+            var completePath = factoryPathFile(dbFileInfo.getPath(), dbFileInfo.getOriginalFileName());
+            if (requested.contains(completePath)) existing.add(completePath);
+        }
+        return existing;
+    }
+
+    /**
+     * Los archivos se obtienen con una proyección sin el contenido, en páginas de {@value #LIST_PAGE_SIZE} archivos
+     * ordenados por ruta y nombre. Cada página se consulta a partir del último archivo de la anterior cuando se termina
+     * de consumir esta.
+     */
+    @Override
+    protected Stream<Stored.Info> internalList(final String path) {
+        return Stream.iterate(page(path, "", ""), page -> !page.isEmpty(), page -> {
+                    if (page.size() < LIST_PAGE_SIZE) return List.of();
+                    var last = page.getLast();
+                    return page(path, last.getPath(), last.getOriginalFileName());
+                })
+                .flatMap(List::stream)
+                .filter(dbFileInfo -> isUnderPath(dbFileInfo.getPath(), path))
+                .map(dbFileInfo -> constructFileInfo(
+                        dbFileInfo.getOriginalFileName(),
+                        dbFileInfo.getContentLength(),
+                        dbFileInfo.getPath(),
+                        dbFileInfo.getContentType(),
+                        attributesOf(dbFileInfo.getAttributes())
+                ));
+    }
+
+    private List<FileStoredProjection> page(String path, String lastPath, String lastFilename) {
+        var limit = Limit.of(LIST_PAGE_SIZE);
+        if (path.isEmpty()) return repository.findProjectedPage(lastPath, lastFilename, limit);
+        return repository.findProjectedPageUnderPath(path, escapeLike(path) + "/%", lastPath, lastFilename, limit);
+    }
+
+    /**
+     * Escapa los comodines de {@code LIKE} y el carácter de escape, para que la ruta se compare de forma literal
+     */
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
     @Override
     protected void internalRemove(final PathFile pathFile) {
-        repository.deleteByOriginalFileNameAndPath(pathFile.getFilename(), pathFile.getPath());
+        var deleted = repository.deleteByOriginalFileNameAndPath(pathFile.getFilename(), pathFile.getPath());
+        if (deleted == 0) throw new FileNotFoundStorageException(pathFile);
+    }
+
+    /**
+     * Los identificadores de los archivos se obtienen con una sola consulta y se eliminan con una sola sentencia. Los
+     * archivos que no existen se informan con {@link PartialRemovalStorageException}, como en la implementación por
+     * defecto.
+     */
+    @Override
+    protected void internalRemoveAll(final Collection<? extends PathFile> pathFiles) {
+        if (pathFiles.isEmpty()) return;
+
+        var missing = new LinkedHashMap<String, PathFile>();
+        for (var pathFile : pathFiles) missing.put(pathFile.getCompletePath(), pathFile);
+        var filenames = pathFiles.stream().map(PathFile::getFilename).collect(Collectors.toSet());
+        var paths = pathFiles.stream().map(PathFile::getPath).collect(Collectors.toSet());
+
+        var ids = new ArrayList<UUID>();
+        for (var dbFileInfo : repository.findProjectedByOriginalFileNameInAndPathIn(filenames, paths)) {
+            var completePath = factoryPathFile(dbFileInfo.getPath(), dbFileInfo.getOriginalFileName());
+            if (missing.remove(completePath) != null) ids.add(dbFileInfo.getId());
+        }
+        if (!ids.isEmpty()) repository.deleteAllByIdInBatch(ids);
+
+        if (missing.isEmpty()) return;
+        var failures = new LinkedHashMap<String, Exception>();
+        for (var pathFile : missing.values()) failures.put(pathFile.getCompletePath(), new FileNotFoundStorageException(pathFile));
+        throw new PartialRemovalStorageException(failures);
+    }
+
+    /**
+     * Flujo del contenido de un archivo que finaliza la transacción de lectura al cerrarse
+     */
+    private final class TransactionalInputStream extends FilterInputStream {
+
+        private final TransactionStatus status;
+
+        private TransactionalInputStream(InputStream in, TransactionStatus status) {
+            super(in);
+            this.status = status;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (status.isCompleted()) return;
+            try {
+                super.close();
+            } finally {
+                transactionManager.commit(status);
+            }
+        }
     }
 }
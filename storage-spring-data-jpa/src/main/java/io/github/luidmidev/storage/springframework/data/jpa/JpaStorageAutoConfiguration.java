@@ -1,11 +1,13 @@
 package io.github.luidmidev.storage.springframework.data.jpa;
 
 import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.domain.EntityScan;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.transaction.PlatformTransactionManager;
 
 @Configuration
 @ConditionalOnClass({EntityManagerFactory.class, FileStoredRepository.class})
@@ -14,8 +16,8 @@ import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 public class JpaStorageAutoConfiguration {
 
     @Bean
-    public JpaStorage jpaStorage(FileStoredRepository repository) {
-        return new JpaStorage(repository);
+    public JpaStorage jpaStorage(FileStoredRepository repository, ObjectProvider<PlatformTransactionManager> transactionManager) {
+        return new JpaStorage(repository, transactionManager.getIfUnique());
     }
 
 }
@@ -1,21 +1,42 @@
 package io.github.luidmidev.storage.springframework.gridfs;
 
 import com.mongodb.BasicDBObject;
+import com.mongodb.client.gridfs.model.GridFSFile;
+import io.github.luidmidev.storage.BoundedInputStream;
+import io.github.luidmidev.storage.ByteRange;
+import io.github.luidmidev.storage.ContentSource;
 import io.github.luidmidev.storage.PathFile;
 import io.github.luidmidev.storage.Stored;
 import io.github.luidmidev.storage.Storage;
+import io.github.luidmidev.storage.StoredStream;
 import io.github.luidmidev.storage.ToStore;
+import io.github.luidmidev.storage.exceptions.FileNotFoundStorageException;
+import io.github.luidmidev.storage.exceptions.PartialRemovalStorageException;
 import io.github.luidmidev.storage.exceptions.StorageException;
 import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.data.mongodb.gridfs.GridFsOperations;
 import org.springframework.data.mongodb.gridfs.GridFsTemplate;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import static io.github.luidmidev.storage.StorageUtils.*;
 
@@ -28,20 +49,31 @@ public final class GridFSStorage extends Storage {
 
     private final GridFsTemplate template;
     private final GridFsOperations operations;
+    /**
+     * Clave de los metadatos con la ruta del directorio del archivo, sin el nombre del archivo
+     */
     private static final String PATH_KEY = "path";
     private static final String FILE_SIZE_KEY = "filesize";
+    /**
+     * Clave de los metadatos con el subdocumento de los atributos del archivo
+     */
+    private static final String ATTRIBUTES_KEY = "attributes";
+    private static final int LIST_BATCH_SIZE = 500;
 
 
     @Override
-    protected void internalStore(ToStore toStore) {
+    protected void internalStore(ToStore toStore) throws IOException {
         var filename = toStore.getFilename();
-        var content = toStore.getContent();
+        var source = toStore.getSource();
 
         var metadata = new BasicDBObject();
-        metadata.put(FILE_SIZE_KEY, content.length);
-        metadata.put(PATH_KEY, toStore.getCompletePath());
+        if (source.size() != ContentSource.UNKNOWN_SIZE) metadata.put(FILE_SIZE_KEY, source.size());
+        metadata.put(PATH_KEY, toStore.getPath());
         metadata.put("dateUpload", LocalDateTime.now());
-        template.store(new ByteArrayInputStream(content), filename, guessContentType(filename), metadata);
+        if (!toStore.getAttributes().isEmpty()) metadata.put(ATTRIBUTES_KEY, new Document(new LinkedHashMap<String, Object>(toStore.getAttributes())));
+        try (var content = source.openStream()) {
+            template.store(content, filename, guessContentType(filename), metadata);
+        }
     }
 
     @Override
@@ -55,28 +87,82 @@ public final class GridFSStorage extends Storage {
 
         return Optional.ofNullable(constructStoredFile(
                 operations.getResource(gridFSFile).getContentAsByteArray(),
-                Long.parseLong(metadata.get(FILE_SIZE_KEY).toString()),
+                gridFSFile.getLength(),
                 pathFile.getFilename(),
                 metadata.get(PATH_KEY).toString(),
-                metadata.get("_contentType").toString()
+                metadata.get("_contentType").toString(),
+                attributesOf(metadata)
         ));
     }
 
+    @Override
+    protected Optional<StoredStream> internalOpenStream(final PathFile pathFile) {
+
+        var gridFSFile = template.findOne(createQuery(pathFile));
+
+        if (gridFSFile == null) return Optional.empty();
+        var info = constructInfo(pathFile, gridFSFile);
+
+        return Optional.of(StoredStream.ofStream(info, () -> operations.getResource(gridFSFile).getInputStream()));
+    }
+
+    /**
+     * El flujo de GridFS calcula el fragmento que contiene la posición al descartar bytes, por lo que solo se leen
+     * los fragmentos que contienen el rango
+     */
+    @Override
+    protected Optional<StoredStream> internalOpenStream(final PathFile pathFile, final ByteRange range) {
+
+        var gridFSFile = template.findOne(createQuery(pathFile));
+
+        if (gridFSFile == null) return Optional.empty();
+        var info = constructInfo(pathFile, gridFSFile);
+        var clamped = range.clamp(gridFSFile.getLength());
+
+        return Optional.of(StoredStream.ofStream(info, clamped, () -> {
+            var in = operations.getResource(gridFSFile).getInputStream();
+            in.skipNBytes(clamped.offset());
+            return new BoundedInputStream(in, clamped.length());
+        }));
+    }
+
     @Override
     protected Optional<Stored.Info> internalInfo(final PathFile pathFile) {
 
         var gridFSFile = template.findOne(createQuery(pathFile));
 
         if (gridFSFile == null) return Optional.empty();
+        return Optional.of(constructInfo(pathFile, gridFSFile));
+    }
+
+    private static Stored.Info constructInfo(final PathFile pathFile, final GridFSFile gridFSFile) {
         var metadata = gridFSFile.getMetadata();
         if (metadata == null) throw new StorageException("Metadata not found for file: " + pathFile.getCompletePath());
 
-        return Optional.of(constructFileInfo(
+        return constructFileInfo(
                 pathFile.getFilename(),
-                Long.parseLong(metadata.get(FILE_SIZE_KEY).toString()),
+                gridFSFile.getLength(),
                 metadata.get(PATH_KEY).toString(),
-                metadata.get("_contentType").toString()
-        ));
+                metadata.get("_contentType").toString(),
+                attributesOf(metadata)
+        );
+    }
+
+    private static Map<String, String> attributesOf(final Document metadata) {
+        if (!(metadata.get(ATTRIBUTES_KEY) instanceof Document attributes)) return Map.of();
+        var values = new HashMap<String, String>();
+        attributes.forEach((key, value) -> {
+            if (value != null) values.put(key, value.toString());
+        });
+        return Map.copyOf(values);
+    }
+
+    /**
+     * Los atributos se guardan en el subdocumento {@value #ATTRIBUTES_KEY} de los metadatos del archivo
+     */
+    @Override
+    public boolean supportsAttributes() {
+        return true;
     }
 
     @Override
@@ -84,9 +170,83 @@ public final class GridFSStorage extends Storage {
         return template.findOne(createQuery(pathFile)) != null;
     }
 
+    /**
+     * Los archivos se consultan con una sola consulta {@code $in} por nombre y ruta, y se descartan las combinaciones
+     * de nombre y ruta que no fueron solicitadas
+     */
+    @Override
+    protected Set<String> internalExistsAll(final Collection<? extends PathFile> pathFiles) {
+        if (pathFiles.isEmpty()) return Set.of();
+
+        var requested = pathFiles.stream().map(PathFile::getCompletePath).collect(Collectors.toSet());
+        var filenames = pathFiles.stream().map(PathFile::getFilename).distinct().toList();
+        var paths = pathFiles.stream().map(PathFile::getPath).distinct().toList();
+        var query = new Query(Criteria.where("filename").in(filenames).and("metadata." + PATH_KEY).in(paths));
+
+        var existing = new HashSet<String>();
+        for (var gridFSFile : template.find(query)) {
+            var metadata = gridFSFile.getMetadata();
+            if (metadata == null) continue;
+            var completePath = factoryPathFile(metadata.get(PATH_KEY).toString(), gridFSFile.getFilename());
+            if (requested.contains(completePath)) existing.add(completePath);
+        }
+        return existing;
+    }
+
+    /**
+     * Los archivos se recorren con un cursor sobre {@code metadata.path}, que obtiene los documentos en lotes de
+     * {@value #LIST_BATCH_SIZE} a medida que se consume el flujo. El cursor se cierra al cerrar el flujo.
+     */
+    @Override
+    protected Stream<Stored.Info> internalList(final String path) {
+        var query = path.isEmpty() ? new Query() : new Query(new Criteria().orOperator(
+                Criteria.where("metadata." + PATH_KEY).is(path),
+                Criteria.where("metadata." + PATH_KEY).regex("^" + Pattern.quote(path + "/"))
+        ));
+        query.with(Sort.by("metadata." + PATH_KEY, "filename"));
+
+        var cursor = template.find(query).batchSize(LIST_BATCH_SIZE).iterator();
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(cursor, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(cursor::close)
+                .filter(gridFSFile -> gridFSFile.getMetadata() != null)
+                .map(gridFSFile -> constructInfo(new PathFile(gridFSFile.getMetadata().get(PATH_KEY).toString(), gridFSFile.getFilename()), gridFSFile));
+    }
+
     @Override
     protected void internalRemove(final PathFile pathFile) {
-        template.delete(createQuery(pathFile));
+        var gridFSFile = template.findOne(createQuery(pathFile));
+        if (gridFSFile == null) throw new FileNotFoundStorageException(pathFile);
+        template.delete(new Query(Criteria.where("_id").is(gridFSFile.getObjectId())));
+    }
+
+    /**
+     * Los archivos se buscan con una sola consulta {@code $in} por nombre y ruta y se eliminan por su identificador.
+     * Los archivos que no existen se informan con {@link PartialRemovalStorageException}, como en la implementación
+     * por defecto.
+     */
+    @Override
+    protected void internalRemoveAll(final Collection<? extends PathFile> pathFiles) {
+        if (pathFiles.isEmpty()) return;
+
+        var missing = new LinkedHashMap<String, PathFile>();
+        for (var pathFile : pathFiles) missing.put(pathFile.getCompletePath(), pathFile);
+        var filenames = pathFiles.stream().map(PathFile::getFilename).distinct().toList();
+        var paths = pathFiles.stream().map(PathFile::getPath).distinct().toList();
+        var query = new Query(Criteria.where("filename").in(filenames).and("metadata." + PATH_KEY).in(paths));
+
+        var ids = new ArrayList<Object>();
+        for (var gridFSFile : template.find(query)) {
+            var metadata = gridFSFile.getMetadata();
+            if (metadata == null) continue;
+            var completePath = factoryPathFile(metadata.get(PATH_KEY).toString(), gridFSFile.getFilename());
+            if (missing.remove(completePath) != null) ids.add(gridFSFile.getObjectId());
+        }
+        if (!ids.isEmpty()) template.delete(new Query(Criteria.where("_id").in(ids)));
+
+        if (missing.isEmpty()) return;
+        var failures = new LinkedHashMap<String, Exception>();
+        for (var pathFile : missing.values()) failures.put(pathFile.getCompletePath(), new FileNotFoundStorageException(pathFile));
+        throw new PartialRemovalStorageException(failures);
     }
 
     private static Query createQuery(final PathFile pathFile) {